@@ -0,0 +1,156 @@
+package br.com.nish.calculadora.benchmark;
+
+import br.com.nish.calculadora.dto.CalculoRescisaoRequest;
+import br.com.nish.calculadora.dto.CalculoRescisaoResponse;
+import br.com.nish.calculadora.dto.TipoRescisao;
+import br.com.nish.calculadora.service.CalculoRescisaoService;
+import br.com.nish.calculadora.service.DescontosService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Atendimento de /calcular com alta concorrência: pool de 200 threads de plataforma (o padrão do Tomcat)
+ * contra uma virtual thread por requisição ({@code spring.threads.virtual.enabled=true}).
+ * <p>
+ * Cada requisição simulada espera três idas ao banco (duas consultas do usuário e o insert), de
+ * {@code latenciaBancoMicros} cada, e roda o cálculo real. {@code vazao} mede requisições por segundo em rajadas de
+ * {@value #CONCORRENCIA}; {@code latencia} mede uma requisição com outras {@value #CONCORRENCIA} em andamento
+ * (o relatório traz p50, p90, p99...). O modo virtual exige Java 21:
+ * {@code ./gradlew jmh -PjavaVersao=21 -PjmhIncludes=AtendimentoConcorrente}.
+ */
+@State(Scope.Benchmark)
+public class AtendimentoConcorrenteBenchmark {
+
+    static final int CONCORRENCIA = 1000;
+    private static final int THREADS_TOMCAT = 200;
+    private static final int IDAS_AO_BANCO = 3;
+
+    @Param({"plataforma", "virtual"})
+    public String modo;
+
+    @Param({"1000"})
+    public long latenciaBancoMicros;
+
+    private AsyncTaskExecutor executor;
+    private CalculoRescisaoService motor;
+    private CalculoRescisaoRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("virtual".equals(modo)) {
+            if (Runtime.version().feature() < 21) {
+                throw new IllegalStateException("O modo virtual exige Java 21 (rode com -PjavaVersao=21)");
+            }
+            SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("requisicao-");
+            virtual.setVirtualThreads(true);
+            executor = virtual;
+        } else {
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setCorePoolSize(THREADS_TOMCAT);
+            pool.setMaxPoolSize(THREADS_TOMCAT);
+            pool.setThreadNamePrefix("requisicao-");
+            pool.initialize();
+            executor = pool;
+        }
+        motor = new CalculoRescisaoService(new DescontosService(new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        request = CalculoRescisaoRequest.builder()
+                .tipoRescisao(TipoRescisao.SEM_JUSTA_CAUSA)
+                .salarioMensal(new BigDecimal("4350.75"))
+                .dataAdmissao(LocalDate.of(2019, 3, 18))
+                .dataDesligamento(LocalDate.of(2025, 8, 22))
+                .avisoIndenizado(true)
+                .feriasVencidasDias(12)
+                .saldoFgtsDepositado(new BigDecimal("21430.19"))
+                .numeroDependentes(1)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    CalculoRescisaoResponse requisicao() {
+        for (int i = 0; i < IDAS_AO_BANCO; i++) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latenciaBancoMicros));
+        }
+        return motor.calcular(request);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(CONCORRENCIA)
+    public void vazao() {
+        CompletableFuture<?>[] requisicoes = new CompletableFuture<?>[CONCORRENCIA];
+        for (int i = 0; i < CONCORRENCIA; i++) {
+            requisicoes[i] = executor.submitCompletable(this::requisicao);
+        }
+        CompletableFuture.allOf(requisicoes).join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public CalculoRescisaoResponse latencia(CargaDeFundo carga) {
+        return executor.submitCompletable(this::requisicao).join();
+    }
+
+    /**
+     * Mantém {@value #CONCORRENCIA} requisições em andamento durante cada iteração de {@code latencia}:
+     * cada uma, ao terminar, dispara a próxima.
+     */
+    @State(Scope.Benchmark)
+    public static class CargaDeFundo {
+
+        private final AtomicInteger emAndamento = new AtomicInteger();
+        private volatile boolean ativa;
+
+        @Setup(Level.Iteration)
+        public void iniciar(AtendimentoConcorrenteBenchmark benchmark) {
+            ativa = true;
+            for (int i = 0; i < CONCORRENCIA; i++) {
+                disparar(benchmark);
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void parar() throws InterruptedException {
+            ativa = false;
+            while (emAndamento.get() > 0) {
+                Thread.sleep(1);
+            }
+        }
+
+        private void disparar(AtendimentoConcorrenteBenchmark benchmark) {
+            emAndamento.incrementAndGet();
+            benchmark.executor.submitCompletable(benchmark::requisicao).whenComplete((resposta, erro) -> {
+                emAndamento.decrementAndGet();
+                if (ativa) {
+                    disparar(benchmark);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.nish.calculadora.benchmark;
+
+import br.com.nish.calculadora.dto.CalculoRescisaoRequest;
+import br.com.nish.calculadora.dto.CalculoRescisaoResponse;
+import br.com.nish.calculadora.dto.TipoRescisao;
+import br.com.nish.calculadora.service.CalculoRescisaoCentavosService;
+import br.com.nish.calculadora.service.CalculoRescisaoService;
+import br.com.nish.calculadora.service.DescontosService;
+import br.com.nish.calculadora.service.MotorCalculoRescisao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Custo de um cálculo completo de rescisão para cada {@link TipoRescisao}, em cada motor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CalculoRescisaoBenchmark {
+
+    @Param({"SEM_JUSTA_CAUSA", "JUSTA_CAUSA", "PEDIDO_DEMISSAO", "ACORDO_484A", "TERMO_CONTRATO"})
+    public TipoRescisao tipo;
+
+    @Param({"bigdecimal", "centavos"})
+    public String motor;
+
+    private MotorCalculoRescisao service;
+    private CalculoRescisaoRequest request;
+
+    @Setup
+    public void setUp() {
+        DescontosService descontosService = new DescontosService(new SimpleMeterRegistry());
+        CalculoRescisaoService motorBigDecimal = new CalculoRescisaoService(descontosService, new SimpleMeterRegistry());
+        service = "centavos".equals(motor)
+                ? new CalculoRescisaoCentavosService(motorBigDecimal, descontosService, new SimpleMeterRegistry())
+                : motorBigDecimal;
+        request = CalculoRescisaoRequest.builder()
+                .tipoRescisao(tipo)
+                .salarioMensal(new BigDecimal("4350.75"))
+                .dataAdmissao(LocalDate.of(2019, 3, 18))
+                .dataDesligamento(LocalDate.of(2025, 8, 22))
+                .avisoIndenizado(true)
+                .feriasVencidasDias(12)
+                .saldoFgtsDepositado(new BigDecimal("21430.19"))
+                .numeroDependentes(1)
+                .build();
+    }
+
+    @Benchmark
+    public CalculoRescisaoResponse calcular() {
+        return service.calcular(request);
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.nish.calculadora.benchmark;
+
+import br.com.nish.calculadora.service.DescontosService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Custo do INSS e do IRRF nas bordas de cada faixa das tabelas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DescontosBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Inss {
+
+        // Abaixo, no limite e logo acima de cada teto da tabela do INSS.
+        @Param({"0.00", "1499.99", "1500.00", "1500.01", "2800.00", "4200.00", "7800.00", "7800.01", "25000.00"})
+        public String base;
+
+        DescontosService service;
+        BigDecimal baseCalculo;
+
+        @Setup
+        public void setUp() {
+            service = new DescontosService(new SimpleMeterRegistry());
+            baseCalculo = new BigDecimal(base);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Irrf {
+
+        // Base já líquida de INSS; limites das faixas do IRRF.
+        @Param({"2259.20", "2259.21", "2826.65", "3751.05", "4664.68", "4664.69", "25000.00"})
+        public String base;
+
+        DescontosService service;
+        BigDecimal baseTributavel;
+
+        @Setup
+        public void setUp() {
+            service = new DescontosService(new SimpleMeterRegistry());
+            baseTributavel = new BigDecimal(base);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal calcularInss(Inss estado) {
+        return estado.service.calcularInss(estado.baseCalculo);
+    }
+
+    @Benchmark
+    public BigDecimal calcularIrrf(Irrf estado) {
+        return estado.service.calcularIrrf(estado.baseTributavel, BigDecimal.ZERO, 0);
+    }
+}
@@ -0,0 +1,103 @@
+package br.com.nish.calculadora.benchmark;
+
+import br.com.nish.calculadora.dto.CalculoRescisaoRequest;
+import br.com.nish.calculadora.dto.CalculoRescisaoResponse;
+import br.com.nish.calculadora.dto.TipoRescisao;
+import br.com.nish.calculadora.model.CalculoRescisao;
+import br.com.nish.calculadora.service.CalculoRescisaoService;
+import br.com.nish.calculadora.service.DescontosService;
+import br.com.nish.calculadora.service.PdfGenerationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Custo de renderizar o recibo em PDF de um cálculo salvo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PdfGenerationBenchmark {
+
+    private PdfGenerationService service;
+    private CalculoRescisao calculo;
+
+    @Setup
+    public void setUp() throws Exception {
+        service = new PdfGenerationService(new SimpleMeterRegistry());
+
+        CalculoRescisaoRequest request = CalculoRescisaoRequest.builder()
+                .tipoRescisao(TipoRescisao.SEM_JUSTA_CAUSA)
+                .salarioMensal(new BigDecimal("4350.75"))
+                .dataAdmissao(LocalDate.of(2019, 3, 18))
+                .dataDesligamento(LocalDate.of(2025, 8, 22))
+                .avisoIndenizado(true)
+                .feriasVencidasDias(12)
+                .saldoFgtsDepositado(new BigDecimal("21430.19"))
+                .numeroDependentes(1)
+                .nomeEmpregado("Maria da Silva")
+                .build();
+        CalculoRescisaoResponse response = new CalculoRescisaoService(new DescontosService(new SimpleMeterRegistry()), new SimpleMeterRegistry()).calcular(request);
+
+        calculo = CalculoRescisao.builder()
+                .id(1L)
+                .usuarioId(1L)
+                .nomeEmpregado(request.getNomeEmpregado())
+                .tipoRescisao(request.getTipoRescisao().name())
+                .salarioMensal(request.getSalarioMensal())
+                .dataAdmissao(request.getDataAdmissao())
+                .dataDesligamento(request.getDataDesligamento())
+                .avisoIndenizado(request.isAvisoIndenizado())
+                .feriasVencidasDias(request.getFeriasVencidasDias())
+                .saldoFgtsDepositado(request.getSaldoFgtsDepositado())
+                .totalBruto(response.getTotalBruto())
+                .totalDescontos(response.getTotalDescontos())
+                .totalLiquido(response.getTotalLiquido())
+                .pagamentoAte(response.getPagamentoAte())
+                .componentes(response.getComponentes(), response.getDescontos())
+                .build();
+    }
+
+    @Benchmark
+    public ByteArrayInputStream gerarReciboRescisao() throws Exception {
+        return service.gerarReciboRescisao(calculo);
+    }
+
+    /**
+     * Caminho usado na resposta HTTP: o PDF vai direto para a saída, sem byte[] intermediário.
+     */
+    @Benchmark
+    public void escreverReciboRescisao(Blackhole blackhole) throws Exception {
+        service.escreverReciboRescisao(calculo, new SaidaDescartada(blackhole));
+    }
+
+    /** Saída que só consome os bytes, como o socket da resposta. */
+    private static final class SaidaDescartada extends OutputStream {
+        private final Blackhole blackhole;
+
+        SaidaDescartada(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+        }
+    }
+}
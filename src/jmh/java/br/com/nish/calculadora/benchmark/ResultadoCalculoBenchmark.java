@@ -0,0 +1,83 @@
+package br.com.nish.calculadora.benchmark;
+
+import br.com.nish.calculadora.dto.CalculoRescisaoRequest;
+import br.com.nish.calculadora.dto.CalculoRescisaoResponse;
+import br.com.nish.calculadora.dto.Componente;
+import br.com.nish.calculadora.dto.TipoRescisao;
+import br.com.nish.calculadora.model.ResultadoCalculoCodec;
+import br.com.nish.calculadora.service.CalculoRescisaoService;
+import br.com.nish.calculadora.service.DescontosService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Gravação e leitura do resultado de um cálculo no histórico: formato compacto (CBOR) contra o JSON de componentes
+ * usado antes da V11.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResultadoCalculoBenchmark {
+
+    private static final TypeReference<List<Componente>> LISTA = new TypeReference<>() {};
+
+    private ObjectMapper objectMapper;
+    private List<Componente> proventos;
+    private List<Componente> descontos;
+    private byte[] compacto;
+    private String json;
+
+    @Setup
+    public void setUp() throws Exception {
+        CalculoRescisaoRequest request = CalculoRescisaoRequest.builder()
+                .tipoRescisao(TipoRescisao.SEM_JUSTA_CAUSA)
+                .salarioMensal(new BigDecimal("4350.75"))
+                .dataAdmissao(LocalDate.of(2019, 3, 18))
+                .dataDesligamento(LocalDate.of(2025, 8, 22))
+                .avisoIndenizado(true)
+                .feriasVencidasDias(12)
+                .saldoFgtsDepositado(new BigDecimal("21430.19"))
+                .numeroDependentes(1)
+                .nomeEmpregado("Maria da Silva")
+                .build();
+        CalculoRescisaoResponse response = new CalculoRescisaoService(new DescontosService(new SimpleMeterRegistry()), new SimpleMeterRegistry()).calcular(request);
+
+        objectMapper = new ObjectMapper();
+        proventos = response.getComponentes();
+        descontos = response.getDescontos();
+        compacto = ResultadoCalculoCodec.codificar(proventos, descontos);
+        json = objectMapper.writeValueAsString(proventos);
+    }
+
+    @Benchmark
+    public byte[] codificarCompacto() {
+        return ResultadoCalculoCodec.codificar(proventos, descontos);
+    }
+
+    @Benchmark
+    public String codificarJson() throws Exception {
+        return objectMapper.writeValueAsString(proventos);
+    }
+
+    @Benchmark
+    public List<Componente> decodificarCompacto() {
+        return ResultadoCalculoCodec.decodificarProventos(compacto);
+    }
+
+    @Benchmark
+    public List<Componente> decodificarJson() throws Exception {
+        return objectMapper.readValue(json, LISTA);
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.nish.calculadora.carga;
+
+/**
+ * Etapas do fluxo do api-flow.http medidas pelo teste de carga.
+ */
+enum Endpoint {
+
+    REGISTRO("POST /auth/register"),
+    LOGIN("POST /auth/login"),
+    CALCULAR("POST /api/v1/rescisoes/calcular"),
+    HISTORICO("GET /api/v1/rescisoes/historico"),
+    PDF("GET /api/v1/rescisoes/{id}/pdf");
+
+    private final String descricao;
+
+    Endpoint(String descricao) {
+        this.descricao = descricao;
+    }
+
+    String descricao() {
+        return descricao;
+    }
+}
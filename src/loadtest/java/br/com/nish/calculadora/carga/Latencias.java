@@ -0,0 +1,76 @@
+package br.com.nish.calculadora.carga;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Latências (em nanossegundos) e erros por endpoint. Cada usuário virtual tem a sua instância, sem
+ * sincronização; no fim elas são juntadas e os percentis calculados sobre todas as amostras.
+ */
+final class Latencias {
+
+    private final long[][] amostras = new long[Endpoint.values().length][];
+    private final int[] quantidades = new int[Endpoint.values().length];
+    private final long[] erros = new long[Endpoint.values().length];
+
+    Latencias() {
+        Arrays.setAll(amostras, i -> new long[1024]);
+    }
+
+    void registrar(Endpoint endpoint, long nanos) {
+        int i = endpoint.ordinal();
+        if (quantidades[i] == amostras[i].length) {
+            amostras[i] = Arrays.copyOf(amostras[i], amostras[i].length * 2);
+        }
+        amostras[i][quantidades[i]++] = nanos;
+    }
+
+    void erro(Endpoint endpoint) {
+        erros[endpoint.ordinal()]++;
+    }
+
+    long erros() {
+        return Arrays.stream(erros).sum();
+    }
+
+    void juntar(Latencias outra) {
+        for (Endpoint endpoint : Endpoint.values()) {
+            int i = endpoint.ordinal();
+            for (int j = 0; j < outra.quantidades[i]; j++) {
+                registrar(endpoint, outra.amostras[i][j]);
+            }
+            erros[i] += outra.erros[i];
+        }
+    }
+
+    /**
+     * Vazão (requisições bem-sucedidas por segundo na janela) e percentis pelo método nearest-rank.
+     */
+    Relatorio.ResultadoEndpoint resultado(Endpoint endpoint, Duration janela) {
+        int i = endpoint.ordinal();
+        long[] ordenadas = Arrays.copyOf(amostras[i], quantidades[i]);
+        Arrays.sort(ordenadas);
+        double segundos = janela.toNanos() / 1e9;
+        return new Relatorio.ResultadoEndpoint(
+                endpoint.descricao(),
+                ordenadas.length,
+                erros[i],
+                segundos > 0 ? ordenadas.length / segundos : 0,
+                percentil(ordenadas, 50),
+                percentil(ordenadas, 95),
+                percentil(ordenadas, 99),
+                ordenadas.length == 0 ? 0 : emMs(ordenadas[ordenadas.length - 1]));
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int posicao = (int) Math.ceil(p / 100 * ordenadas.length) - 1;
+        return emMs(ordenadas[Math.max(0, posicao)]);
+    }
+
+    private static double emMs(long nanos) {
+        return Math.round(nanos / 1e3) / 1e3;
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.nish.calculadora.carga;
+
+import java.util.List;
+
+/**
+ * Relatório do teste de carga, gravado em JSON. Latências em milissegundos.
+ */
+record Relatorio(Configuracao configuracao, List<ResultadoEndpoint> endpoints) {
+
+    record Configuracao(String perfil, int usuarios, double aquecimentoSegundos, double duracaoSegundos,
+                        double preparacaoSegundos, String java, int processadores, List<String> argumentos) {}
+
+    /**
+     * @param vazaoPorSegundo requisições bem-sucedidas por segundo na janela medida (registro e login: na preparação)
+     */
+    record ResultadoEndpoint(String endpoint, long requisicoes, long erros, double vazaoPorSegundo,
+                             double p50Ms, double p95Ms, double p99Ms, double maxMs) {}
+}
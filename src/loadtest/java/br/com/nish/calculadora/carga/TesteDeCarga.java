@@ -0,0 +1,134 @@
+package br.com.nish.calculadora.carga;
+
+import br.com.nish.calculadora.CalculadoraRescisaoApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Teste de carga ponta a ponta: sobe a aplicação no perfil h2 (banco em memória) numa porta livre e coloca
+ * {@code carga.usuarios} usuários virtuais, cada um na sua thread, para percorrer o fluxo do api-flow.http.
+ * <p>
+ * Depois do registro e login de todos, o fluxo roda por {@code carga.aquecimento} sem medir e por
+ * {@code carga.duracao} medindo. O relatório JSON (vazão e p50/p95/p99 por endpoint) vai para {@code carga.saida}.
+ * Os argumentos são repassados à aplicação (ex.: {@code --rescisao.historico.write-behind.enabled=true}).
+ * O processo termina com código 1 se alguma requisição falhou.
+ * <p>
+ * Executar com {@code ./gradlew testeCarga}.
+ */
+public final class TesteDeCarga {
+
+    private static final Logger log = LoggerFactory.getLogger(TesteDeCarga.class);
+
+    private TesteDeCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int usuarios = Integer.getInteger("carga.usuarios", 50);
+        Duration aquecimento = DurationStyle.detectAndParse(System.getProperty("carga.aquecimento", "10s"));
+        Duration duracao = DurationStyle.detectAndParse(System.getProperty("carga.duracao", "30s"));
+        Path saida = Path.of(System.getProperty("carga.saida", "build/reports/carga/resultado.json"));
+
+        // Como propriedades de sistema, valem mais que o application.properties e menos que os argumentos.
+        System.getProperties().putIfAbsent("server.port", "0");
+        System.getProperties().putIfAbsent("logging.level.root", "WARN");
+        System.getProperties().putIfAbsent("logging.level.br.com.nish.calculadora.carga", "INFO");
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(CalculadoraRescisaoApplication.class)
+                .profiles("h2")
+                .run(args);
+        long erros;
+        try {
+            int porta = ((WebServerApplicationContext) app).getWebServer().getPort();
+            Relatorio relatorio = executar(URI.create("http://localhost:" + porta), usuarios, aquecimento, duracao, args);
+            Files.createDirectories(saida.toAbsolutePath().getParent());
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(saida.toFile(), relatorio);
+
+            erros = relatorio.endpoints().stream().mapToLong(Relatorio.ResultadoEndpoint::erros).sum();
+            relatorio.endpoints().forEach(r -> log.info(String.format("%-34s %8d req %6d erros %10.1f req/s   p50 %8.2f ms   p95 %8.2f ms   p99 %8.2f ms",
+                    r.endpoint(), r.requisicoes(), r.erros(), r.vazaoPorSegundo(), r.p50Ms(), r.p95Ms(), r.p99Ms())));
+            log.info("Relatório gravado em {}", saida.toAbsolutePath());
+        } finally {
+            app.close();
+        }
+        System.exit(erros == 0 ? 0 : 1);
+    }
+
+    private static Relatorio executar(URI base, int usuarios, Duration aquecimento, Duration duracao, String[] args)
+            throws InterruptedException, ExecutionException {
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ObjectMapper json = new ObjectMapper();
+        String execucao = Long.toString(System.currentTimeMillis(), 36);
+        List<UsuarioVirtual> todos = new ArrayList<>(usuarios);
+        for (int i = 0; i < usuarios; i++) {
+            todos.add(new UsuarioVirtual(http, json, base, execucao, i));
+        }
+
+        AtomicInteger numero = new AtomicInteger();
+        ExecutorService threads = Executors.newFixedThreadPool(usuarios, r -> new Thread(r, "usuario-virtual-" + numero.getAndIncrement()));
+        try {
+            log.info("Registrando {} usuários virtuais", usuarios);
+            long inicioPreparacao = System.nanoTime();
+            // A ROLE_USER já vem da migração V8: todos os usuários se registram ao mesmo tempo.
+            List<UsuarioVirtual> prontos = new ArrayList<>(usuarios);
+            List<Future<Boolean>> entradas = threads.invokeAll(todos.stream()
+                    .map(u -> (Callable<Boolean>) u::entrar)
+                    .toList());
+            for (int i = 0; i < entradas.size(); i++) {
+                if (entradas.get(i).get()) {
+                    prontos.add(todos.get(i));
+                }
+            }
+            if (prontos.isEmpty()) {
+                throw new IllegalStateException("Nenhum usuário virtual conseguiu se registrar e entrar");
+            }
+            Duration preparacao = Duration.ofNanos(System.nanoTime() - inicioPreparacao);
+
+            log.info("{} usuários prontos; aquecimento de {} e medição de {}", prontos.size(), aquecimento, duracao);
+            long medirApos = System.nanoTime() + aquecimento.toNanos();
+            long fim = medirApos + duracao.toNanos();
+            for (Future<Object> percurso : threads.invokeAll(prontos.stream()
+                    .map(u -> Executors.callable(() -> percorrer(u, medirApos, fim)))
+                    .toList())) {
+                percurso.get();
+            }
+
+            Latencias total = new Latencias();
+            todos.forEach(u -> total.juntar(u.latencias()));
+            List<Relatorio.ResultadoEndpoint> resultados = Arrays.stream(Endpoint.values())
+                    .map(e -> total.resultado(e, e == Endpoint.REGISTRO || e == Endpoint.LOGIN ? preparacao : duracao))
+                    .toList();
+            Relatorio.Configuracao configuracao = new Relatorio.Configuracao("h2", usuarios,
+                    aquecimento.toMillis() / 1e3, duracao.toMillis() / 1e3, preparacao.toMillis() / 1e3,
+                    Runtime.version().toString(), Runtime.getRuntime().availableProcessors(), List.of(args));
+            return new Relatorio(configuracao, resultados);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private static void percorrer(UsuarioVirtual usuario, long medirApos, long fim) {
+        try {
+            usuario.percorrer(medirApos, fim);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
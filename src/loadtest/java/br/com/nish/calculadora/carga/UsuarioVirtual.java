@@ -0,0 +1,134 @@
+package br.com.nish.calculadora.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Um usuário do teste de carga: registra-se, faz login e repete /calcular → /historico → /{id}/pdf até o fim
+ * da janela. Só entram nas latências as requisições iniciadas depois do aquecimento.
+ */
+final class UsuarioVirtual {
+
+    private static final String SENHA = "SenhaForte123!";
+    private static final String[] TIPOS = {"SEM_JUSTA_CAUSA", "PEDIDO_DEMISSAO", "ACORDO_484A", "JUSTA_CAUSA"};
+
+    private final HttpClient http;
+    private final ObjectMapper json;
+    private final URI base;
+    private final String login;
+    private final Latencias latencias = new Latencias();
+    private String token;
+
+    UsuarioVirtual(HttpClient http, ObjectMapper json, URI base, String execucao, int numero) {
+        this.http = http;
+        this.json = json;
+        this.base = base;
+        this.login = "carga-" + execucao + "-" + numero;
+    }
+
+    Latencias latencias() {
+        return latencias;
+    }
+
+    /**
+     * Registro e login; devolve falso se o usuário não conseguiu um token.
+     */
+    boolean entrar() throws InterruptedException {
+        String registro = """
+                {"email":"%s@example.com","nome":"Carga","username":"%s","senha":"%s"}""".formatted(login, login, SENHA);
+        if (enviar(Endpoint.REGISTRO, post("/auth/register", registro), Long.MIN_VALUE) == null) {
+            return false;
+        }
+        String credenciais = """
+                {"login":"%s@example.com","senha":"%s"}""".formatted(login, SENHA);
+        JsonNode resposta = enviar(Endpoint.LOGIN, post("/auth/login", credenciais), Long.MIN_VALUE);
+        if (resposta == null) {
+            return false;
+        }
+        token = resposta.path("accessToken").asText();
+        return true;
+    }
+
+    /**
+     * Repete o fluxo até {@code fim} (System.nanoTime); mede as requisições iniciadas a partir de {@code medirApos}.
+     */
+    void percorrer(long medirApos, long fim) throws InterruptedException {
+        while (System.nanoTime() < fim) {
+            JsonNode calculo = enviar(Endpoint.CALCULAR, post("/api/v1/rescisoes/calcular", pedidoAleatorio()), medirApos);
+            if (calculo == null) {
+                continue;
+            }
+            enviar(Endpoint.HISTORICO, get("/api/v1/rescisoes/historico?page=0&size=10"), medirApos);
+            enviar(Endpoint.PDF, get("/api/v1/rescisoes/" + calculo.path("id").asLong() + "/pdf"), medirApos);
+        }
+    }
+
+    /**
+     * Salário e tipo variam a cada iteração, para que o cache de /calcular não responda quase tudo.
+     */
+    private static String pedidoAleatorio() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        return """
+                {"tipoRescisao":"%s","salarioMensal":%s,"dataAdmissao":"2021-03-01","dataDesligamento":"2025-08-29",\
+                "avisoIndenizado":true,"feriasVencidasDias":10,"mesesTrabalhadosNoAnoAtual":8,"saldoFgtsDepositado":5000.00,\
+                "nomeEmpregado":"Empregado Carga"}""".formatted(
+                TIPOS[aleatorio.nextInt(TIPOS.length)],
+                BigDecimal.valueOf(aleatorio.nextLong(150_000, 1_500_000), 2).toPlainString());
+    }
+
+    /**
+     * Envia a requisição e registra a latência ou o erro. Devolve o corpo JSON (nó vazio para respostas
+     * que não são JSON) ou nulo em caso de erro.
+     */
+    private JsonNode enviar(Endpoint endpoint, HttpRequest request, long medirApos) throws InterruptedException {
+        long inicio = System.nanoTime();
+        HttpResponse<byte[]> resposta;
+        try {
+            resposta = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            latencias.erro(endpoint);
+            return null;
+        }
+        long duracao = System.nanoTime() - inicio;
+        if (resposta.statusCode() / 100 != 2) {
+            latencias.erro(endpoint);
+            return null;
+        }
+        if (inicio >= medirApos) {
+            latencias.registrar(endpoint, duracao);
+        }
+        boolean corpoJson = resposta.headers().firstValue("Content-Type").orElse("").contains("json");
+        try {
+            return corpoJson ? json.readTree(resposta.body()) : json.createObjectNode();
+        } catch (IOException e) {
+            latencias.erro(endpoint);
+            return null;
+        }
+    }
+
+    private HttpRequest post(String caminho, String corpo) {
+        return requisicao(caminho)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+    }
+
+    private HttpRequest get(String caminho) {
+        return requisicao(caminho).GET().build();
+    }
+
+    private HttpRequest.Builder requisicao(String caminho) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(base.resolve(caminho));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+}
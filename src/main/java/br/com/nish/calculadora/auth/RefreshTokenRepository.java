@@ -0,0 +1,26 @@
+package br.com.nish.calculadora.auth;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Só marca se ninguém marcou antes: com duas renovações simultâneas do mesmo token, apenas uma vence.
+    @Modifying
+    @Query("update RefreshToken r set r.usadoEm = :agora where r.id = :id and r.usadoEm is null and r.revogadoEm is null")
+    int marcarUsado(Long id, OffsetDateTime agora);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revogadoEm = :agora where r.familia = :familia and r.revogadoEm is null")
+    int revogarFamilia(UUID familia, OffsetDateTime agora);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.usuarioId = :usuarioId and r.expiraEm < :agora")
+    int apagarExpirados(Long usuarioId, OffsetDateTime agora);
+}
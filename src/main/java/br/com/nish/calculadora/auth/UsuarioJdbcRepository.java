@@ -0,0 +1,178 @@
+package br.com.nish.calculadora.auth;
+
+import br.com.nish.calculadora.model.MetricaRepositorio;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Consultas e inserts de usuários em conjunto (provisionamento em lote) e o status com os perfis consultado a cada
+ * requisição autenticada, via JDBC.
+ * As chamadas entram na métrica dos repositórios do Spring Data ({@code spring.data.repository.invocations}).
+ */
+@Repository
+public class UsuarioJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO usuarios (email, username, nome, senha_hash, ativo) VALUES (?, ?, ?, ?, TRUE)";
+
+    private static final String INSERT_ROLES_SQL = """
+            INSERT INTO usuarios_roles (usuario_id, role_id)
+            SELECT u.id, r.id FROM usuarios u, roles r
+             WHERE u.email IN (:emails) AND r.name = :role
+            """;
+
+    private static final String STATUS_SQL = """
+            SELECT u.ativo, r.name
+              FROM usuarios u
+              LEFT JOIN usuarios_roles ur ON ur.usuario_id = u.id
+              LEFT JOIN roles r ON r.id = ur.role_id
+             WHERE u.id = ?
+             ORDER BY r.name
+            """;
+
+    private static final String INSERT_ROLES_POR_ID_SQL = """
+            INSERT INTO usuarios_roles (usuario_id, role_id)
+            SELECT :id, r.id FROM roles r WHERE r.name IN (:roles)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final MetricaRepositorio metrica;
+
+    public UsuarioJdbcRepository(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.metrica = new MetricaRepositorio(meterRegistry, UsuarioJdbcRepository.class);
+    }
+
+    /**
+     * Quais dos emails já estão cadastrados, em uma consulta.
+     */
+    public Set<String> emailsExistentes(Collection<String> emails) {
+        return existentes("emailsExistentes", "email", emails);
+    }
+
+    /**
+     * Quais dos usernames já estão cadastrados, em uma consulta.
+     */
+    public Set<String> usernamesExistentes(Collection<String> usernames) {
+        return existentes("usernamesExistentes", "username", usernames);
+    }
+
+    private Set<String> existentes(String metodo, String coluna, Collection<String> valores) {
+        if (valores.isEmpty()) {
+            return Set.of();
+        }
+        return metrica.medir(metodo, () -> new HashSet<>(namedJdbcTemplate.queryForList(
+                "SELECT " + coluna + " FROM usuarios WHERE " + coluna + " IN (:valores)",
+                Map.of("valores", valores), String.class)));
+    }
+
+    /**
+     * Insere os usuários em um batch, associa o perfil a todos com um único INSERT ... SELECT e devolve os ids por email.
+     * Tudo na mesma transação: se algum email ou username já existir, nada é gravado.
+     */
+    @Transactional
+    public Map<String, Long> inserir(List<NovoUsuario> usuarios, String role) {
+        if (usuarios.isEmpty()) {
+            return Map.of();
+        }
+        List<String> emails = usuarios.stream().map(NovoUsuario::email).toList();
+        return metrica.medir("inserir", () -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, usuarios, usuarios.size(), (ps, u) -> {
+                ps.setString(1, u.email());
+                ps.setString(2, u.username());
+                ps.setString(3, u.nome());
+                ps.setString(4, u.senhaHash());
+            });
+            namedJdbcTemplate.update(INSERT_ROLES_SQL, Map.of("emails", emails, "role", role));
+            Map<String, Long> ids = new HashMap<>();
+            namedJdbcTemplate.query("SELECT id, email FROM usuarios WHERE email IN (:emails)", Map.of("emails", emails),
+                    rs -> {
+                        ids.put(rs.getString("email"), rs.getLong("id"));
+                    });
+            return ids;
+        });
+    }
+
+    /**
+     * Status e nomes dos perfis atuais do usuário, em uma consulta.
+     *
+     * @return vazio se o usuário não existe
+     */
+    public Optional<StatusUsuario> status(Long id) {
+        ResultSetExtractor<Optional<StatusUsuario>> extrator = rs -> {
+            if (!rs.next()) {
+                return Optional.empty();
+            }
+            boolean ativo = rs.getBoolean("ativo");
+            List<String> roles = new ArrayList<>();
+            do {
+                // LEFT JOIN: usuário sem perfis vem em uma linha só, com o nome nulo.
+                String role = rs.getString("name");
+                if (role != null) {
+                    roles.add(role);
+                }
+            } while (rs.next());
+            return Optional.of(new StatusUsuario(ativo, List.copyOf(roles)));
+        };
+        return metrica.medir("status", () -> jdbcTemplate.query(STATUS_SQL, extrator, id));
+    }
+
+    /**
+     * @return {@code false} se o usuário não existe
+     */
+    public boolean atualizarAtivo(Long id, boolean ativo) {
+        return metrica.medir("atualizarAtivo",
+                () -> jdbcTemplate.update("UPDATE usuarios SET ativo = ? WHERE id = ?", ativo, id) > 0);
+    }
+
+    /**
+     * Troca os perfis do usuário pelos informados, na mesma transação.
+     *
+     * @return {@code false} se o usuário não existe
+     * @throws IllegalArgumentException se algum perfil não existe (nada é alterado)
+     */
+    @Transactional
+    public boolean substituirRoles(Long id, Set<String> roles) {
+        return metrica.medir("substituirRoles", () -> {
+            Integer usuarios = jdbcTemplate.queryForObject("SELECT count(*) FROM usuarios WHERE id = ?", Integer.class, id);
+            if (usuarios == null || usuarios == 0) {
+                return false;
+            }
+            if (!roles.isEmpty()) {
+                Integer existentes = namedJdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM roles WHERE name IN (:roles)", Map.of("roles", roles), Integer.class);
+                if (existentes == null || existentes != roles.size()) {
+                    throw new IllegalArgumentException("Perfil inexistente em " + roles);
+                }
+            }
+            jdbcTemplate.update("DELETE FROM usuarios_roles WHERE usuario_id = ?", id);
+            if (!roles.isEmpty()) {
+                namedJdbcTemplate.update(INSERT_ROLES_POR_ID_SQL, Map.of("id", id, "roles", roles));
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Usuário a inserir, com a senha já em hash.
+     */
+    public record NovoUsuario(String email, String username, String nome, String senhaHash) {}
+
+    /**
+     * Se o usuário está ativo e os nomes dos seus perfis.
+     */
+    public record StatusUsuario(boolean ativo, List<String> roles) {}
+}
@@ -1,6 +1,7 @@
 package br.com.nish.calculadora.auth;
 
 import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
@@ -9,6 +10,8 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
     // NOVO: Métodos para buscar por nome de usuário ou por ambos, e para verificar existência.
     Optional<Usuario> findByUsername(String username);
+    // Perfis no mesmo select: o login resolve o usuário inteiro com uma consulta.
+    @EntityGraph(attributePaths = "roles")
     Optional<Usuario> findByUsernameOrEmail(String username, String email);
     boolean existsByUsername(String username);
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+package br.com.nish.calculadora.config;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Pools de threads internos usados pelos processamentos em lote e pela verificação de senha do login.
+ * <p>
+ * Com {@code spring.threads.virtual.enabled=true} (e Java 21+) os pools passam a criar virtual threads,
+ * como o Tomcat e o executor padrão do Spring. O tamanho, a fila e o CallerRunsPolicy continuam valendo:
+ * o trabalho é CPU-bound e o limite de paralelismo é o que protege a máquina, não o custo da thread.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Com a fila cheia, quem submete espera uma vaga na fila: o trabalho continua no pool e não na thread da requisição.
+     */
+    private static final RejectedExecutionHandler AGUARDAR_FILA = (tarefa, pool) -> {
+        if (pool.isShutdown()) {
+            throw new RejectedExecutionException("Pool encerrado");
+        }
+        try {
+            pool.getQueue().put(tarefa);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrompido aguardando vaga na fila", e);
+        }
+    };
+
+    private final boolean virtualThreads;
+
+    public ExecutorConfig(Environment environment) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
+    /**
+     * Pool limitado ao número de núcleos para os cálculos em paralelo (CPU-bound).
+     */
+    @Bean(name = "calculoExecutor")
+    public ThreadPoolTaskExecutor calculoExecutor(
+            @Value("${rescisao.lote.threads:0}") int threads,
+            @Value("${rescisao.lote.fila:1000}") int fila
+    ) {
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(tamanho);
+        executor.setMaxPoolSize(tamanho);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("calculo-");
+        executor.setVirtualThreads(virtualThreads);
+        // Com a fila cheia, quem submete executa a tarefa: backpressure natural para os lotes.
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool para renderizar recibos em paralelo nas exportações (CPU-bound, limitado aos núcleos).
+     */
+    @Bean(name = "reciboExecutor")
+    public ThreadPoolTaskExecutor reciboExecutor(
+            @Value("${rescisao.exportacao.threads:0}") int threads,
+            @Value("${rescisao.exportacao.fila:100}") int fila
+    ) {
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(tamanho);
+        executor.setMaxPoolSize(tamanho);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("recibo-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool das verificações de senha (BCrypt) do login. Pequeno e sem CallerRunsPolicy: com a fila cheia a tarefa
+     * é rejeitada e o login responde 503 na hora, em vez de uma rajada de logins ocupar os núcleos dos cálculos.
+     */
+    @Bean(name = "senhaExecutor")
+    public ThreadPoolTaskExecutor senhaExecutor(
+            @Value("${seguranca.senha.threads:0}") int threads,
+            @Value("${seguranca.senha.fila:32}") int fila
+    ) {
+        int tamanho = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(tamanho);
+        executor.setMaxPoolSize(tamanho);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("senha-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool dos hashes BCrypt das importações de usuários. Separado do pool de cálculo para uma importação grande não
+     * ocupar os núcleos dos lotes; com a fila cheia a importação espera vaga ({@link #AGUARDAR_FILA}).
+     */
+    @Bean(name = "provisionamentoExecutor")
+    public ThreadPoolTaskExecutor provisionamentoExecutor(
+            @Value("${seguranca.provisionamento.threads:0}") int threads,
+            @Value("${seguranca.provisionamento.fila:64}") int fila
+    ) {
+        int tamanho = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(tamanho);
+        executor.setMaxPoolSize(tamanho);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("provisionamento-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setRejectedExecutionHandler(AGUARDAR_FILA);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
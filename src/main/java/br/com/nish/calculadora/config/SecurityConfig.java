@@ -1,10 +1,13 @@
 package br.com.nish.calculadora.config;
 
 import br.com.nish.calculadora.security.JwtAuthFilter;
+import br.com.nish.calculadora.security.UsuarioAuthenticationProvider;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -23,9 +26,12 @@ import static org.springframework.security.config.Customizer.withDefaults;
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
+    // Porta do actuator separada (management.server.port), só na rede interna; -1: actuator na porta da API.
+    private final int portaGerenciamento;
 
-    public SecurityConfig(JwtAuthFilter jwtAuthFilter) {
+    public SecurityConfig(JwtAuthFilter jwtAuthFilter, @Value("${management.server.port:-1}") int portaGerenciamento) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.portaGerenciamento = portaGerenciamento;
     }
 
     @Bean
@@ -35,12 +41,22 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Respostas em streaming são concluídas em um dispatch ASYNC, já autorizado no REQUEST original
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers(
                                 "/auth/**",
                                 "/swagger-ui.html",
                                 "/swagger-ui/**",
-                                "/api-docs/**"
+                                "/api-docs/**",
+                                // Health para o orquestrador
+                                "/actuator/health/**"
                         ).permitAll()
+                        // Scrape do Prometheus sem token só pela porta de gerenciamento, fora da API pública
+                        .requestMatchers(request -> portaGerenciamento > 0 && request.getLocalPort() == portaGerenciamento)
+                        .permitAll()
+                        // Na porta da API, métricas e demais endpoints do actuator só para administradores
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
                         // ESTA É A LINHA QUE CORRIGE O ERRO 403
                         .requestMatchers("/api/v1/**").authenticated()
                         .anyRequest().authenticated()
@@ -68,8 +84,9 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    // Login com uma única consulta e BCrypt no pool limitado (ver UsuarioAuthenticationProvider).
     @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration cfg) throws Exception {
-        return cfg.getAuthenticationManager();
+    public AuthenticationManager authenticationManager(UsuarioAuthenticationProvider usuarioAuthenticationProvider) {
+        return new ProviderManager(usuarioAuthenticationProvider);
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package br.com.nish.calculadora.controller;
+
+import br.com.nish.calculadora.model.CalculoRescisaoMensalRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/admin/analise")
+@RequiredArgsConstructor
+@Tag(name = "Administração de análises", description = "Operações restritas a ROLE_ADMIN")
+public class AnaliseAdminController {
+
+    private final CalculoRescisaoMensalRepository calculoRescisaoMensalRepository;
+
+    @PostMapping("/reconstruir")
+    @Operation(
+            summary = "Reconstruir totais mensais",
+            description = "Recalcula do zero a tabela de totais mensais a partir do histórico. Só é necessário se ela "
+                    + "divergir do histórico; no dia a dia os triggers a mantêm atualizada."
+    )
+    public ResponseEntity<Map<String, Integer>> reconstruir() {
+        return ResponseEntity.ok(Map.of("linhas", calculoRescisaoMensalRepository.reconstruir()));
+    }
+}
@@ -7,26 +7,28 @@ import br.com.nish.calculadora.auth.UsuarioRepository;
 import br.com.nish.calculadora.controller.dto.AuthResponse;
 import br.com.nish.calculadora.controller.dto.LoginRequest;
 import br.com.nish.calculadora.controller.dto.MeResponse;
+import br.com.nish.calculadora.controller.dto.RefreshRequest;
 import br.com.nish.calculadora.controller.dto.RegisterRequest;
 import br.com.nish.calculadora.security.JwtService;
+import br.com.nish.calculadora.security.LoginSobrecarregadoException;
+import br.com.nish.calculadora.security.RefreshTokenService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -45,6 +47,7 @@ public class AuthController {
     private final BCryptPasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
 
     @PostMapping("/register")
     @Transactional
@@ -75,32 +78,44 @@ public class AuthController {
     @PostMapping("/login")
     @Operation(summary = "Login")
     public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
-        // 1. Busca o usuário pelo campo 'login' (que pode ser email ou username)
-        Optional<Usuario> usuarioOpt = usuarioRepository.findByUsernameOrEmail(request.getLogin(), request.getLogin());
-        if (usuarioOpt.isEmpty()) {
+        // O provider busca o usuário pelo campo 'login' (email ou username) e verifica a senha no pool limitado.
+        // Única etapa com BCrypt: a partir daqui o cliente renova o acesso pelo refresh token.
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    UsernamePasswordAuthenticationToken.unauthenticated(request.getLogin(), request.getSenha()));
+        } catch (LoginSobrecarregadoException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()))
+                    .body(e.getMessage());
+        } catch (AuthenticationException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Credenciais inválidas");
         }
-        Usuario usuario = usuarioOpt.get();
+        Usuario usuario = (Usuario) authentication.getPrincipal();
 
-        // 2. Usa o EMAIL do usuário encontrado para a autenticação do Spring Security
-        UsernamePasswordAuthenticationToken authToken =
-                new UsernamePasswordAuthenticationToken(usuario.getEmail(), request.getSenha());
+        // Gera o access token com o usuário já carregado e abre uma nova família de refresh tokens
+        return ResponseEntity.ok(emitirTokens(usuario, refreshTokenService.emitir(usuario.getId())));
+    }
 
-        Authentication authentication = authenticationManager.authenticate(authToken);
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+    @PostMapping("/refresh")
+    @Operation(summary = "Renovar o access token com o refresh token (rotativo: o refresh token enviado deixa de valer)")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshRequest request) {
+        return refreshTokenService.renovar(request.getRefreshToken())
+                .<ResponseEntity<?>>map(r -> ResponseEntity.ok(emitirTokens(r.usuario(), r.refreshToken())))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Refresh token inválido"));
+    }
 
-        // 3. Gera o token com as informações corretas
+    private AuthResponse emitirTokens(Usuario usuario, String refreshToken) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("roles", userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
+        claims.put("roles", usuario.getRoles().stream()
+                .map(Role::getName)
                 .collect(Collectors.toList()));
         claims.put("username", usuario.getUsername());
+        // O id no token permite autenticar as requisições seguintes sem consultar o usuário no banco.
+        claims.put("uid", usuario.getId());
 
-        String token = jwtService.generateToken(userDetails.getUsername(), claims); // O 'subject' do token continua sendo o email
-        long expiresIn = 3600; // 1 hora
-        AuthResponse response = new AuthResponse(token, expiresIn);
-
-        return ResponseEntity.ok(response);
+        String token = jwtService.generateToken(usuario.getEmail(), claims); // O 'subject' do token continua sendo o email
+        return new AuthResponse(token, jwtService.getExpiracaoSegundos(), refreshToken, refreshTokenService.getValidadeSegundos());
     }
 
     @GetMapping("/me")
@@ -1,23 +1,45 @@
 package br.com.nish.calculadora.controller;
 
-import br.com.nish.calculadora.auth.Usuario;
-import br.com.nish.calculadora.auth.UsuarioRepository;
+import br.com.nish.calculadora.dto.BuscaHistoricoFiltro;
 import br.com.nish.calculadora.dto.CalculoRescisaoRequest;
 import br.com.nish.calculadora.dto.CalculoRescisaoResponse;
+import br.com.nish.calculadora.dto.CalculoRescisaoResumo;
+import br.com.nish.calculadora.dto.ExportacaoRecibosRequest;
+import br.com.nish.calculadora.dto.PaginaCursor;
+import br.com.nish.calculadora.dto.ResumoMensal;
+import br.com.nish.calculadora.dto.TipoRescisao;
+import br.com.nish.calculadora.dto.VarreduraDesligamentoRequest;
+import br.com.nish.calculadora.dto.VarreduraDesligamentoResponse;
 import br.com.nish.calculadora.model.CalculoRescisao;
+import br.com.nish.calculadora.model.CalculoRescisaoMensalRepository;
 import br.com.nish.calculadora.model.CalculoRescisaoRepository;
+import br.com.nish.calculadora.security.UsuarioAutenticado;
+import br.com.nish.calculadora.service.CalculoLoteService;
+import br.com.nish.calculadora.service.CalculoRescisaoCache;
+import br.com.nish.calculadora.service.CalculoRescisaoMapper;
 import br.com.nish.calculadora.service.CalculoRescisaoService;
+import br.com.nish.calculadora.service.ExportacaoHistoricoService;
+import br.com.nish.calculadora.service.ExportacaoRecibosService;
+import br.com.nish.calculadora.service.HistoricoCalculoService;
 import br.com.nish.calculadora.service.PdfGenerationService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import br.com.nish.calculadora.service.ReciboPdf;
+import br.com.nish.calculadora.service.ReciboPdfCache;
+import br.com.nish.calculadora.service.VarreduraDesligamentoService;
 import com.lowagie.text.DocumentException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import java.io.ByteArrayInputStream;
+import jakarta.validation.Validator;
 import java.io.IOException;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpHeaders;
@@ -31,9 +53,12 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/rescisoes")
@@ -41,43 +66,110 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Rescisões", description = "Operações de cálculo de verbas rescisórias")
 public class RescisaoController {
 
+    private final CalculoRescisaoCache calculoRescisaoCache;
     private final CalculoRescisaoService calculoRescisaoService;
+    private final Validator validator;
     private final CalculoRescisaoRepository calculoRescisaoRepository;
-    private final UsuarioRepository usuarioRepository;
-    private final ObjectMapper objectMapper;
     private final PdfGenerationService pdfGenerationService;
+    private final ReciboPdfCache reciboPdfCache;
+    private final CalculoRescisaoMapper calculoRescisaoMapper;
+    private final CalculoLoteService calculoLoteService;
+    private final HistoricoCalculoService historicoCalculoService;
+    private final ExportacaoRecibosService exportacaoRecibosService;
+    private final ExportacaoHistoricoService exportacaoHistoricoService;
+    private final VarreduraDesligamentoService varreduraDesligamentoService;
+    private final CalculoRescisaoMensalRepository calculoRescisaoMensalRepository;
 
     @PostMapping("/calcular")
-    @Operation(summary = "Calcular rescisão", description = "Calcula e salva o detalhamento das verbas")
+    @Operation(
+            summary = "Calcular rescisão",
+            description = "Calcula e salva o detalhamento das verbas. Com o write-behind do histórico ligado "
+                    + "(rescisao.historico.write-behind.enabled), o id é devolvido antes de a linha ser gravada: "
+                    + "GET/DELETE /{id}, /{id}/pdf e /recibos/exportar esperam a gravação (até "
+                    + "rescisao.historico.write-behind.espera-leitura), mas a listagem e a busca do histórico podem "
+                    + "levar alguns milissegundos para mostrar o cálculo."
+    )
     public ResponseEntity<CalculoRescisaoResponse> calcular(
             @Valid @RequestBody CalculoRescisaoRequest request
-    ) throws JsonProcessingException {
+    ) {
 
         Long userId = getAuthenticatedUserId().orElseThrow(() -> new IllegalStateException("Usuário não autenticado"));
 
-        CalculoRescisaoResponse response = calculoRescisaoService.calcular(request);
-        CalculoRescisao entity = CalculoRescisao.builder()
-                .usuarioId(userId)
-                .nomeEmpregado(request.getNomeEmpregado())
-                .tipoRescisao(request.getTipoRescisao().name())
-                .salarioMensal(request.getSalarioMensal())
-                .dataAdmissao(request.getDataAdmissao())
-                .dataDesligamento(request.getDataDesligamento())
-                .avisoIndenizado(request.isAvisoIndenizado())
-                .feriasVencidasDias(request.getFeriasVencidasDias())
-                .mesesTrabalhadosNoAnoAtual(request.getMesesTrabalhadosNoAnoAtual())
-                .saldoFgtsDepositado(request.getSaldoFgtsDepositado())
-                .totalBruto(response.getTotalBruto())
-                .totalDescontos(response.getTotalDescontos())
-                .totalLiquido(response.getTotalLiquido())
-                .pagamentoAte(response.getPagamentoAte())
-                .componentesJson(objectMapper.writeValueAsString(response.getComponentes()))
-                .build();
-        calculoRescisaoRepository.save(entity);
+        CalculoRescisaoResponse response = calculoRescisaoCache.calcular(request);
+        CalculoRescisao entity = calculoRescisaoMapper.paraEntidade(userId, request, response);
+        response.setId(historicoCalculoService.registrar(entity));
 
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/comparar")
+    @Operation(
+            summary = "Comparar tipos de rescisão",
+            description = "Calcula a mesma entrada para todos os tipos de rescisão, em uma chamada, e devolve o resultado "
+                    + "de cada tipo. O campo tipoRescisao é ignorado e nada é salvo no histórico."
+    )
+    public ResponseEntity<Map<TipoRescisao, CalculoRescisaoResponse>> comparar(
+            @RequestBody CalculoRescisaoRequest request
+    ) {
+        validarIgnorando(request, "tipoRescisao");
+        return ResponseEntity.ok(calculoRescisaoService.compararTipos(request));
+    }
+
+    @PostMapping("/varredura")
+    @Operation(
+            summary = "Varredura de datas de desligamento",
+            description = "Calcula a entrada para cada data de desligamento do período (até rescisao.varredura.max-dias) "
+                    + "e devolve os totais por dia e os pontos de quebra: virada do mês ou do ano, aniversário que aumenta "
+                    + "o aviso prévio e mudança nos meses de 13º/férias. A data de desligamento da entrada é ignorada."
+    )
+    public ResponseEntity<VarreduraDesligamentoResponse> varredura(@Valid @RequestBody VarreduraDesligamentoRequest request) {
+        validarIgnorando(request.getCalculo(), "dataDesligamento");
+        try {
+            return ResponseEntity.ok(varreduraDesligamentoService.varrer(
+                    request.getCalculo(), request.getDesligamentoDe(), request.getDesligamentoAte()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Mesma validação do /calcular, menos o campo que o endpoint não usa.
+     */
+    private void validarIgnorando(CalculoRescisaoRequest request, String campoIgnorado) {
+        String erros = validator.validate(request).stream()
+                .filter(v -> !campoIgnorado.equals(v.getPropertyPath().toString()))
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        if (!erros.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, erros);
+        }
+    }
+
+    @PostMapping(
+            value = "/lote",
+            consumes = {"application/x-ndjson", "text/csv"},
+            produces = "application/x-ndjson"
+    )
+    @Operation(
+            summary = "Calcular rescisões em lote",
+            description = "Recebe linhas NDJSON ou CSV (com cabeçalho) de cálculos e devolve um resultado por linha, "
+                    + "em NDJSON. Erros de validação saem assim que a linha é processada; cálculos válidos saem com o id no "
+                    + "histórico depois que o batch deles é gravado (ou como erro, se a gravação falhar)."
+    )
+    public ResponseEntity<StreamingResponseBody> calcularLote(
+            HttpServletRequest httpRequest,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType
+    ) {
+        Long userId = getAuthenticatedUserId().orElseThrow(() -> new IllegalStateException("Usuário não autenticado"));
+
+        StreamingResponseBody body = out ->
+                calculoLoteService.processar(httpRequest.getInputStream(), contentType, userId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @GetMapping("/historico")
     @Operation(summary = "Histórico de cálculos", description = "Retorna cálculos paginados do usuário atual")
     public ResponseEntity<Page<CalculoRescisao>> historico(
@@ -90,10 +182,108 @@ public class RescisaoController {
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping("/historico/resumo")
+    @Operation(
+            summary = "Histórico resumido",
+            description = "Retorna, paginado, só o resumo de cada cálculo (nome, tipo, datas e totais), sem os componentes. "
+                    + "O detalhe completo continua em /{id}."
+    )
+    public ResponseEntity<Page<CalculoRescisaoResumo>> historicoResumo(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        Long userId = getAuthenticatedUserId().orElseThrow(() -> new IllegalStateException("Usuário não autenticado"));
+        return ResponseEntity.ok(calculoRescisaoRepository.findResumosByUsuarioId(userId, PageRequest.of(page, size)));
+    }
+
+    @GetMapping("/historico/cursor")
+    @Operation(
+            summary = "Histórico de cálculos por cursor",
+            description = "Retorna o resumo dos cálculos do usuário atual, do mais recente para o mais antigo. Para a próxima página, "
+                    + "envie o 'proximoCursor' recebido; ele vem nulo na última. Não calcula o total de registros."
+    )
+    public ResponseEntity<PaginaCursor<CalculoRescisaoResumo>> historicoPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        Long userId = getAuthenticatedUserId().orElseThrow(() -> new IllegalStateException("Usuário não autenticado"));
+        int tamanho = Math.min(Math.max(size, 1), 100);
+        try {
+            return ResponseEntity.ok(historicoCalculoService.listarPorCursor(userId, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping("/historico/busca")
+    @Operation(
+            summary = "Buscar no histórico",
+            description = "Busca os cálculos do usuário atual por trecho do nome do empregado (mín. 3 caracteres), tipo, "
+                    + "período de desligamento, faixa de valor líquido e/ou verba (nome exato do componente). Retorna "
+                    + "o resumo, do desligamento mais recente para o mais antigo; para a próxima página, envie o "
+                    + "'proximoCursor' recebido."
+    )
+    public ResponseEntity<PaginaCursor<CalculoRescisaoResumo>> buscarHistorico(
+            @Valid @ParameterObject BuscaHistoricoFiltro filtro,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        Long userId = getAuthenticatedUserId().orElseThrow(() -> new IllegalStateException("Usuário não autenticado"));
+        int tamanho = Math.min(Math.max(size, 1), 100);
+        try {
+            return ResponseEntity.ok(historicoCalculoService.buscar(userId, filtro, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping(value = "/historico/exportar", produces = {"text/csv", "application/x-ndjson"})
+    @Operation(
+            summary = "Exportar histórico",
+            description = "Baixa, em CSV ou NDJSON, todos os cálculos do usuário atual que atendem aos filtros da busca "
+                    + "(ex.: um ano de desligamentos), em ordem de desligamento. Sem os componentes. O arquivo é enviado "
+                    + "à medida que as linhas são lidas do banco."
+    )
+    public ResponseEntity<StreamingResponseBody> exportarHistorico(
+            @Valid @ParameterObject BuscaHistoricoFiltro filtro,
+            @RequestParam(defaultValue = "CSV") ExportacaoHistoricoService.Formato formato
+    ) {
+        Long userId = getAuthenticatedUserId().orElseThrow(() -> new IllegalStateException("Usuário não autenticado"));
+
+        boolean csv = formato == ExportacaoHistoricoService.Formato.CSV;
+        StreamingResponseBody body = out -> exportacaoHistoricoService.exportar(userId, filtro, formato, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=historico_rescisoes." + (csv ? "csv" : "ndjson"))
+                .contentType(MediaType.parseMediaType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson"))
+                .body(body);
+    }
+
+    @GetMapping("/analise/mensal")
+    @Operation(
+            summary = "Totais mensais por tipo de rescisão",
+            description = "Retorna, para cada mês de desligamento e tipo de rescisão, a quantidade de cálculos e as somas de "
+                    + "bruto, descontos e líquido do usuário atual. Sem 'de' e 'ate' (AAAA-MM), os últimos 12 meses; "
+                    + "no máximo 120 meses por consulta."
+    )
+    public ResponseEntity<List<ResumoMensal>> analiseMensal(
+            @RequestParam(required = false) YearMonth de,
+            @RequestParam(required = false) YearMonth ate
+    ) {
+        Long userId = getAuthenticatedUserId().orElseThrow(() -> new IllegalStateException("Usuário não autenticado"));
+        YearMonth fim = ate != null ? ate : YearMonth.now();
+        YearMonth inicio = de != null ? de : fim.minusMonths(11);
+        long meses = ChronoUnit.MONTHS.between(inicio, fim) + 1;
+        if (meses < 1 || meses > 120) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Período deve ter de 1 a 120 meses, com 'de' até 'ate'");
+        }
+        return ResponseEntity.ok(calculoRescisaoMensalRepository.buscar(userId, inicio, fim));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obter cálculo por id", description = "Retorna um cálculo específico do usuário")
     public ResponseEntity<CalculoRescisao> obterPorId(@PathVariable Long id) {
         Long userId = getAuthenticatedUserId().orElseThrow(() -> new IllegalStateException("Usuário não autenticado"));
+        historicoCalculoService.aguardarGravacao(userId, List.of(id));
         return calculoRescisaoRepository.findById(id)
                 .filter(c -> c.getUsuarioId().equals(userId))
                 .map(ResponseEntity::ok)
@@ -104,6 +294,7 @@ public class RescisaoController {
     @Operation(summary = "Excluir cálculo", description = "Remove um cálculo do histórico do usuário")
     public ResponseEntity<Void> excluirCalculo(@PathVariable Long id) {
         Long userId = getAuthenticatedUserId().orElseThrow(() -> new IllegalStateException("Usuário não autenticado"));
+        historicoCalculoService.aguardarGravacao(userId, List.of(id));
 
         return calculoRescisaoRepository.findById(id)
                 .map(calculo -> {
@@ -111,6 +302,7 @@ public class RescisaoController {
                         return ResponseEntity.status(HttpStatus.FORBIDDEN).<Void>build();
                     }
                     calculoRescisaoRepository.deleteById(id);
+                    reciboPdfCache.remover(id);
                     return ResponseEntity.noContent().<Void>build();
                 })
                 .orElse(ResponseEntity.<Void>notFound().build());
@@ -118,37 +310,67 @@ public class RescisaoController {
 
     @GetMapping(value = "/{id}/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
     @Operation(summary = "Exportar cálculo para PDF", description = "Gera um recibo em PDF de um cálculo histórico")
-    public ResponseEntity<byte[]> gerarPdf(@PathVariable Long id) {
+    public ResponseEntity<StreamingResponseBody> gerarPdf(@PathVariable Long id) {
         Long userId = getAuthenticatedUserId().orElseThrow(() -> new IllegalStateException("Usuário não autenticado"));
+        historicoCalculoService.aguardarGravacao(userId, List.of(id));
 
         return calculoRescisaoRepository.findById(id)
                 .filter(calculo -> calculo.getUsuarioId().equals(userId))
                 .map(calculo -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.add("Content-Disposition", "inline; filename=recibo_rescisao_" + id + ".pdf");
+                    if (!reciboPdfCache.isHabilitado()) {
+                        // Sem cache, o PdfWriter escreve direto na resposta: nenhum byte[] intermediário.
+                        StreamingResponseBody body = out -> {
+                            try {
+                                pdfGenerationService.escreverReciboRescisao(calculo, out);
+                            } catch (DocumentException e) {
+                                throw new IOException("Falha ao gerar o recibo do cálculo " + id, e);
+                            }
+                        };
+                        return ResponseEntity.ok().headers(headers).contentType(MediaType.APPLICATION_PDF).body(body);
+                    }
                     try {
-                        ByteArrayInputStream pdfStream = pdfGenerationService.gerarReciboRescisao(calculo);
-                        HttpHeaders headers = new HttpHeaders();
-                        headers.add("Content-Disposition", "inline; filename=recibo_rescisao_" + id + ".pdf");
-
+                        // O recibo de um cálculo não muda: vem do cache e só é gerado na primeira vez.
+                        ReciboPdf recibo = reciboPdfCache.obter(calculo);
                         return ResponseEntity
                                 .ok()
                                 .headers(headers)
                                 .contentType(MediaType.APPLICATION_PDF)
-                                .body(pdfStream.readAllBytes());
-                    } catch (IOException | DocumentException e) {
+                                .contentLength(recibo.tamanho())
+                                .body((StreamingResponseBody) recibo::escreverEm);
+                    } catch (IOException e) {
                         e.printStackTrace();
-                        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).<byte[]>build();
+                        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).<StreamingResponseBody>build();
                     }
                 })
-                // ALTERADO: Adicionamos <byte[]> para corrigir o erro de compilação.
-                .orElse(ResponseEntity.<byte[]>notFound().build());
+                .orElse(ResponseEntity.<StreamingResponseBody>notFound().build());
+    }
+
+    @PostMapping(value = "/recibos/exportar", produces = {"application/zip", MediaType.APPLICATION_PDF_VALUE})
+    @Operation(
+            summary = "Exportar recibos em lote",
+            description = "Gera os recibos de uma lista de ids ou de um período de desligamento, em um ZIP "
+                    + "(um PDF por cálculo) ou em um único PDF com todas as páginas. O arquivo é enviado à medida que é gerado."
+    )
+    public ResponseEntity<StreamingResponseBody> exportarRecibos(@Valid @RequestBody ExportacaoRecibosRequest request) {
+        Long userId = getAuthenticatedUserId().orElseThrow(() -> new IllegalStateException("Usuário não autenticado"));
+        historicoCalculoService.aguardarGravacao(userId, request.getIds());
+
+        boolean pdf = request.getFormato() == ExportacaoRecibosRequest.Formato.PDF;
+        StreamingResponseBody body = out -> exportacaoRecibosService.exportar(userId, request, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=recibos_rescisao." + (pdf ? "pdf" : "zip"))
+                .contentType(pdf ? MediaType.APPLICATION_PDF : MediaType.parseMediaType("application/zip"))
+                .body(body);
     }
 
     private Optional<Long> getAuthenticatedUserId() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || auth.getName() == null) {
+        // O principal é montado pelo JwtAuthFilter a partir das claims do token, sem nova consulta ao banco.
+        if (auth == null || !(auth.getPrincipal() instanceof UsuarioAutenticado usuario)) {
             return Optional.empty();
         }
-        String email = auth.getName();
-        return usuarioRepository.findByEmail(email).map(Usuario::getId);
+        return Optional.ofNullable(usuario.id());
     }
 }
\ No newline at end of file
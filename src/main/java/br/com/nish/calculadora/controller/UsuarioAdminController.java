@@ -0,0 +1,83 @@
+package br.com.nish.calculadora.controller;
+
+import br.com.nish.calculadora.service.AdministracaoUsuariosService;
+import br.com.nish.calculadora.service.ProvisionamentoUsuariosService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/v1/admin/usuarios")
+@RequiredArgsConstructor
+@Tag(name = "Administração de usuários", description = "Operações restritas a ROLE_ADMIN")
+public class UsuarioAdminController {
+
+    private final ProvisionamentoUsuariosService provisionamentoUsuariosService;
+    private final AdministracaoUsuariosService administracaoUsuariosService;
+
+    @PostMapping(
+            value = "/lote",
+            consumes = {"application/x-ndjson", "text/csv"},
+            produces = "application/x-ndjson"
+    )
+    @Operation(
+            summary = "Provisionar usuários em lote",
+            description = "Recebe linhas NDJSON ou CSV (com cabeçalho email,nome,username,senha) e cria os usuários com "
+                    + "ROLE_USER. Devolve um resultado por linha, em NDJSON: o id criado ou os erros (validação, "
+                    + "email/username repetido no arquivo ou já cadastrado)."
+    )
+    public ResponseEntity<StreamingResponseBody> provisionarLote(
+            HttpServletRequest httpRequest,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType
+    ) {
+        StreamingResponseBody body = out ->
+                provisionamentoUsuariosService.processar(httpRequest.getInputStream(), contentType, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @PutMapping("/{id}/ativo")
+    @Operation(
+            summary = "Ativar ou desativar usuário",
+            description = "Vale na próxima requisição do usuário: os tokens já emitidos deixam de autenticar (ou voltam "
+                    + "a autenticar) sem esperar a expiração."
+    )
+    public ResponseEntity<Void> alterarAtivo(@PathVariable Long id, @RequestParam boolean ativo) {
+        return administracaoUsuariosService.alterarAtivo(id, ativo)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @PutMapping("/{id}/roles")
+    @Operation(
+            summary = "Trocar os perfis do usuário",
+            description = "Substitui os perfis pelos informados (ex.: [\"ROLE_USER\", \"ROLE_ADMIN\"]). Vale na próxima "
+                    + "requisição do usuário, sem novo login."
+    )
+    public ResponseEntity<Void> alterarRoles(@PathVariable Long id, @RequestBody Set<String> roles) {
+        try {
+            return administracaoUsuariosService.alterarRoles(id, roles)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
@@ -5,7 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * Resposta com token de acesso e expiração.
+ * Resposta com token de acesso, refresh token e as respectivas validades (em segundos).
  */
 @Data
 @NoArgsConstructor
@@ -13,4 +13,6 @@ import lombok.NoArgsConstructor;
 public class AuthResponse {
     private String accessToken;
     private long expiresIn;
+    private String refreshToken;
+    private long refreshExpiresIn;
 }
@@ -0,0 +1,14 @@
+package br.com.nish.calculadora.controller.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+/**
+ * Payload para renovar o access token.
+ */
+@Data
+public class RefreshRequest {
+
+    @NotBlank
+    private String refreshToken;
+}
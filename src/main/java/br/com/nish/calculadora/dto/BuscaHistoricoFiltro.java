@@ -0,0 +1,63 @@
+package br.com.nish.calculadora.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Filtros da busca no histórico. Todos são opcionais e se combinam (E).
+ * <p>
+ * {@code nome} é um trecho do nome do empregado, sem diferenciar maiúsculas; precisa de ao menos 3 caracteres, o
+ * mínimo para o índice de trigramas. {@code verba} é o nome de uma verba do {@link Verba dicionário}, como aparece
+ * no cálculo (ex.: "Multa Rescisória FGTS"); nas verbas com número basta o nome sem ele ("13º proporcional"), e o
+ * número, se informado, é ignorado: a busca traz os cálculos com a verba, qualquer que seja o número.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuscaHistoricoFiltro {
+
+    @Size(min = 3, max = 255)
+    private String nome;
+
+    private TipoRescisao tipoRescisao;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate desligamentoDe;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate desligamentoAte;
+
+    private BigDecimal liquidoMin;
+
+    private BigDecimal liquidoMax;
+
+    @Size(max = 255)
+    private String verba;
+
+    @JsonIgnore
+    @AssertTrue(message = "'desligamentoDe' deve ser anterior ou igual a 'desligamentoAte'")
+    public boolean isPeriodoValido() {
+        return desligamentoDe == null || desligamentoAte == null || !desligamentoDe.isAfter(desligamentoAte);
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "'liquidoMin' deve ser menor ou igual a 'liquidoMax'")
+    public boolean isFaixaLiquidoValida() {
+        return liquidoMin == null || liquidoMax == null || liquidoMin.compareTo(liquidoMax) <= 0;
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "'verba' deve ser o nome de uma verba do cálculo")
+    public boolean isVerbaConhecida() {
+        return verba == null || Verba.porNome(verba) != null;
+    }
+}
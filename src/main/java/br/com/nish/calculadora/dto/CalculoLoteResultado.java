@@ -0,0 +1,36 @@
+package br.com.nish.calculadora.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Linha de saída do cálculo em lote (NDJSON).
+ * Cada linha da entrada gera exatamente uma linha de resultado, com sucesso ou com os erros encontrados.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CalculoLoteResultado {
+
+    public enum Status { OK, ERRO }
+
+    // Número da linha no arquivo de entrada (começando em 1; no CSV o cabeçalho é a linha 1).
+    private long linha;
+
+    private Status status;
+
+    // Id do cálculo no histórico; só nas linhas OK, que saem depois de gravadas.
+    private Long id;
+
+    private String nomeEmpregado;
+
+    private CalculoRescisaoResponse resultado;
+
+    private List<String> erros;
+}
@@ -0,0 +1,24 @@
+package br.com.nish.calculadora.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Linha da exportação do histórico (CSV/NDJSON): dados de entrada e totais do cálculo, sem os componentes.
+ */
+public record CalculoRescisaoExportacao(
+        Long id,
+        String nomeEmpregado,
+        String tipoRescisao,
+        BigDecimal salarioMensal,
+        LocalDate dataAdmissao,
+        LocalDate dataDesligamento,
+        boolean avisoIndenizado,
+        BigDecimal totalBruto,
+        BigDecimal totalDescontos,
+        BigDecimal totalLiquido,
+        LocalDate pagamentoAte,
+        OffsetDateTime criadoEm
+) {
+}
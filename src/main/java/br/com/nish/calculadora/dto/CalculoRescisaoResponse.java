@@ -1,5 +1,6 @@
 package br.com.nish.calculadora.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
@@ -17,6 +18,10 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class CalculoRescisaoResponse {
 
+    // Id do registro no histórico; só vem preenchido quando o cálculo é salvo (/calcular).
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long id;
+
     private BigDecimal totalBruto;
 
     private BigDecimal totalDescontos;
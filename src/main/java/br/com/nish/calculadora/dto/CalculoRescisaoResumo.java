@@ -0,0 +1,21 @@
+package br.com.nish.calculadora.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Linha do histórico para listagens: só o que as telas de lista exibem.
+ * Não carrega os componentes (coluna resultado) nem os dados de entrada; o detalhe completo vem de /{id}.
+ */
+public record CalculoRescisaoResumo(
+        Long id,
+        String nomeEmpregado,
+        String tipoRescisao,
+        LocalDate dataDesligamento,
+        BigDecimal totalBruto,
+        BigDecimal totalDescontos,
+        BigDecimal totalLiquido,
+        OffsetDateTime criadoEm
+) {
+}
@@ -0,0 +1,41 @@
+package br.com.nish.calculadora.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pedido de exportação de recibos: uma lista de ids ou um período de desligamento.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportacaoRecibosRequest {
+
+    public enum Formato { ZIP, PDF }
+
+    @Size(max = 10000)
+    private List<Long> ids;
+
+    private LocalDate desligamentoDe;
+
+    private LocalDate desligamentoAte;
+
+    @Builder.Default
+    private Formato formato = Formato.ZIP;
+
+    @JsonIgnore
+    @AssertTrue(message = "informe 'ids' ou o período 'desligamentoDe'/'desligamentoAte'")
+    public boolean isFiltroInformado() {
+        boolean porIds = ids != null && !ids.isEmpty();
+        boolean porPeriodo = desligamentoDe != null && desligamentoAte != null && !desligamentoDe.isAfter(desligamentoAte);
+        return porIds != porPeriodo;
+    }
+}
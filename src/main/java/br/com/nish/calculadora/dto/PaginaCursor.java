@@ -0,0 +1,22 @@
+package br.com.nish.calculadora.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Página de uma listagem por cursor: os itens e o token opaco para buscar a próxima página
+ * ({@code null} quando não há mais itens). Não traz total de registros.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursor<T> {
+
+    private List<T> itens;
+
+    private String proximoCursor;
+}
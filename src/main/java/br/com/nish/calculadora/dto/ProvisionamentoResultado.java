@@ -0,0 +1,33 @@
+package br.com.nish.calculadora.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Linha de saída do provisionamento de usuários em lote (NDJSON): um resultado por linha da entrada.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProvisionamentoResultado {
+
+    public enum Status { CRIADO, ERRO }
+
+    // Número da linha no arquivo de entrada (começando em 1; no CSV o cabeçalho é a linha 1).
+    private long linha;
+
+    private Status status;
+
+    private String email;
+
+    // Id do usuário criado.
+    private Long id;
+
+    private List<String> erros;
+}
@@ -0,0 +1,17 @@
+package br.com.nish.calculadora.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Totais dos cálculos de um mês de desligamento e tipo de rescisão, lidos da tabela calculos_rescisao_mensal.
+ */
+public record ResumoMensal(
+        YearMonth mes,
+        String tipoRescisao,
+        long quantidade,
+        BigDecimal totalBruto,
+        BigDecimal totalDescontos,
+        BigDecimal totalLiquido
+) {
+}
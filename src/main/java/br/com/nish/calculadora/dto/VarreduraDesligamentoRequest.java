@@ -0,0 +1,36 @@
+package br.com.nish.calculadora.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pedido de varredura: a entrada de um cálculo e o período de datas de desligamento a simular, dia a dia.
+ * A data de desligamento da entrada é ignorada.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VarreduraDesligamentoRequest {
+
+    @NotNull
+    private CalculoRescisaoRequest calculo;
+
+    @NotNull
+    private LocalDate desligamentoDe;
+
+    @NotNull
+    private LocalDate desligamentoAte;
+
+    @JsonIgnore
+    @AssertTrue(message = "'desligamentoDe' deve ser anterior ou igual a 'desligamentoAte'")
+    public boolean isPeriodoValido() {
+        return desligamentoDe == null || desligamentoAte == null || !desligamentoDe.isAfter(desligamentoAte);
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.nish.calculadora.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado da varredura: os totais de cada dia do período e os pontos de quebra, dias em que algo além do
+ * saldo de salário mudou o total.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VarreduraDesligamentoResponse {
+
+    public enum Motivo {
+        // Virada do mês: o saldo de salário volta a 1 dia.
+        VIRADA_DO_MES,
+        // Virada do ano: os meses de 13º e férias proporcionais recomeçam.
+        VIRADA_DO_ANO,
+        // Aniversário de admissão: mais 3 dias de aviso prévio.
+        AVISO_PREVIO,
+        // Mais um mês com 15 dias ou mais de vínculo no ano.
+        MESES_NO_ANO
+    }
+
+    private List<Dia> dias;
+
+    private List<Quebra> quebras;
+
+    public record Dia(LocalDate dataDesligamento, BigDecimal totalBruto, BigDecimal totalDescontos, BigDecimal totalLiquido) {}
+
+    public record Quebra(LocalDate dataDesligamento, Set<Motivo> motivos, BigDecimal totalLiquidoAnterior, BigDecimal totalLiquido) {}
+}
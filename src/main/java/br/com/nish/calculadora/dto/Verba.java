@@ -0,0 +1,118 @@
+package br.com.nish.calculadora.dto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dicionário das verbas que os motores de cálculo produzem. O código é o que vai gravado no histórico (coluna
+ * {@code resultado} e {@code verbas}): nunca reaproveite nem mude o código de uma verba, só acrescente novas.
+ * Verbas com parâmetro ({@code %d}) gravam também o número (meses do 13º, dias de aviso).
+ */
+public enum Verba {
+
+    SALDO_SALARIO(1, "Saldo de salário"),
+    DECIMO_TERCEIRO_PROPORCIONAL(2, "13º proporcional (%d meses)"),
+    FERIAS_PROPORCIONAIS(3, "Férias proporcionais + 1/3"),
+    FERIAS_VENCIDAS(4, "Férias vencidas + 1/3"),
+    AVISO_PREVIO_INDENIZADO(5, "Aviso prévio indenizado (%d dias)"),
+    SAQUE_FGTS_SALDO(6, "Saque FGTS (saldo depositado)"),
+    SAQUE_FGTS_80(7, "Saque FGTS (80% do saldo)"),
+    MULTA_FGTS(8, "Multa Rescisória FGTS"),
+    INSS_SALDO_SALARIO(9, "INSS sobre Saldo de Salário"),
+    INSS_DECIMO_TERCEIRO(10, "INSS sobre 13º Salário"),
+    IRRF_SALARIO(11, "IRRF sobre Salário"),
+    IRRF_DECIMO_TERCEIRO(12, "IRRF sobre 13º Salário");
+
+    private static final Map<Integer, Verba> POR_CODIGO = new HashMap<>();
+    private static final Map<String, Verba> POR_PREFIXO = new HashMap<>();
+
+    static {
+        for (Verba verba : values()) {
+            POR_CODIGO.put(verba.codigo, verba);
+            POR_PREFIXO.put(verba.prefixo, verba);
+        }
+    }
+
+    private final int codigo;
+    private final String modelo;
+    // Nome sem o parâmetro: "13º proporcional", "Aviso prévio indenizado". Igual ao modelo nas verbas sem parâmetro.
+    private final String prefixo;
+    // Texto antes e depois do %d, para montar e ler o nome sem passar pelo Formatter a cada componente.
+    private final String antesParametro;
+    private final String depoisParametro;
+
+    Verba(int codigo, String modelo) {
+        this.codigo = codigo;
+        this.modelo = modelo;
+        int parametro = modelo.indexOf(" (%d");
+        this.prefixo = parametro >= 0 ? modelo.substring(0, parametro) : modelo;
+        int marcador = modelo.indexOf("%d");
+        this.antesParametro = marcador >= 0 ? modelo.substring(0, marcador) : modelo;
+        this.depoisParametro = marcador >= 0 ? modelo.substring(marcador + 2) : "";
+    }
+
+    public int codigo() {
+        return codigo;
+    }
+
+    public boolean temParametro() {
+        return prefixo.length() != modelo.length();
+    }
+
+    /**
+     * Nome exibido da verba sem parâmetro.
+     */
+    public String nome() {
+        return modelo;
+    }
+
+    /**
+     * Nome exibido da verba com parâmetro, ex.: "13º proporcional (5 meses)".
+     */
+    public String nome(int parametro) {
+        return antesParametro + parametro + depoisParametro;
+    }
+
+    /**
+     * @return a verba do código, ou {@code null} se o código não existe
+     */
+    public static Verba porCodigo(int codigo) {
+        return POR_CODIGO.get(codigo);
+    }
+
+    /**
+     * Verba de um nome exibido. Para verbas com parâmetro aceita o nome com qualquer número ou só o prefixo
+     * ("13º proporcional (5 meses)" ou "13º proporcional").
+     *
+     * @return a verba, ou {@code null} se o nome não é de nenhuma verba do dicionário
+     */
+    public static Verba porNome(String nome) {
+        Verba verba = POR_PREFIXO.get(nome);
+        if (verba != null) {
+            return verba;
+        }
+        int abre = nome.lastIndexOf(" (");
+        verba = abre > 0 ? POR_PREFIXO.get(nome.substring(0, abre)) : null;
+        return verba != null && verba.parametro(nome) != null ? verba : null;
+    }
+
+    /**
+     * Número do nome exibido de uma verba com parâmetro ("13º proporcional (5 meses)" → 5).
+     *
+     * @return o número, ou {@code null} se a verba não tem parâmetro ou o nome não é exatamente {@code nome(numero)}
+     */
+    public Integer parametro(String nome) {
+        if (!temParametro() || nome.length() <= modelo.length() - 2
+                || !nome.startsWith(antesParametro) || !nome.endsWith(depoisParametro)) {
+            return null;
+        }
+        String texto = nome.substring(antesParametro.length(), nome.length() - depoisParametro.length());
+        try {
+            int numero = Integer.parseInt(texto);
+            // Só a forma que nome(numero) produz: sem zeros à esquerda nem sinal de +.
+            return Integer.toString(numero).equals(texto) ? numero : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package br.com.nish.calculadora.model;
 
+import br.com.nish.calculadora.dto.Componente;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -25,7 +31,10 @@ import org.hibernate.type.SqlTypes;
 public class CalculoRescisao {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence com incremento 50 (pooled-lo): os ids saem em blocos, sem ida ao banco a cada insert,
+    // o que permite ao Hibernate e ao write-behind agruparem os inserts em batch.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "calculos_rescisao_id")
+    @SequenceGenerator(name = "calculos_rescisao_id", sequenceName = "calculos_rescisao_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "usuario_id", nullable = false)
@@ -71,11 +80,49 @@ public class CalculoRescisao {
     @Column(name = "nome_empregado")
     private String nomeEmpregado;
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "componentes", columnDefinition = "jsonb", nullable = false)
-    private String componentesJson;
+    // Proventos e descontos em CBOR (ver ResultadoCalculoCodec); preencha com o builder componentes(proventos, descontos).
+    @JsonIgnore
+    @Column(name = "resultado", nullable = false)
+    private byte[] resultado;
+
+    // Códigos das verbas presentes no resultado, só para a busca por verba.
+    @JsonIgnore
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "verbas", nullable = false)
+    private Short[] verbas;
 
     @Column(name = "criado_em", nullable = false)
     @Builder.Default
     private OffsetDateTime criadoEm = OffsetDateTime.now();
+
+    /**
+     * Proventos do cálculo, decodificados do resultado a cada chamada.
+     */
+    @Transient
+    @JsonProperty("componentes")
+    public List<Componente> getComponentes() {
+        return ResultadoCalculoCodec.decodificarProventos(resultado);
+    }
+
+    /**
+     * Descontos do cálculo, decodificados do resultado a cada chamada; {@code null} em cálculos gravados antes de os
+     * descontos serem guardados.
+     */
+    @Transient
+    @JsonProperty("descontos")
+    public List<Componente> getDescontos() {
+        return ResultadoCalculoCodec.decodificarDescontos(resultado);
+    }
+
+    public static class CalculoRescisaoBuilder {
+
+        /**
+         * Codifica proventos e descontos no resultado e preenche as verbas correspondentes.
+         */
+        public CalculoRescisaoBuilder componentes(List<Componente> proventos, List<Componente> descontos) {
+            this.resultado = ResultadoCalculoCodec.codificar(proventos, descontos);
+            this.verbas = ResultadoCalculoCodec.verbas(proventos, descontos);
+            return this;
+        }
+    }
 }
\ No newline at end of file
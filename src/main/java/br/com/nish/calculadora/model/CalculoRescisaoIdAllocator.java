@@ -0,0 +1,39 @@
+package br.com.nish.calculadora.model;
+
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reserva ids do histórico em blocos da sequence {@code calculos_rescisao_id_seq} (incremento 50),
+ * com a mesma estratégia pooled-lo do Hibernate: cada nextval devolve o início de um bloco exclusivo.
+ * Assim o id é conhecido antes do insert, com uma ida ao banco a cada 50 cálculos.
+ */
+@Component
+public class CalculoRescisaoIdAllocator {
+
+    static final int TAMANHO_BLOCO = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long proximo;
+    private long limite;
+
+    public CalculoRescisaoIdAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long proximoId() {
+        lock.lock();
+        try {
+            if (proximo == limite) {
+                Long inicio = jdbcTemplate.queryForObject("SELECT nextval('calculos_rescisao_id_seq')", Long.class);
+                proximo = inicio;
+                limite = inicio + TAMANHO_BLOCO;
+            }
+            return proximo++;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
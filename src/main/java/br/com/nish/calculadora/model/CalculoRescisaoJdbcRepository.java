@@ -0,0 +1,312 @@
+package br.com.nish.calculadora.model;
+
+import br.com.nish.calculadora.dto.BuscaHistoricoFiltro;
+import br.com.nish.calculadora.dto.CalculoRescisaoExportacao;
+import br.com.nish.calculadora.dto.CalculoRescisaoResumo;
+import br.com.nish.calculadora.dto.Verba;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Array;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Escrita em lote do histórico via JDBC, sem passar pelo contexto de persistência do Hibernate.
+ * As chamadas entram na mesma métrica dos repositórios do Spring Data ({@code spring.data.repository.invocations}).
+ */
+@Repository
+public class CalculoRescisaoJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO calculos_rescisao (
+                usuario_id, tipo_rescisao, salario_mensal, data_admissao, data_desligamento,
+                aviso_indenizado, ferias_vencidas_dias, meses_trabalhados_ano, saldo_fgts_depositado,
+                total_bruto, total_descontos, total_liquido, resultado, verbas, pagamento_ate,
+                nome_empregado, criado_em
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // Mesma gravação, com o id já reservado pelo CalculoRescisaoIdAllocator.
+    private static final String INSERT_COM_ID_SQL = """
+            INSERT INTO calculos_rescisao (
+                usuario_id, tipo_rescisao, salario_mensal, data_admissao, data_desligamento,
+                aviso_indenizado, ferias_vencidas_dias, meses_trabalhados_ano, saldo_fgts_depositado,
+                total_bruto, total_descontos, total_liquido, resultado, verbas, pagamento_ate,
+                nome_empregado, criado_em, id
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String SELECT_SQL = """
+            SELECT id, usuario_id, tipo_rescisao, salario_mensal, data_admissao, data_desligamento,
+                   aviso_indenizado, ferias_vencidas_dias, meses_trabalhados_ano, saldo_fgts_depositado,
+                   total_bruto, total_descontos, total_liquido, resultado, verbas, pagamento_ate,
+                   nome_empregado, criado_em
+              FROM calculos_rescisao
+            """;
+
+    private static final RowMapper<CalculoRescisao> ROW_MAPPER = (rs, i) -> CalculoRescisao.builder()
+            .id(rs.getLong("id"))
+            .usuarioId(rs.getLong("usuario_id"))
+            .tipoRescisao(rs.getString("tipo_rescisao"))
+            .salarioMensal(rs.getBigDecimal("salario_mensal"))
+            .dataAdmissao(rs.getObject("data_admissao", LocalDate.class))
+            .dataDesligamento(rs.getObject("data_desligamento", LocalDate.class))
+            .avisoIndenizado(rs.getBoolean("aviso_indenizado"))
+            .feriasVencidasDias(rs.getInt("ferias_vencidas_dias"))
+            .mesesTrabalhadosNoAnoAtual(rs.getInt("meses_trabalhados_ano"))
+            .saldoFgtsDepositado(rs.getBigDecimal("saldo_fgts_depositado"))
+            .totalBruto(rs.getBigDecimal("total_bruto"))
+            .totalDescontos(rs.getBigDecimal("total_descontos"))
+            .totalLiquido(rs.getBigDecimal("total_liquido"))
+            .resultado(rs.getBytes("resultado"))
+            .verbas(lerVerbas(rs.getArray("verbas")))
+            .pagamentoAte(rs.getObject("pagamento_ate", LocalDate.class))
+            .nomeEmpregado(rs.getString("nome_empregado"))
+            .criadoEm(rs.getObject("criado_em", OffsetDateTime.class))
+            .build();
+
+    private static final RowMapper<CalculoRescisaoResumo> RESUMO_ROW_MAPPER = (rs, i) -> new CalculoRescisaoResumo(
+            rs.getLong("id"),
+            rs.getString("nome_empregado"),
+            rs.getString("tipo_rescisao"),
+            rs.getObject("data_desligamento", LocalDate.class),
+            rs.getBigDecimal("total_bruto"),
+            rs.getBigDecimal("total_descontos"),
+            rs.getBigDecimal("total_liquido"),
+            rs.getObject("criado_em", OffsetDateTime.class));
+
+    private static final RowMapper<CalculoRescisaoExportacao> EXPORTACAO_ROW_MAPPER = (rs, i) -> new CalculoRescisaoExportacao(
+            rs.getLong("id"),
+            rs.getString("nome_empregado"),
+            rs.getString("tipo_rescisao"),
+            rs.getBigDecimal("salario_mensal"),
+            rs.getObject("data_admissao", LocalDate.class),
+            rs.getObject("data_desligamento", LocalDate.class),
+            rs.getBoolean("aviso_indenizado"),
+            rs.getBigDecimal("total_bruto"),
+            rs.getBigDecimal("total_descontos"),
+            rs.getBigDecimal("total_liquido"),
+            rs.getObject("pagamento_ate", LocalDate.class),
+            rs.getObject("criado_em", OffsetDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final MetricaRepositorio metrica;
+    private final boolean h2;
+
+    public CalculoRescisaoJdbcRepository(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.metrica = new MetricaRepositorio(meterRegistry, CalculoRescisaoJdbcRepository.class);
+        this.h2 = isH2(jdbcTemplate);
+    }
+
+    /**
+     * Se o banco é o H2 (perfil h2), que não tem os operadores de array nem o ILIKE indexado do PostgreSQL.
+     */
+    private static boolean isH2(JdbcTemplate jdbcTemplate) {
+        try {
+            return "H2".equals(JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Cálculos do usuário entre os ids informados, em ordem de id. Ids de outros usuários são ignorados.
+     * Leitura direta via JDBC: as linhas não ficam presas em um contexto de persistência.
+     */
+    public List<CalculoRescisao> buscarPorIds(Long usuarioId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return metrica.medir("buscarPorIds", () -> namedJdbcTemplate.query(
+                SELECT_SQL + " WHERE usuario_id = :usuarioId AND id IN (:ids) ORDER BY id",
+                Map.of("usuarioId", usuarioId, "ids", ids), ROW_MAPPER));
+    }
+
+    /**
+     * Próxima página (por id, keyset) dos cálculos do usuário com desligamento no período.
+     */
+    public List<CalculoRescisao> buscarPorDesligamento(Long usuarioId, LocalDate de, LocalDate ate, long aposId, int limite) {
+        return metrica.medir("buscarPorDesligamento", () -> jdbcTemplate.query(SELECT_SQL + """
+                 WHERE usuario_id = ? AND data_desligamento BETWEEN ? AND ? AND id > ?
+                 ORDER BY id
+                 LIMIT ?
+                """, ROW_MAPPER, usuarioId, de, ate, aposId, limite));
+    }
+
+    /**
+     * Próxima página (keyset em {@code (data_desligamento, id)}, do desligamento mais recente para o mais antigo) dos
+     * resumos do usuário que atendem aos filtros. {@code aposData}/{@code aposId} nulos: primeira página.
+     */
+    public List<CalculoRescisaoResumo> buscarResumos(Long usuarioId, BuscaHistoricoFiltro filtro,
+                                                     LocalDate aposData, Long aposId, int limite) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource();
+        String sql = montarBusca(usuarioId, filtro, aposData, aposId, limite, parametros);
+        return metrica.medir("buscarResumos", () -> namedJdbcTemplate.query(sql, parametros, RESUMO_ROW_MAPPER));
+    }
+
+    /**
+     * Monta a consulta da busca só com os filtros informados, cada um servido por um índice (V10): trigramas para o
+     * nome, (usuario_id, data_desligamento, id) para o período e a ordem, (usuario_id, total_liquido) para a faixa
+     * de líquido e GIN em (usuario_id, verbas) para a verba (V11_3). No H2 a verba é procurada com ARRAY_CONTAINS.
+     */
+    String montarBusca(Long usuarioId, BuscaHistoricoFiltro filtro, LocalDate aposData, Long aposId, int limite,
+                       MapSqlParameterSource parametros) {
+        StringBuilder sql = filtrar("""
+                SELECT id, nome_empregado, tipo_rescisao, data_desligamento,
+                       total_bruto, total_descontos, total_liquido, criado_em
+                  FROM calculos_rescisao
+                """, usuarioId, filtro, parametros);
+        if (aposData != null && aposId != null) {
+            sql.append("   AND (data_desligamento, id) < (:aposData, :aposId)\n");
+            parametros.addValue("aposData", aposData).addValue("aposId", aposId);
+        }
+        sql.append(" ORDER BY data_desligamento DESC, id DESC\n LIMIT :limite");
+        parametros.addValue("limite", limite);
+        return sql.toString();
+    }
+
+    /**
+     * Todos os cálculos do usuário que atendem aos filtros, em ordem de desligamento e id, lidos sob demanda:
+     * o driver busca {@code fetchSize} linhas por vez (no PostgreSQL, um cursor no servidor), e nada além do lote
+     * atual fica em memória. Precisa ser consumido dentro de uma transação (no PostgreSQL o cursor só existe com
+     * autocommit desligado) e fechado ao final. Fica fora de {@code spring.data.repository.invocations}: a chamada só
+     * abre o stream, e a leitura completa já é medida em {@code rescisao.historico.exportacao}.
+     */
+    public Stream<CalculoRescisaoExportacao> percorrerParaExportacao(Long usuarioId, BuscaHistoricoFiltro filtro, int fetchSize) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource();
+        String sql = filtrar("""
+                SELECT id, nome_empregado, tipo_rescisao, salario_mensal, data_admissao, data_desligamento,
+                       aviso_indenizado, total_bruto, total_descontos, total_liquido, pagamento_ate, criado_em
+                  FROM calculos_rescisao
+                """, usuarioId, filtro, parametros).append(" ORDER BY data_desligamento, id").toString();
+        JdbcTemplate cursor = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursor.setFetchSize(fetchSize);
+        return new NamedParameterJdbcTemplate(cursor).queryForStream(sql, parametros, EXPORTACAO_ROW_MAPPER);
+    }
+
+    /**
+     * {@code select} seguido do WHERE com o usuário e os filtros informados.
+     */
+    private StringBuilder filtrar(String select, Long usuarioId, BuscaHistoricoFiltro filtro, MapSqlParameterSource parametros) {
+        StringBuilder sql = new StringBuilder(select).append(" WHERE usuario_id = :usuarioId\n");
+        parametros.addValue("usuarioId", usuarioId);
+        if (filtro.getNome() != null) {
+            sql.append("   AND nome_empregado ILIKE :nome ESCAPE '\\'\n");
+            parametros.addValue("nome", "%" + escaparLike(filtro.getNome()) + "%");
+        }
+        if (filtro.getTipoRescisao() != null) {
+            sql.append("   AND tipo_rescisao = :tipoRescisao\n");
+            parametros.addValue("tipoRescisao", filtro.getTipoRescisao().name());
+        }
+        if (filtro.getDesligamentoDe() != null) {
+            sql.append("   AND data_desligamento >= :desligamentoDe\n");
+            parametros.addValue("desligamentoDe", filtro.getDesligamentoDe());
+        }
+        if (filtro.getDesligamentoAte() != null) {
+            sql.append("   AND data_desligamento <= :desligamentoAte\n");
+            parametros.addValue("desligamentoAte", filtro.getDesligamentoAte());
+        }
+        if (filtro.getLiquidoMin() != null) {
+            sql.append("   AND total_liquido >= :liquidoMin\n");
+            parametros.addValue("liquidoMin", filtro.getLiquidoMin());
+        }
+        if (filtro.getLiquidoMax() != null) {
+            sql.append("   AND total_liquido <= :liquidoMax\n");
+            parametros.addValue("liquidoMax", filtro.getLiquidoMax());
+        }
+        if (filtro.getVerba() != null) {
+            Verba verba = Verba.porNome(filtro.getVerba());
+            if (verba == null) {
+                throw new IllegalArgumentException("Verba desconhecida: " + filtro.getVerba());
+            }
+            sql.append(h2
+                    ? "   AND ARRAY_CONTAINS(verbas, :verba)\n"
+                    : "   AND verbas @> ARRAY[CAST(:verba AS SMALLINT)]\n");
+            parametros.addValue("verba", (short) verba.codigo());
+        }
+        return sql;
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Insere todos os cálculos em um único batch JDBC, dentro de uma transação.
+     */
+    @Transactional
+    public void inserirEmLote(List<CalculoRescisao> calculos) {
+        if (calculos.isEmpty()) {
+            return;
+        }
+        metrica.medir("inserirEmLote", () ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, calculos, calculos.size(), CalculoRescisaoJdbcRepository::preencher));
+    }
+
+    /**
+     * Insere em um único batch cálculos que já têm id atribuído.
+     */
+    @Transactional
+    public void inserirEmLoteComId(List<CalculoRescisao> calculos) {
+        if (calculos.isEmpty()) {
+            return;
+        }
+        metrica.medir("inserirEmLoteComId", () ->
+                jdbcTemplate.batchUpdate(INSERT_COM_ID_SQL, calculos, calculos.size(), (ps, c) -> {
+                    preencher(ps, c);
+                    ps.setLong(18, c.getId());
+                }));
+    }
+
+    private static void preencher(PreparedStatement ps, CalculoRescisao c) throws SQLException {
+        ps.setLong(1, c.getUsuarioId());
+        ps.setString(2, c.getTipoRescisao());
+        ps.setBigDecimal(3, c.getSalarioMensal());
+        ps.setDate(4, Date.valueOf(c.getDataAdmissao()));
+        ps.setDate(5, Date.valueOf(c.getDataDesligamento()));
+        ps.setBoolean(6, c.isAvisoIndenizado());
+        ps.setInt(7, c.getFeriasVencidasDias());
+        ps.setInt(8, c.getMesesTrabalhadosNoAnoAtual());
+        ps.setBigDecimal(9, c.getSaldoFgtsDepositado());
+        ps.setBigDecimal(10, c.getTotalBruto());
+        ps.setBigDecimal(11, c.getTotalDescontos());
+        ps.setBigDecimal(12, c.getTotalLiquido());
+        ps.setBytes(13, c.getResultado());
+        ps.setArray(14, ps.getConnection().createArrayOf("smallint", c.getVerbas()));
+        if (c.getPagamentoAte() != null) {
+            ps.setDate(15, Date.valueOf(c.getPagamentoAte()));
+        } else {
+            ps.setNull(15, Types.DATE);
+        }
+        ps.setString(16, c.getNomeEmpregado());
+        ps.setObject(17, c.getCriadoEm());
+    }
+
+    private static Short[] lerVerbas(Array array) throws SQLException {
+        Object[] valores = (Object[]) array.getArray();
+        Short[] verbas = new Short[valores.length];
+        for (int i = 0; i < valores.length; i++) {
+            verbas[i] = ((Number) valores[i]).shortValue();
+        }
+        return verbas;
+    }
+}
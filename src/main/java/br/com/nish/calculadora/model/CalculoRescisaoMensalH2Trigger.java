@@ -0,0 +1,105 @@
+package br.com.nish.calculadora.model;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import org.h2.api.Trigger;
+
+/**
+ * Mantém {@code calculos_rescisao_mensal} no H2 (perfil h2), onde triggers são classes Java executadas por linha.
+ * Equivale ao trigger PL/pgSQL de db/vendor/postgresql/V9_1: a linha antiga é descontada do seu mês e tipo, a nova
+ * é somada ao dela, e os grupos que chegam a zero cálculos são removidos.
+ */
+public class CalculoRescisaoMensalH2Trigger implements Trigger {
+
+    private static final String ATUALIZAR_SQL = """
+            UPDATE calculos_rescisao_mensal
+               SET quantidade = quantidade + ?, total_bruto = total_bruto + ?,
+                   total_descontos = total_descontos + ?, total_liquido = total_liquido + ?
+             WHERE usuario_id = ? AND mes = ? AND tipo_rescisao = ?
+            """;
+
+    private static final String INSERIR_SQL = """
+            INSERT INTO calculos_rescisao_mensal
+                   (quantidade, total_bruto, total_descontos, total_liquido, usuario_id, mes, tipo_rescisao)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String REMOVER_VAZIO_SQL = """
+            DELETE FROM calculos_rescisao_mensal
+             WHERE usuario_id = ? AND mes = ? AND tipo_rescisao = ? AND quantidade = 0
+            """;
+
+    // Posições (base 0) das colunas usadas na linha recebida pelo trigger.
+    private int usuarioId;
+    private int tipoRescisao;
+    private int dataDesligamento;
+    private int totalBruto;
+    private int totalDescontos;
+    private int totalLiquido;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                     boolean before, int type) throws SQLException {
+        try (ResultSet colunas = conn.getMetaData().getColumns(null, schemaName, tableName, null)) {
+            while (colunas.next()) {
+                int posicao = colunas.getInt("ORDINAL_POSITION") - 1;
+                switch (colunas.getString("COLUMN_NAME").toLowerCase()) {
+                    case "usuario_id" -> usuarioId = posicao;
+                    case "tipo_rescisao" -> tipoRescisao = posicao;
+                    case "data_desligamento" -> dataDesligamento = posicao;
+                    case "total_bruto" -> totalBruto = posicao;
+                    case "total_descontos" -> totalDescontos = posicao;
+                    case "total_liquido" -> totalLiquido = posicao;
+                    default -> { }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        if (oldRow != null) {
+            aplicar(conn, oldRow, -1);
+        }
+        if (newRow != null) {
+            aplicar(conn, newRow, 1);
+        }
+    }
+
+    private void aplicar(Connection conn, Object[] linha, int sinal) throws SQLException {
+        BigDecimal fator = BigDecimal.valueOf(sinal);
+        Object[] valores = {
+                (long) sinal,
+                ((BigDecimal) linha[totalBruto]).multiply(fator),
+                ((BigDecimal) linha[totalDescontos]).multiply(fator),
+                ((BigDecimal) linha[totalLiquido]).multiply(fator),
+                ((Number) linha[usuarioId]).longValue(),
+                Date.valueOf(data(linha[dataDesligamento]).withDayOfMonth(1)),
+                linha[tipoRescisao]
+        };
+        if (executar(conn, ATUALIZAR_SQL, valores) == 0 && sinal > 0) {
+            executar(conn, INSERIR_SQL, valores);
+        }
+        if (sinal < 0) {
+            executar(conn, REMOVER_VAZIO_SQL, valores[4], valores[5], valores[6]);
+        }
+    }
+
+    private static LocalDate data(Object valor) {
+        return valor instanceof Date d ? d.toLocalDate() : (LocalDate) valor;
+    }
+
+    private static int executar(Connection conn, String sql, Object... parametros) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                ps.setObject(i + 1, parametros[i]);
+            }
+            return ps.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.nish.calculadora.model;
+
+import br.com.nish.calculadora.dto.ResumoMensal;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Leitura e reconstrução de {@code calculos_rescisao_mensal}, os totais por usuário, mês de desligamento e tipo.
+ * A tabela é mantida pelos triggers da V9_1 a cada gravação no histórico; a consulta lê no máximo uma linha por mês
+ * e tipo, independente de quantos cálculos o usuário tenha.
+ */
+@Repository
+public class CalculoRescisaoMensalRepository {
+
+    private static final String RECONSTRUIR_SQL = """
+            INSERT INTO calculos_rescisao_mensal
+                   (usuario_id, mes, tipo_rescisao, quantidade, total_bruto, total_descontos, total_liquido)
+            SELECT usuario_id, CAST(DATE_TRUNC('month', data_desligamento) AS DATE), tipo_rescisao,
+                   COUNT(*), SUM(total_bruto), SUM(total_descontos), SUM(total_liquido)
+              FROM calculos_rescisao
+             GROUP BY usuario_id, CAST(DATE_TRUNC('month', data_desligamento) AS DATE), tipo_rescisao
+            """;
+
+    private static final RowMapper<ResumoMensal> ROW_MAPPER = (rs, i) -> new ResumoMensal(
+            YearMonth.from(rs.getObject("mes", LocalDate.class)),
+            rs.getString("tipo_rescisao"),
+            rs.getLong("quantidade"),
+            rs.getBigDecimal("total_bruto"),
+            rs.getBigDecimal("total_descontos"),
+            rs.getBigDecimal("total_liquido"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MetricaRepositorio metrica;
+    private final boolean postgres;
+
+    public CalculoRescisaoMensalRepository(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metrica = new MetricaRepositorio(meterRegistry, CalculoRescisaoMensalRepository.class);
+        this.postgres = isPostgres(jdbcTemplate);
+    }
+
+    private static boolean isPostgres(JdbcTemplate jdbcTemplate) {
+        try {
+            return "PostgreSQL".equals(JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Totais do usuário por mês e tipo, de {@code de} até {@code ate} (inclusive), em ordem de mês e tipo.
+     */
+    public List<ResumoMensal> buscar(Long usuarioId, YearMonth de, YearMonth ate) {
+        return metrica.medir("buscar", () -> jdbcTemplate.query("""
+                SELECT mes, tipo_rescisao, quantidade, total_bruto, total_descontos, total_liquido
+                  FROM calculos_rescisao_mensal
+                 WHERE usuario_id = ? AND mes BETWEEN ? AND ?
+                 ORDER BY mes, tipo_rescisao
+                """, ROW_MAPPER, usuarioId, de.atDay(1), ate.atDay(1)));
+    }
+
+    /**
+     * Recalcula a tabela inteira a partir do histórico, para corrigir divergências (ex.: carga feita com os triggers
+     * desabilitados). No PostgreSQL o histórico fica bloqueado para escrita até o fim da transação, para que nenhuma
+     * gravação concorrente seja contada duas vezes ou perdida; leituras seguem liberadas.
+     *
+     * @return quantidade de linhas (usuário, mês e tipo) gravadas
+     */
+    @Transactional
+    public int reconstruir() {
+        return metrica.medir("reconstruir", () -> {
+            if (postgres) {
+                jdbcTemplate.execute("LOCK TABLE calculos_rescisao IN SHARE ROW EXCLUSIVE MODE");
+            }
+            jdbcTemplate.update("DELETE FROM calculos_rescisao_mensal");
+            return jdbcTemplate.update(RECONSTRUIR_SQL);
+        });
+    }
+}
@@ -1,12 +1,63 @@
 package br.com.nish.calculadora.model;
 
+import br.com.nish.calculadora.dto.CalculoRescisaoResumo;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Repositório para histórico de cálculos.
  */
 public interface CalculoRescisaoRepository extends JpaRepository<CalculoRescisao, Long> {
     Page<CalculoRescisao> findByUsuarioIdOrderByCriadoEmDesc(Long usuarioId, Pageable pageable);
+
+    /**
+     * Histórico paginado só com as colunas do resumo: {@code resultado} nunca é lido.
+     */
+    @Query(value = """
+            select new br.com.nish.calculadora.dto.CalculoRescisaoResumo(
+                   c.id, c.nomeEmpregado, c.tipoRescisao, c.dataDesligamento,
+                   c.totalBruto, c.totalDescontos, c.totalLiquido, c.criadoEm)
+              from CalculoRescisao c
+             where c.usuarioId = :usuarioId
+             order by c.criadoEm desc, c.id desc
+            """,
+            countQuery = "select count(c) from CalculoRescisao c where c.usuarioId = :usuarioId")
+    Page<CalculoRescisaoResumo> findResumosByUsuarioId(@Param("usuarioId") Long usuarioId, Pageable pageable);
+
+    /**
+     * Primeira página do histórico por cursor, servida pelo índice (usuario_id, criado_em DESC, id DESC).
+     */
+    @Query("""
+            select new br.com.nish.calculadora.dto.CalculoRescisaoResumo(
+                   c.id, c.nomeEmpregado, c.tipoRescisao, c.dataDesligamento,
+                   c.totalBruto, c.totalDescontos, c.totalLiquido, c.criadoEm)
+              from CalculoRescisao c
+             where c.usuarioId = :usuarioId
+             order by c.criadoEm desc, c.id desc
+            """)
+    List<CalculoRescisaoResumo> findPrimeiraPaginaHistorico(@Param("usuarioId") Long usuarioId, Limit limit);
+
+    /**
+     * Próxima página: busca direto no índice a partir da última linha entregue (keyset), sem OFFSET nem count.
+     */
+    @Query("""
+            select new br.com.nish.calculadora.dto.CalculoRescisaoResumo(
+                   c.id, c.nomeEmpregado, c.tipoRescisao, c.dataDesligamento,
+                   c.totalBruto, c.totalDescontos, c.totalLiquido, c.criadoEm)
+              from CalculoRescisao c
+             where c.usuarioId = :usuarioId
+               and (c.criadoEm, c.id) < (:criadoEm, :id)
+             order by c.criadoEm desc, c.id desc
+            """)
+    List<CalculoRescisaoResumo> findPaginaHistoricoApos(
+            @Param("usuarioId") Long usuarioId,
+            @Param("criadoEm") OffsetDateTime criadoEm,
+            @Param("id") Long id,
+            Limit limit);
 }
@@ -0,0 +1,67 @@
+package br.com.nish.calculadora.model;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Tempo das chamadas de um repositório JDBC na métrica dos repositórios do Spring Data
+ * ({@code spring.data.repository.invocations}), com as mesmas tags (repository, method, state, exception).
+ * <p>
+ * Os timers ficam guardados por método, estado e exceção: depois da primeira chamada, medir é uma leitura no mapa.
+ * O registro no {@link MeterRegistry} é feito fora de {@code computeIfAbsent}, para não segurar o lock do mapa
+ * (e a thread portadora, em virtual threads) enquanto o registry trabalha.
+ */
+public final class MetricaRepositorio {
+
+    static final String METRICA = "spring.data.repository.invocations";
+
+    private final MeterRegistry meterRegistry;
+    private final String repositorio;
+    private final ConcurrentMap<Chave, Timer> timers = new ConcurrentHashMap<>();
+
+    public MetricaRepositorio(MeterRegistry meterRegistry, Class<?> repositorio) {
+        this.meterRegistry = meterRegistry;
+        this.repositorio = repositorio.getSimpleName();
+    }
+
+    /**
+     * Executa a chamada registrando o tempo, com {@code state} ERROR e o nome da exceção se ela falhar.
+     */
+    public <T> T medir(String metodo, Supplier<T> chamada) {
+        long inicio = System.nanoTime();
+        String estado = "SUCCESS";
+        String excecao = "None";
+        try {
+            return chamada.get();
+        } catch (RuntimeException e) {
+            estado = "ERROR";
+            excecao = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            timer(metodo, estado, excecao).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String metodo, String estado, String excecao) {
+        Chave chave = new Chave(metodo, estado, excecao);
+        Timer timer = timers.get(chave);
+        if (timer != null) {
+            return timer;
+        }
+        // register devolve o mesmo timer para as mesmas tags: uma corrida aqui só repete o registro.
+        Timer novo = Timer.builder(METRICA)
+                .tag("repository", repositorio)
+                .tag("method", metodo)
+                .tag("state", estado)
+                .tag("exception", excecao)
+                .register(meterRegistry);
+        Timer existente = timers.putIfAbsent(chave, novo);
+        return existente != null ? existente : novo;
+    }
+
+    private record Chave(String metodo, String estado, String excecao) {}
+}
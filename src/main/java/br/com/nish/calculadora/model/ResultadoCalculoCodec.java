@@ -0,0 +1,166 @@
+package br.com.nish.calculadora.model;
+
+import br.com.nish.calculadora.dto.Componente;
+import br.com.nish.calculadora.dto.Verba;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORParser;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Formato compacto do resultado gravado em {@code calculos_rescisao.resultado}: proventos e descontos em CBOR.
+ * <p>
+ * Layout (versão 1): {@code [versao, [proventos...], [descontos...] | null]}. Cada verba ocupa itens seguidos na lista:
+ * o código do {@link Verba dicionário}, o número (só nas verbas com parâmetro) e o valor em centavos, inteiro. Um nome
+ * fora do dicionário vai como texto no lugar do código. Descontos {@code null}: cálculo gravado antes da versão 1,
+ * quando só os proventos eram guardados.
+ * <p>
+ * Totais e data de pagamento não entram aqui: já são colunas da tabela.
+ */
+public final class ResultadoCalculoCodec {
+
+    public static final int VERSAO = 1;
+
+    private static final CBORFactory CBOR = new CBORFactory();
+
+    private ResultadoCalculoCodec() {
+    }
+
+    public static byte[] codificar(List<Componente> proventos, List<Componente> descontos) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(64);
+        try (CBORGenerator gerador = CBOR.createGenerator(saida)) {
+            gerador.writeStartArray(null, 3);
+            gerador.writeNumber(VERSAO);
+            escreverLista(gerador, proventos);
+            if (descontos == null) {
+                gerador.writeNull();
+            } else {
+                escreverLista(gerador, descontos);
+            }
+            gerador.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+
+    /**
+     * Só os proventos: a lista de descontos nem chega a ser lida.
+     */
+    public static List<Componente> decodificarProventos(byte[] dados) {
+        try (CBORParser parser = abrir(dados)) {
+            return lerLista(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Só os descontos, pulando os proventos sem convertê-los.
+     *
+     * @return os descontos, ou {@code null} se o cálculo foi gravado sem eles
+     */
+    public static List<Componente> decodificarDescontos(byte[] dados) {
+        try (CBORParser parser = abrir(dados)) {
+            parser.nextToken();
+            parser.skipChildren();
+            return lerLista(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Códigos distintos, em ordem, das verbas do dicionário presentes no resultado (coluna {@code verbas}, para a busca).
+     */
+    public static Short[] verbas(List<Componente> proventos, List<Componente> descontos) {
+        TreeSet<Short> codigos = new TreeSet<>();
+        coletarCodigos(proventos, codigos);
+        coletarCodigos(descontos, codigos);
+        return codigos.toArray(new Short[0]);
+    }
+
+    private static void coletarCodigos(List<Componente> componentes, TreeSet<Short> codigos) {
+        if (componentes == null) {
+            return;
+        }
+        for (Componente componente : componentes) {
+            Verba verba = Verba.porNome(componente.getNome());
+            if (verba != null) {
+                codigos.add((short) verba.codigo());
+            }
+        }
+    }
+
+    private static void escreverLista(CBORGenerator gerador, List<Componente> componentes) throws IOException {
+        gerador.writeStartArray();
+        for (Componente componente : componentes) {
+            Verba verba = Verba.porNome(componente.getNome());
+            Integer parametro = verba != null ? verba.parametro(componente.getNome()) : null;
+            if (verba == null || verba.temParametro() && parametro == null) {
+                // Fora do dicionário (ou só o prefixo de uma verba com parâmetro): o nome vai por extenso.
+                gerador.writeString(componente.getNome());
+            } else {
+                gerador.writeNumber(verba.codigo());
+                if (parametro != null) {
+                    gerador.writeNumber(parametro);
+                }
+            }
+            gerador.writeNumber(componente.getValor().movePointRight(2).longValueExact());
+        }
+        gerador.writeEndArray();
+    }
+
+    private static CBORParser abrir(byte[] dados) throws IOException {
+        CBORParser parser = CBOR.createParser(dados);
+        if (parser.nextToken() != JsonToken.START_ARRAY || parser.nextToken() != JsonToken.VALUE_NUMBER_INT) {
+            throw new IllegalStateException("Resultado gravado em formato desconhecido");
+        }
+        int versao = parser.getIntValue();
+        if (versao != VERSAO) {
+            throw new IllegalStateException("Versão do resultado não suportada: " + versao);
+        }
+        return parser;
+    }
+
+    /**
+     * Lê a próxima lista; {@code null} se no lugar dela houver null.
+     */
+    private static List<Componente> lerLista(CBORParser parser) throws IOException {
+        if (parser.nextToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        List<Componente> componentes = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            String nome;
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                nome = parser.getText();
+            } else {
+                Verba verba = Verba.porCodigo(parser.getIntValue());
+                if (verba == null) {
+                    throw new IllegalStateException("Verba desconhecida no resultado: " + parser.getIntValue());
+                }
+                nome = verba.temParametro() ? verba.nome(proximoInt(parser)) : verba.nome();
+            }
+            componentes.add(new Componente(nome, BigDecimal.valueOf(proximoLong(parser), 2)));
+        }
+        return componentes;
+    }
+
+    private static int proximoInt(CBORParser parser) throws IOException {
+        parser.nextToken();
+        return parser.getIntValue();
+    }
+
+    private static long proximoLong(CBORParser parser) throws IOException {
+        parser.nextToken();
+        return parser.getLongValue();
+    }
+}
@@ -1,32 +1,62 @@
 package br.com.nish.calculadora.security;
 
+import br.com.nish.calculadora.auth.UsuarioJdbcRepository.StatusUsuario;
 import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 /**
  * Filtro que extrai o JWT do header Authorization e autentica a requisição.
+ * <p>
+ * Métricas: {@code seguranca.jwt.verificacao} (tempo da verificação do token, por resultado),
+ * {@code seguranca.usuario.consulta} (tempo para montar o principal, pelas claims ou pelo banco)
+ * e {@code seguranca.autenticacao} (requisições com token, por resultado).
  */
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final UserDetailsServiceImpl userDetailsService;
     private final JwtService jwtService;
+    private final UsuarioStatusCache usuarioStatusCache;
+    private final Timer verificacaoValida;
+    private final Timer verificacaoInvalida;
+    private final Timer consultaPorClaims;
+    private final Timer consultaNoBanco;
+    private final Counter autenticadas;
+    private final Counter tokensInvalidos;
+    private final Counter usuariosInativos;
 
-    public JwtAuthFilter(UserDetailsServiceImpl userDetailsService, JwtService jwtService) {
+    public JwtAuthFilter(UserDetailsServiceImpl userDetailsService, JwtService jwtService,
+                         UsuarioStatusCache usuarioStatusCache, MeterRegistry meterRegistry) {
         this.userDetailsService = userDetailsService;
         this.jwtService = jwtService;
+        this.usuarioStatusCache = usuarioStatusCache;
+        this.verificacaoValida = tempo(meterRegistry, "seguranca.jwt.verificacao", "resultado", "valido");
+        this.verificacaoInvalida = tempo(meterRegistry, "seguranca.jwt.verificacao", "resultado", "invalido");
+        this.consultaPorClaims = tempo(meterRegistry, "seguranca.usuario.consulta", "origem", "claims");
+        this.consultaNoBanco = tempo(meterRegistry, "seguranca.usuario.consulta", "origem", "banco");
+        this.autenticadas = meterRegistry.counter("seguranca.autenticacao", "resultado", "autenticado");
+        this.tokensInvalidos = meterRegistry.counter("seguranca.autenticacao", "resultado", "token_invalido");
+        this.usuariosInativos = meterRegistry.counter("seguranca.autenticacao", "resultado", "usuario_inativo");
+    }
+
+    private static Timer tempo(MeterRegistry meterRegistry, String nome, String tag, String valor) {
+        return Timer.builder(nome).tag(tag, valor).publishPercentileHistogram().register(meterRegistry);
     }
 
     @Override
@@ -44,21 +74,56 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         String token = header.substring(7);
         try {
-            if (jwtService.isValid(token) && SecurityContextHolder.getContext().getAuthentication() == null) {
-                Claims claims = jwtService.parseToken(token);
-                String email = claims.getSubject();
-                if (email != null && !email.isEmpty()) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Uma única verificação (assinatura + expiração), servida do cache quando o token já foi visto.
+                long inicio = System.nanoTime();
+                Optional<Claims> claims = jwtService.verificar(token);
+                String email = claims.map(Claims::getSubject).orElse(null);
+                boolean valido = email != null && !email.isEmpty();
+                (valido ? verificacaoValida : verificacaoInvalida).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                if (!valido) {
+                    tokensInvalidos.increment();
+                } else {
+                    UsuarioAutenticado usuario = resolverPrincipal(claims.get(), email);
+                    if (usuario != null) {
+                        UsernamePasswordAuthenticationToken authentication =
+                                new UsernamePasswordAuthenticationToken(usuario, null, usuario.authorities());
+                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        autenticadas.increment();
+                    } else {
+                        usuariosInativos.increment();
+                    }
                 }
             }
         } catch (Exception ex) {
             // Se o token for inválido/expirado, seguimos sem autenticar
+            tokensInvalidos.increment();
         }
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Monta o principal com o id, o email e o username das claims ('uid', 'username'); o status e os perfis vêm do
+     * banco, via cache com TTL, para que desativar o usuário ou retirar um perfil valha sem esperar o token expirar.
+     * Tokens emitidos antes da claim 'uid' caem no caminho antigo, que carrega o usuário do banco.
+     *
+     * @return o principal, ou {@code null} se o usuário estiver inativo ou não existir mais
+     */
+    private UsuarioAutenticado resolverPrincipal(Claims claims, String email) {
+        Object uid = claims.get("uid");
+        if (!(uid instanceof Number numero)) {
+            return consultaNoBanco.record(() -> userDetailsService.carregarPrincipal(email));
+        }
+
+        Long id = numero.longValue();
+        long inicio = System.nanoTime();
+        StatusUsuario status = usuarioStatusCache.status(id);
+        consultaPorClaims.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        if (!status.ativo()) {
+            return null;
+        }
+        return new UsuarioAutenticado(id, email, claims.get("username", String.class), status.roles());
+    }
 }
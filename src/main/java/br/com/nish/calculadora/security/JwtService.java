@@ -1,12 +1,25 @@
 package br.com.nish.calculadora.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
+import java.util.Optional;
 import javax.crypto.SecretKey; // <-- importe correto
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -23,6 +36,43 @@ public class JwtService {
     @Value("${jwt.expiration-minutes}")
     private Integer expirationMinutes;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${jwt.cache.ttl-maximo:10m}")
+    private Duration cacheTtlMaximo;
+
+    private final MeterRegistry meterRegistry;
+
+    // Chave e parser são imutáveis e thread-safe: criados uma única vez.
+    private SecretKey key;
+    private JwtParser parser;
+
+    // Tokens já verificados, indexados pelo SHA-256 do token. Nenhuma entrada vive além do 'exp' do token.
+    private Cache<String, TokenVerificado> tokensVerificados;
+
+    public JwtService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(key)
+                .requireIssuer(issuer)
+                .build();
+
+        if (cacheMaxSize > 0) {
+            tokensVerificados = Caffeine.newBuilder()
+                    .maximumSize(cacheMaxSize)
+                    .expireAfter(new ExpiraComToken(cacheTtlMaximo))
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, tokensVerificados, "jwt.verificacao");
+        }
+    }
+
     public String generateToken(String subject, Map<String, Object> extraClaims) {
         Instant now = Instant.now();
         Instant exp = now.plusSeconds((long) expirationMinutes * 60L);
@@ -33,17 +83,19 @@ public class JwtService {
                 .claims(extraClaims != null ? extraClaims : Map.of())
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(exp))
-                .signWith(getKey())      // SecretKey
+                .signWith(key)      // SecretKey
                 .compact();
     }
 
+    /**
+     * Validade dos access tokens emitidos, em segundos.
+     */
+    public long getExpiracaoSegundos() {
+        return expirationMinutes * 60L;
+    }
+
     public Claims parseToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getKey())    // SecretKey
-                .requireIssuer(issuer)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public String getSubject(String token) {
@@ -51,17 +103,75 @@ public class JwtService {
     }
 
     public boolean isValid(String token) {
+        return verificar(token).isPresent();
+    }
+
+    /**
+     * Verifica assinatura, emissor e expiração em uma única passada e devolve as claims do token.
+     * Tokens válidos ficam em cache até expirarem, então chamadas repetidas do mesmo cliente não refazem a criptografia.
+     *
+     * @return as claims, ou vazio se o token for inválido ou estiver expirado
+     */
+    public Optional<Claims> verificar(String token) {
+        if (tokensVerificados == null) {
+            return verificarSemCache(token).map(TokenVerificado::claims);
+        }
+
+        String chave = hash(token);
+        TokenVerificado emCache = tokensVerificados.getIfPresent(chave);
+        if (emCache != null && emCache.expiraEm() > System.currentTimeMillis()) {
+            return Optional.of(emCache.claims());
+        }
+
+        Optional<TokenVerificado> verificado = verificarSemCache(token);
+        verificado.ifPresent(v -> tokensVerificados.put(chave, v));
+        return verificado.map(TokenVerificado::claims);
+    }
+
+    private Optional<TokenVerificado> verificarSemCache(String token) {
         try {
             Claims claims = parseToken(token);
             Date exp = claims.getExpiration();
-            return exp != null && exp.after(new Date());
-        } catch (Exception e) {
-            return false;
+            if (exp == null || !exp.after(new Date())) {
+                return Optional.empty();
+            }
+            return Optional.of(new TokenVerificado(claims, exp.getTime()));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
         }
     }
 
-    private SecretKey getKey() {          // <-- mude para SecretKey
-        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(bytes); // retorna um SecretKey
+    // SHA-256 em Base64 (44 caracteres); também é a forma em que os refresh tokens ficam gravados.
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private record TokenVerificado(Claims claims, long expiraEm) {}
+
+    /**
+     * Cada entrada expira no 'exp' do próprio token, limitado a um TTL máximo.
+     */
+    private record ExpiraComToken(Duration ttlMaximo) implements Expiry<String, TokenVerificado> {
+
+        @Override
+        public long expireAfterCreate(String chave, TokenVerificado token, long agoraNanos) {
+            long restanteMillis = Math.max(0L, token.expiraEm() - System.currentTimeMillis());
+            return Math.min(Duration.ofMillis(restanteMillis).toNanos(), ttlMaximo.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String chave, TokenVerificado token, long agoraNanos, long duracaoAtualNanos) {
+            return expireAfterCreate(chave, token, agoraNanos);
+        }
+
+        @Override
+        public long expireAfterRead(String chave, TokenVerificado token, long agoraNanos, long duracaoAtualNanos) {
+            return duracaoAtualNanos;
+        }
     }
 }
@@ -0,0 +1,21 @@
+package br.com.nish.calculadora.security;
+
+import java.time.Duration;
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * O pool de verificação de senha está cheio: o login deve ser repetido depois de {@link #getRetryAfter()}.
+ */
+public class LoginSobrecarregadoException extends AuthenticationServiceException {
+
+    private final Duration retryAfter;
+
+    public LoginSobrecarregadoException(Duration retryAfter, Throwable cause) {
+        super("Muitos logins em andamento; tente novamente em " + retryAfter.toSeconds() + "s", cause);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.nish.calculadora.security;
+
+import br.com.nish.calculadora.auth.RefreshToken;
+import br.com.nish.calculadora.auth.RefreshTokenRepository;
+import br.com.nish.calculadora.auth.Usuario;
+import br.com.nish.calculadora.auth.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Refresh tokens opacos e rotativos: o cliente troca o refresh token por um novo access token em /auth/refresh,
+ * sem reenviar a senha (e sem o custo do BCrypt, que fica só no login).
+ * <p>
+ * Cada login abre uma família; cada renovação marca o token apresentado como usado e emite o próximo da mesma
+ * família. Um token já usado que volta a ser apresentado indica que ele vazou: a família inteira é revogada e o
+ * usuário precisa fazer login de novo. No banco fica só o hash SHA-256 do token.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int BYTES_TOKEN = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final Duration validade;
+    private final SecureRandom random = new SecureRandom();
+    private final Counter renovados;
+    private final Counter invalidos;
+    private final Counter reutilizados;
+
+    public RefreshTokenService(
+            RefreshTokenRepository refreshTokenRepository,
+            UsuarioRepository usuarioRepository,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.refresh.validade:30d}") Duration validade
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.validade = validade;
+        this.renovados = contador(meterRegistry, "renovado");
+        this.invalidos = contador(meterRegistry, "invalido");
+        this.reutilizados = contador(meterRegistry, "reutilizado");
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder("seguranca.refresh")
+                .description("Renovações de access token por refresh token")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Validade dos refresh tokens emitidos, em segundos.
+     */
+    public long getValidadeSegundos() {
+        return validade.toSeconds();
+    }
+
+    /**
+     * Emite o primeiro refresh token de uma nova família (login). Aproveita para apagar os tokens expirados do usuário.
+     */
+    @Transactional
+    public String emitir(Long usuarioId) {
+        OffsetDateTime agora = OffsetDateTime.now();
+        refreshTokenRepository.apagarExpirados(usuarioId, agora);
+        return gravar(usuarioId, UUID.randomUUID(), agora);
+    }
+
+    /**
+     * Troca o refresh token pelo próximo da mesma família.
+     *
+     * @return o usuário dono e o novo refresh token, ou vazio se o token for desconhecido, expirado, revogado,
+     * já usado (a família é revogada) ou de um usuário inativo
+     */
+    @Transactional
+    public Optional<Renovacao> renovar(String token) {
+        OffsetDateTime agora = OffsetDateTime.now();
+        RefreshToken atual = refreshTokenRepository.findByTokenHash(JwtService.hash(token)).orElse(null);
+        if (atual == null || atual.getRevogadoEm() != null || !atual.getExpiraEm().isAfter(agora)) {
+            invalidos.increment();
+            return Optional.empty();
+        }
+        if (atual.getUsadoEm() != null || refreshTokenRepository.marcarUsado(atual.getId(), agora) == 0) {
+            refreshTokenRepository.revogarFamilia(atual.getFamilia(), agora);
+            reutilizados.increment();
+            log.warn("Refresh token reutilizado; família {} do usuário {} revogada", atual.getFamilia(), atual.getUsuarioId());
+            return Optional.empty();
+        }
+
+        Optional<Usuario> usuario = usuarioRepository.findById(atual.getUsuarioId()).filter(Usuario::isAtivo);
+        if (usuario.isEmpty()) {
+            refreshTokenRepository.revogarFamilia(atual.getFamilia(), agora);
+            invalidos.increment();
+            return Optional.empty();
+        }
+        renovados.increment();
+        return Optional.of(new Renovacao(usuario.get(), gravar(atual.getUsuarioId(), atual.getFamilia(), agora)));
+    }
+
+    private String gravar(Long usuarioId, UUID familia, OffsetDateTime agora) {
+        byte[] bytes = new byte[BYTES_TOKEN];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .usuarioId(usuarioId)
+                .familia(familia)
+                .tokenHash(JwtService.hash(token))
+                .criadoEm(agora)
+                .expiraEm(agora.plus(validade))
+                .build());
+        return token;
+    }
+
+    /**
+     * Resultado de uma renovação: o usuário (com os perfis, para o novo access token) e o próximo refresh token.
+     */
+    public record Renovacao(Usuario usuario, String refreshToken) {}
+}
@@ -1,5 +1,6 @@
 package br.com.nish.calculadora.security;
 
+import br.com.nish.calculadora.auth.Role;
 import br.com.nish.calculadora.auth.Usuario;
 import br.com.nish.calculadora.auth.UsuarioRepository;
 import java.util.stream.Collectors;
@@ -11,7 +12,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 /**
- * Carrega o usuário pelo email e converte para UserDetails.
+ * Carrega o usuário pelo email e converte para UserDetails. O login não passa por aqui (ver UsuarioAuthenticationProvider).
  */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
@@ -36,4 +37,19 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         );
         return user;
     }
+
+    /**
+     * Monta o principal a partir do banco. Usado apenas para tokens antigos, emitidos sem a claim 'uid'.
+     */
+    public UsuarioAutenticado carregarPrincipal(String email) throws UsernameNotFoundException {
+        Usuario usuario = usuarioRepository.findByEmail(email)
+                .filter(Usuario::isAtivo)
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
+        return new UsuarioAutenticado(
+                usuario.getId(),
+                usuario.getEmail(),
+                usuario.getUsername(),
+                usuario.getRoles().stream().map(Role::getName).toList()
+        );
+    }
 }
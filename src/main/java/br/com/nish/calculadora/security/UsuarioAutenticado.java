@@ -0,0 +1,22 @@
+package br.com.nish.calculadora.security;
+
+import java.security.Principal;
+import java.util.List;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Principal leve da requisição autenticada, montado a partir das claims do JWT e do status em cache
+ * ({@link UsuarioStatusCache}), sem carregar a entidade do usuário.
+ * O nome do principal continua sendo o email, que é o 'subject' do token.
+ */
+public record UsuarioAutenticado(Long id, String email, String username, List<String> roles) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public List<SimpleGrantedAuthority> authorities() {
+        return roles.stream().map(SimpleGrantedAuthority::new).toList();
+    }
+}
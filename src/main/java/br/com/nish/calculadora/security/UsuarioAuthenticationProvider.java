@@ -0,0 +1,59 @@
+package br.com.nish.calculadora.security;
+
+import br.com.nish.calculadora.auth.Role;
+import br.com.nish.calculadora.auth.Usuario;
+import br.com.nish.calculadora.auth.UsuarioRepository;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Autenticação do login por email ou username com uma única consulta (usuário e perfis). O principal autenticado
+ * é o próprio {@link Usuario}, reaproveitado para montar as claims do token sem ir de novo ao banco.
+ * <p>
+ * Login inexistente também passa por uma verificação BCrypt (contra um hash fixo), para que o tempo de resposta
+ * não revele quais logins existem.
+ */
+@Component
+public class UsuarioAuthenticationProvider implements AuthenticationProvider {
+
+    private final UsuarioRepository usuarioRepository;
+    private final VerificadorSenha verificadorSenha;
+    private final String hashFicticio;
+
+    public UsuarioAuthenticationProvider(UsuarioRepository usuarioRepository, VerificadorSenha verificadorSenha,
+                                         BCryptPasswordEncoder passwordEncoder) {
+        this.usuarioRepository = usuarioRepository;
+        this.verificadorSenha = verificadorSenha;
+        this.hashFicticio = passwordEncoder.encode("senha-ficticia-para-logins-inexistentes");
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) {
+        String login = authentication.getName();
+        String senha = String.valueOf(authentication.getCredentials());
+        Usuario usuario = usuarioRepository.findByUsernameOrEmail(login, login).orElse(null);
+        if (usuario == null) {
+            verificadorSenha.confere(senha, hashFicticio);
+            throw new BadCredentialsException("Credenciais inválidas");
+        }
+        if (!verificadorSenha.confere(senha, usuario.getSenhaHash())) {
+            throw new BadCredentialsException("Credenciais inválidas");
+        }
+        if (!usuario.isAtivo()) {
+            throw new DisabledException("Usuário inativo");
+        }
+        return UsernamePasswordAuthenticationToken.authenticated(usuario, null,
+                usuario.getRoles().stream().map(Role::getName).map(SimpleGrantedAuthority::new).toList());
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+}
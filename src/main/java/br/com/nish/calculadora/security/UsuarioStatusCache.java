@@ -0,0 +1,82 @@
+package br.com.nish.calculadora.security;
+
+import br.com.nish.calculadora.auth.UsuarioJdbcRepository;
+import br.com.nish.calculadora.auth.UsuarioJdbcRepository.StatusUsuario;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache em processo do status (ativo/inativo) e dos perfis atuais dos usuários, com TTL curto.
+ * Permite validar cada requisição sem ir ao banco; as authorities vêm daqui, não da claim 'roles' do token.
+ * Desativar o usuário ou trocar seus perfis pela administração ({@link #invalidar}) vale na próxima requisição;
+ * uma alteração feita direto no banco vale em no máximo um TTL ({@code seguranca.usuario-cache.ttl}).
+ * <p>
+ * A consulta ao banco roda fora do lock do mapa interno: um loader síncrono do Caffeine executa dentro de
+ * {@code ConcurrentHashMap.compute} (bloco synchronized), o que prende a thread portadora quando a requisição
+ * roda em virtual thread. Aqui o mapa só recebe um future vazio, e quem o inseriu faz a consulta e o completa;
+ * as demais requisições para o mesmo usuário esperam esse future.
+ */
+@Service
+public class UsuarioStatusCache {
+
+    // Usuário que não existe mais: tratado como inativo e sem perfis.
+    private static final StatusUsuario INEXISTENTE = new StatusUsuario(false, List.of());
+
+    private final UsuarioJdbcRepository usuarioJdbcRepository;
+    private final AsyncCache<Long, StatusUsuario> status;
+
+    public UsuarioStatusCache(
+            UsuarioJdbcRepository usuarioJdbcRepository,
+            MeterRegistry meterRegistry,
+            @Value("${seguranca.usuario-cache.ttl:60s}") Duration ttl,
+            @Value("${seguranca.usuario-cache.max-size:10000}") long maxSize
+    ) {
+        this.usuarioJdbcRepository = usuarioJdbcRepository;
+        this.status = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, status.synchronous(), "usuarios.status");
+    }
+
+    /**
+     * Status e perfis atuais do usuário; inativo e sem perfis se ele não existe.
+     */
+    public StatusUsuario status(Long usuarioId) {
+        if (usuarioId == null) {
+            return INEXISTENTE;
+        }
+        CompletableFuture<StatusUsuario> consulta = new CompletableFuture<>();
+        CompletableFuture<StatusUsuario> atual = status.get(usuarioId, (id, executor) -> consulta);
+        if (atual == consulta) {
+            try {
+                consulta.complete(usuarioJdbcRepository.status(usuarioId).orElse(INEXISTENTE));
+            } catch (RuntimeException e) {
+                // Future com falha sai do cache sozinho; a próxima requisição tenta de novo.
+                consulta.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return atual.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException causa ? causa : e;
+        }
+    }
+
+    /**
+     * Descarta o status em cache: a próxima requisição do usuário consulta o banco. Chamar depois de gravar a alteração.
+     */
+    public void invalidar(Long usuarioId) {
+        status.synchronous().invalidate(usuarioId);
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.nish.calculadora.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Verificação BCrypt das senhas no pool limitado {@code senhaExecutor}. A thread da requisição só espera o resultado;
+ * com o pool e a fila cheios, a verificação é recusada na hora com {@link LoginSobrecarregadoException}.
+ */
+@Component
+public class VerificadorSenha {
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final AsyncTaskExecutor senhaExecutor;
+    private final Duration retryAfter;
+    private final Timer verificacao;
+    private final Counter rejeitadas;
+
+    public VerificadorSenha(
+            BCryptPasswordEncoder passwordEncoder,
+            @Qualifier("senhaExecutor") AsyncTaskExecutor senhaExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${seguranca.senha.retry-after:2s}") Duration retryAfter
+    ) {
+        this.passwordEncoder = passwordEncoder;
+        this.senhaExecutor = senhaExecutor;
+        this.retryAfter = retryAfter;
+        this.verificacao = Timer.builder("seguranca.senha.verificacao")
+                .description("Tempo da verificação BCrypt no pool de senhas, sem a espera na fila")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejeitadas = Counter.builder("seguranca.senha.rejeitadas")
+                .description("Logins recusados com 503 porque o pool de senhas estava cheio")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws LoginSobrecarregadoException se o pool não aceitar mais verificações
+     */
+    public boolean confere(String senha, String hash) {
+        Future<Boolean> resultado;
+        try {
+            resultado = senhaExecutor.submit(() -> {
+                long inicio = System.nanoTime();
+                try {
+                    return passwordEncoder.matches(senha, hash);
+                } finally {
+                    verificacao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejeitadas.increment();
+            throw new LoginSobrecarregadoException(retryAfter, e);
+        }
+        try {
+            return resultado.get();
+        } catch (InterruptedException e) {
+            resultado.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Verificação de senha interrompida", e);
+        } catch (ExecutionException e) {
+            throw new AuthenticationServiceException("Falha na verificação de senha", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.auth.UsuarioJdbcRepository;
+import br.com.nish.calculadora.security.UsuarioStatusCache;
+import java.util.Set;
+import org.springframework.stereotype.Service;
+
+/**
+ * Desativação e troca de perfis de usuários pela administração. Depois de gravar, descarta o status em cache
+ * ({@link UsuarioStatusCache}), para que a mudança valha na próxima requisição do usuário, não só quando o token expirar.
+ */
+@Service
+public class AdministracaoUsuariosService {
+
+    private final UsuarioJdbcRepository usuarioJdbcRepository;
+    private final UsuarioStatusCache usuarioStatusCache;
+
+    public AdministracaoUsuariosService(UsuarioJdbcRepository usuarioJdbcRepository, UsuarioStatusCache usuarioStatusCache) {
+        this.usuarioJdbcRepository = usuarioJdbcRepository;
+        this.usuarioStatusCache = usuarioStatusCache;
+    }
+
+    /**
+     * @return {@code false} se o usuário não existe
+     */
+    public boolean alterarAtivo(Long usuarioId, boolean ativo) {
+        boolean alterado = usuarioJdbcRepository.atualizarAtivo(usuarioId, ativo);
+        if (alterado) {
+            usuarioStatusCache.invalidar(usuarioId);
+        }
+        return alterado;
+    }
+
+    /**
+     * @return {@code false} se o usuário não existe
+     * @throws IllegalArgumentException se algum perfil não existe
+     */
+    public boolean alterarRoles(Long usuarioId, Set<String> roles) {
+        boolean alterado = usuarioJdbcRepository.substituirRoles(usuarioId, roles);
+        if (alterado) {
+            usuarioStatusCache.invalidar(usuarioId);
+        }
+        return alterado;
+    }
+}
@@ -0,0 +1,243 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.dto.CalculoLoteResultado;
+import br.com.nish.calculadora.dto.CalculoRescisaoRequest;
+import br.com.nish.calculadora.dto.CalculoRescisaoResponse;
+import br.com.nish.calculadora.model.CalculoRescisao;
+import br.com.nish.calculadora.model.CalculoRescisaoIdAllocator;
+import br.com.nish.calculadora.model.CalculoRescisaoJdbcRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cálculo de rescisões em lote (NDJSON ou CSV).
+ * As linhas são calculadas em paralelo, na ordem de conclusão. Linhas com erro são escritas na saída assim que ficam
+ * prontas; os cálculos válidos são gravados no histórico em batches JDBC e só são escritos (com o id no histórico)
+ * depois que o batch deles foi gravado. Cada linha da entrada gera uma única linha de resultado, com o status final.
+ */
+@Service
+public class CalculoLoteService {
+
+    private static final Logger log = LoggerFactory.getLogger(CalculoLoteService.class);
+
+    private final MotorCalculoRescisao motorCalculoRescisao;
+    private final CalculoRescisaoMapper calculoRescisaoMapper;
+    private final CalculoRescisaoJdbcRepository calculoRescisaoJdbcRepository;
+    private final CalculoRescisaoIdAllocator idAllocator;
+    private final LinhaImportacaoParser linhaImportacaoParser;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final Executor calculoExecutor;
+    private final int tamanhoBatch;
+    private final int maxEmAndamento;
+
+    public CalculoLoteService(
+            MotorCalculoRescisao motorCalculoRescisao,
+            CalculoRescisaoMapper calculoRescisaoMapper,
+            CalculoRescisaoJdbcRepository calculoRescisaoJdbcRepository,
+            CalculoRescisaoIdAllocator idAllocator,
+            LinhaImportacaoParser linhaImportacaoParser,
+            Validator validator,
+            ObjectMapper objectMapper,
+            @Qualifier("calculoExecutor") Executor calculoExecutor,
+            @Value("${rescisao.lote.tamanho-batch:500}") int tamanhoBatch,
+            @Value("${rescisao.lote.max-em-andamento:64}") int maxEmAndamento
+    ) {
+        this.motorCalculoRescisao = motorCalculoRescisao;
+        this.calculoRescisaoMapper = calculoRescisaoMapper;
+        this.calculoRescisaoJdbcRepository = calculoRescisaoJdbcRepository;
+        this.idAllocator = idAllocator;
+        this.linhaImportacaoParser = linhaImportacaoParser;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.calculoExecutor = calculoExecutor;
+        this.tamanhoBatch = tamanhoBatch;
+        this.maxEmAndamento = maxEmAndamento;
+    }
+
+    /**
+     * Lê as linhas da entrada, calcula e escreve um {@link CalculoLoteResultado} por linha (NDJSON) na saída.
+     * No máximo {@code maxEmAndamento} linhas ficam em memória ao mesmo tempo.
+     */
+    public void processar(InputStream entrada, MediaType contentType, Long usuarioId, OutputStream saida) throws IOException {
+        boolean csv = linhaImportacaoParser.isCsv(contentType);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        CompletionService<ItemLote> completionService = new ExecutorCompletionService<>(calculoExecutor);
+        List<ItemLote> pendentes = new ArrayList<>(tamanhoBatch);
+
+        List<String> cabecalho = null;
+        long numeroLinha = 0;
+        int emAndamento = 0;
+        String linha;
+        while ((linha = reader.readLine()) != null) {
+            numeroLinha++;
+            if (linha.isBlank()) {
+                continue;
+            }
+            if (csv && cabecalho == null) {
+                cabecalho = linhaImportacaoParser.lerCabecalho(linha);
+                continue;
+            }
+
+            long n = numeroLinha;
+            String conteudo = linha;
+            List<String> cabecalhoCsv = cabecalho;
+            completionService.submit(() -> calcularLinha(n, conteudo, cabecalhoCsv, usuarioId));
+            emAndamento++;
+
+            if (emAndamento >= maxEmAndamento) {
+                emitir(proximo(completionService), pendentes, saida);
+                emAndamento--;
+            }
+        }
+        while (emAndamento > 0) {
+            emitir(proximo(completionService), pendentes, saida);
+            emAndamento--;
+        }
+        gravar(pendentes, saida);
+    }
+
+    private ItemLote calcularLinha(long numeroLinha, String linha, List<String> cabecalho, Long usuarioId) {
+        CalculoRescisaoRequest request;
+        try {
+            request = cabecalho != null
+                    ? linhaImportacaoParser.converterCsv(linha, cabecalho, CalculoRescisaoRequest.class)
+                    : linhaImportacaoParser.converterJson(linha, CalculoRescisaoRequest.class);
+        } catch (JsonProcessingException e) {
+            return ItemLote.erro(numeroLinha, null, List.of("Linha inválida: " + e.getOriginalMessage()));
+        } catch (IllegalArgumentException e) {
+            return ItemLote.erro(numeroLinha, null, List.of("Linha inválida: " + e.getMessage()));
+        }
+
+        Set<ConstraintViolation<CalculoRescisaoRequest>> violacoes = validator.validate(request);
+        if (!violacoes.isEmpty()) {
+            List<String> erros = violacoes.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted(Comparator.naturalOrder())
+                    .toList();
+            return ItemLote.erro(numeroLinha, request.getNomeEmpregado(), erros);
+        }
+
+        try {
+            CalculoRescisaoResponse response = motorCalculoRescisao.calcular(request);
+            CalculoRescisao entidade = calculoRescisaoMapper.paraEntidade(usuarioId, request, response);
+            CalculoLoteResultado resultado = CalculoLoteResultado.builder()
+                    .linha(numeroLinha)
+                    .status(CalculoLoteResultado.Status.OK)
+                    .nomeEmpregado(request.getNomeEmpregado())
+                    .resultado(response)
+                    .build();
+            return new ItemLote(resultado, entidade);
+        } catch (RuntimeException e) {
+            return ItemLote.erro(numeroLinha, request.getNomeEmpregado(), List.of("Falha no cálculo: " + e.getMessage()));
+        }
+    }
+
+    private ItemLote proximo(CompletionService<ItemLote> completionService) throws IOException {
+        try {
+            return completionService.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Processamento do lote interrompido");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha inesperada no processamento do lote", e.getCause());
+        }
+    }
+
+    private void emitir(ItemLote item, List<ItemLote> pendentes, OutputStream saida) throws IOException {
+        if (item.entidade() == null) {
+            escrever(item.resultado(), saida);
+            return;
+        }
+        pendentes.add(item);
+        if (pendentes.size() >= tamanhoBatch) {
+            gravar(pendentes, saida);
+        }
+    }
+
+    /**
+     * Grava os cálculos pendentes em um batch e só então escreve o resultado de cada um, com o id atribuído.
+     * Se o batch falhar, grava linha a linha: cada linha sai como OK ou como erro de gravação, nunca as duas.
+     */
+    private void gravar(List<ItemLote> pendentes, OutputStream saida) throws IOException {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        for (ItemLote item : pendentes) {
+            item.entidade().setId(idAllocator.proximoId());
+        }
+        boolean gravado;
+        try {
+            calculoRescisaoJdbcRepository.inserirEmLoteComId(pendentes.stream().map(ItemLote::entidade).toList());
+            gravado = true;
+        } catch (DataAccessException e) {
+            log.warn("Falha ao gravar batch de {} cálculos do lote; gravando um a um", pendentes.size(), e);
+            gravado = false;
+        }
+        for (ItemLote item : pendentes) {
+            escrever(gravado || gravarSozinho(item) ? item.gravado() : item.falhaAoGravar(), saida);
+        }
+        pendentes.clear();
+    }
+
+    private boolean gravarSozinho(ItemLote item) {
+        try {
+            calculoRescisaoJdbcRepository.inserirEmLoteComId(List.of(item.entidade()));
+            return true;
+        } catch (DataAccessException e) {
+            log.error("Cálculo da linha {} do lote não foi gravado no histórico", item.resultado().getLinha(), e);
+            return false;
+        }
+    }
+
+    private void escrever(CalculoLoteResultado resultado, OutputStream saida) throws IOException {
+        saida.write(objectMapper.writeValueAsBytes(resultado));
+        saida.write('\n');
+        saida.flush();
+    }
+
+    private record ItemLote(CalculoLoteResultado resultado, CalculoRescisao entidade) {
+
+        CalculoLoteResultado gravado() {
+            resultado.setId(entidade.getId());
+            return resultado;
+        }
+
+        CalculoLoteResultado falhaAoGravar() {
+            return erro(resultado.getLinha(), resultado.getNomeEmpregado(), List.of("Falha ao gravar no histórico")).resultado();
+        }
+
+        static ItemLote erro(long linha, String nomeEmpregado, List<String> erros) {
+            return new ItemLote(CalculoLoteResultado.builder()
+                    .linha(linha)
+                    .status(CalculoLoteResultado.Status.ERRO)
+                    .nomeEmpregado(nomeEmpregado)
+                    .erros(erros)
+                    .build(), null);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.dto.CalculoRescisaoRequest;
+import br.com.nish.calculadora.dto.CalculoRescisaoResponse;
+import br.com.nish.calculadora.dto.Componente;
+import br.com.nish.calculadora.dto.TipoRescisao;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Cache de resultados na frente do motor de cálculo. O cálculo é uma função pura da entrada, e o front reenvia
+ * a mesma entrada o tempo todo enquanto o usuário ajusta o formulário.
+ * <p>
+ * A chave é a forma normalizada da entrada (só os campos que o motor lê, valores sem zeros à direita) mais a
+ * {@link DescontosService#VERSAO_TABELAS versão das tabelas}. O cache é limitado pelo tamanho estimado das
+ * respostas ({@code rescisao.calculo.cache.memoria-max}); cálculos simultâneos da mesma entrada esperam uma
+ * única execução. Cada chamada recebe a sua própria cópia da resposta.
+ */
+@Service
+public class CalculoRescisaoCache {
+
+    // Estimativa grosseira de bytes em heap: chave, resposta e totais, mais cada componente com o seu nome.
+    private static final int PESO_BASE = 512;
+    private static final int PESO_POR_COMPONENTE = 96;
+
+    private final MotorCalculoRescisao motorCalculoRescisao;
+    private final Cache<ChaveCalculo, CalculoRescisaoResponse> resultados;
+    private final boolean habilitado;
+
+    public CalculoRescisaoCache(
+            MotorCalculoRescisao motorCalculoRescisao,
+            MeterRegistry meterRegistry,
+            @Value("${rescisao.calculo.cache.enabled:true}") boolean habilitado,
+            @Value("${rescisao.calculo.cache.memoria-max:16MB}") DataSize memoriaMax,
+            @Value("${rescisao.calculo.cache.expira-apos:1h}") Duration expiraApos
+    ) {
+        this.motorCalculoRescisao = motorCalculoRescisao;
+        this.habilitado = habilitado;
+        this.resultados = Caffeine.newBuilder()
+                .maximumWeight(memoriaMax.toBytes())
+                .weigher(CalculoRescisaoCache::peso)
+                .expireAfterAccess(expiraApos)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, resultados, "rescisao.calculo");
+    }
+
+    /**
+     * Resultado do cálculo, do cache ou do motor. Com {@code rescisao.calculo.cache.enabled=false} apenas delega.
+     */
+    public CalculoRescisaoResponse calcular(CalculoRescisaoRequest req) {
+        if (!habilitado) {
+            return motorCalculoRescisao.calcular(req);
+        }
+        // get() com loader é single-flight: as demais requisições com a mesma chave aguardam este cálculo.
+        CalculoRescisaoResponse resultado = resultados.get(ChaveCalculo.de(req), chave -> motorCalculoRescisao.calcular(req));
+        return copiar(resultado);
+    }
+
+    /**
+     * A resposta é mutável (o controller preenche o id do histórico), então a instância do cache nunca sai daqui.
+     */
+    private static CalculoRescisaoResponse copiar(CalculoRescisaoResponse original) {
+        return CalculoRescisaoResponse.builder()
+                .totalBruto(original.getTotalBruto())
+                .totalDescontos(original.getTotalDescontos())
+                .totalLiquido(original.getTotalLiquido())
+                .componentes(copiar(original.getComponentes()))
+                .descontos(copiar(original.getDescontos()))
+                .pagamentoAte(original.getPagamentoAte())
+                .build();
+    }
+
+    private static List<Componente> copiar(List<Componente> componentes) {
+        if (componentes == null) {
+            return null;
+        }
+        return componentes.stream().map(c -> new Componente(c.getNome(), c.getValor())).collect(Collectors.toList());
+    }
+
+    private static int peso(ChaveCalculo chave, CalculoRescisaoResponse resposta) {
+        int peso = PESO_BASE;
+        for (List<Componente> lista : List.of(
+                Objects.requireNonNullElse(resposta.getComponentes(), List.<Componente>of()),
+                Objects.requireNonNullElse(resposta.getDescontos(), List.<Componente>of()))) {
+            for (Componente componente : lista) {
+                peso += PESO_POR_COMPONENTE + 2 * (componente.getNome() == null ? 0 : componente.getNome().length());
+            }
+        }
+        return peso;
+    }
+
+    /**
+     * Forma canônica da entrada. Nome do empregado e meses informados pelo front ficam de fora: o motor não os usa.
+     */
+    record ChaveCalculo(
+            String versaoTabelas,
+            TipoRescisao tipoRescisao,
+            BigDecimal salarioMensal,
+            LocalDate dataAdmissao,
+            LocalDate dataDesligamento,
+            boolean avisoIndenizado,
+            int feriasVencidasDias,
+            BigDecimal saldoFgtsDepositado,
+            int numeroDependentes
+    ) {
+
+        static ChaveCalculo de(CalculoRescisaoRequest req) {
+            return new ChaveCalculo(
+                    DescontosService.VERSAO_TABELAS,
+                    req.getTipoRescisao(),
+                    normalizar(req.getSalarioMensal()),
+                    req.getDataAdmissao(),
+                    req.getDataDesligamento(),
+                    req.isAvisoIndenizado(),
+                    req.getFeriasVencidasDias(),
+                    normalizar(Objects.requireNonNullElse(req.getSaldoFgtsDepositado(), BigDecimal.ZERO)),
+                    req.getNumeroDependentes());
+        }
+
+        // 3000, 3000.0 e 3000.00 viram a mesma chave (BigDecimal.equals considera a escala).
+        private static BigDecimal normalizar(BigDecimal valor) {
+            return valor == null ? null : valor.stripTrailingZeros();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.dto.CalculoRescisaoRequest;
+import br.com.nish.calculadora.dto.CalculoRescisaoResponse;
+import br.com.nish.calculadora.dto.Componente;
+import br.com.nish.calculadora.dto.TipoRescisao;
+import br.com.nish.calculadora.dto.Verba;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Motor de cálculo em ponto fixo: toda a aritmética é feita em {@code long} (centavos),
+ * sem criar {@link BigDecimal} intermediários. Ativado com {@code rescisao.calculo.motor=centavos}.
+ *
+ * <p>Os resultados são idênticos, centavo a centavo, aos do {@link CalculoRescisaoService}: as divisões
+ * intermediárias que lá são arredondadas para 10 casas aqui são feitas em unidades de 1e-10 real,
+ * com o mesmo HALF_UP. Entradas com mais de duas casas decimais ou que estourariam um {@code long}
+ * são delegadas ao motor {@link BigDecimal}.</p>
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "rescisao.calculo.motor", havingValue = "centavos")
+public class CalculoRescisaoCentavosService implements MotorCalculoRescisao {
+
+    // Valores "escala 10" do motor BigDecimal, em unidades de 1e-10 real, convertidos para centavos.
+    private static final long ESCALA_10_PARA_CENTAVOS = 100_000_000L;
+    private static final long ESCALA_10 = 10_000_000_000L;
+
+    private final CalculoRescisaoService motorBigDecimal;
+    private final DescontosService descontosService;
+
+    private final MetricasCalculo metricas;
+
+    public CalculoRescisaoCentavosService(CalculoRescisaoService motorBigDecimal, DescontosService descontosService,
+                                          MeterRegistry meterRegistry) {
+        this.motorBigDecimal = motorBigDecimal;
+        this.descontosService = descontosService;
+        this.metricas = new MetricasCalculo(meterRegistry, "centavos");
+    }
+
+    @Override
+    public CalculoRescisaoResponse calcular(CalculoRescisaoRequest req) {
+        return metricas.medir(req.getTipoRescisao(), () -> {
+            try {
+                return calcularEmCentavos(req);
+            } catch (ArithmeticException e) {
+                return motorBigDecimal.calcularSemMedir(req);
+            }
+        });
+    }
+
+    /**
+     * @throws ArithmeticException se a entrada não puder ser calculada exatamente em centavos
+     */
+    CalculoRescisaoResponse calcularEmCentavos(CalculoRescisaoRequest req) {
+        TipoRescisao tipo = req.getTipoRescisao();
+        long salario = Centavos.exato(req.getSalarioMensal());
+        // salário / 30 com 10 casas: (centavos / 100 / 30) * 1e10 = centavos * 1e7 / 3
+        long diario = Centavos.dividirHalfUp(Math.multiplyExact(salario, 10_000_000L), 3);
+
+        int mesesAno = motorBigDecimal.calcularMesesTrabalhadosNoAno(tipo, req.getDataAdmissao(),
+                req.getDataDesligamento(), req.isAvisoIndenizado());
+
+        List<Componente> componentesProventos = new ArrayList<>();
+        List<Componente> componentesDesconto = new ArrayList<>();
+        long totalBruto = 0L;
+        long totalDescontos = 0L;
+
+        long saldoSalario = paraCentavos(Math.multiplyExact(diario, (long) req.getDataDesligamento().getDayOfMonth()));
+        totalBruto = adicionar(componentesProventos, Verba.SALDO_SALARIO.nome(), saldoSalario, totalBruto);
+
+        long decimoProporcional = 0L;
+        if (motorBigDecimal.incluiDecimoProporcional(tipo) && mesesAno > 0) {
+            long proporcao = Centavos.dividirHalfUp(mesesAno * ESCALA_10, 12);
+            decimoProporcional = Centavos.dividirHalfUp(Math.multiplyExact(salario, proporcao), ESCALA_10);
+            totalBruto = adicionar(componentesProventos, Verba.DECIMO_TERCEIRO_PROPORCIONAL.nome(mesesAno), decimoProporcional, totalBruto);
+        }
+
+        if (motorBigDecimal.incluiFeriasProporcionais(tipo) && mesesAno > 0) {
+            // salário * meses / 12 com 10 casas: centavos * meses * 1e8 / 12
+            long baseProp = Centavos.dividirHalfUp(
+                    Math.multiplyExact(Math.multiplyExact(salario, (long) mesesAno), ESCALA_10_PARA_CENTAVOS), 12);
+            long umTerco = Centavos.dividirHalfUp(baseProp, 3);
+            totalBruto = adicionar(componentesProventos, Verba.FERIAS_PROPORCIONAIS.nome(),
+                    paraCentavos(Math.addExact(baseProp, umTerco)), totalBruto);
+        }
+
+        if (req.getFeriasVencidasDias() > 0) {
+            long base = Math.multiplyExact(diario, (long) req.getFeriasVencidasDias());
+            long umTerco = Centavos.dividirHalfUp(base, 3);
+            totalBruto = adicionar(componentesProventos, Verba.FERIAS_VENCIDAS.nome(),
+                    paraCentavos(Math.addExact(base, umTerco)), totalBruto);
+        }
+
+        if (req.isAvisoIndenizado() && motorBigDecimal.incluiAvisoIndenizado(tipo)) {
+            int diasAvisoAplicados = motorBigDecimal.calcularDiasAvisoPrevio(req.getDataAdmissao(), req.getDataDesligamento());
+            if (tipo == TipoRescisao.ACORDO_484A) {
+                diasAvisoAplicados = Math.max(0, diasAvisoAplicados / 2);
+            }
+            if (diasAvisoAplicados > 0) {
+                long aviso = paraCentavos(Math.multiplyExact(diario, (long) diasAvisoAplicados));
+                totalBruto = adicionar(componentesProventos, Verba.AVISO_PREVIO_INDENIZADO.nome(diasAvisoAplicados), aviso, totalBruto);
+            }
+        }
+
+        long saldoFgts = Centavos.arredondado(Objects.requireNonNullElse(req.getSaldoFgtsDepositado(), BigDecimal.ZERO));
+
+        if (motorBigDecimal.incluiSaqueFgts(tipo)) {
+            if (tipo == TipoRescisao.ACORDO_484A) {
+                totalBruto = adicionar(componentesProventos, Verba.SAQUE_FGTS_80.nome(),
+                        percentual(saldoFgts, 80), totalBruto);
+            } else {
+                totalBruto = adicionar(componentesProventos, Verba.SAQUE_FGTS_SALDO.nome(), saldoFgts, totalBruto);
+            }
+        }
+
+        long multaFgts = calcularMultaFgts(tipo, saldoFgts);
+        if (multaFgts > 0) {
+            totalBruto = adicionar(componentesProventos, Verba.MULTA_FGTS.nome(), multaFgts, totalBruto);
+        }
+
+        long inssSobreSalario = descontosService.calcularInssCentavos(saldoSalario);
+        if (inssSobreSalario > 0) {
+            totalDescontos = adicionar(componentesDesconto, Verba.INSS_SALDO_SALARIO.nome(), inssSobreSalario, totalDescontos);
+        }
+
+        long inssSobre13 = descontosService.calcularInssCentavos(decimoProporcional);
+        if (inssSobre13 > 0) {
+            totalDescontos = adicionar(componentesDesconto, Verba.INSS_DECIMO_TERCEIRO.nome(), inssSobre13, totalDescontos);
+        }
+
+        long irrfSobreSalario = descontosService.calcularIrrfCentavos(saldoSalario, inssSobreSalario, req.getNumeroDependentes());
+        if (irrfSobreSalario > 0) {
+            totalDescontos = adicionar(componentesDesconto, Verba.IRRF_SALARIO.nome(), irrfSobreSalario, totalDescontos);
+        }
+
+        long irrfSobre13 = descontosService.calcularIrrfCentavos(decimoProporcional, inssSobre13, req.getNumeroDependentes());
+        if (irrfSobre13 > 0) {
+            totalDescontos = adicionar(componentesDesconto, Verba.IRRF_DECIMO_TERCEIRO.nome(), irrfSobre13, totalDescontos);
+        }
+
+        return CalculoRescisaoResponse.builder()
+                .componentes(componentesProventos)
+                .descontos(componentesDesconto)
+                .totalBruto(Centavos.paraBigDecimal(totalBruto))
+                .totalDescontos(Centavos.paraBigDecimal(totalDescontos))
+                .totalLiquido(Centavos.paraBigDecimal(Math.subtractExact(totalBruto, totalDescontos)))
+                .pagamentoAte(req.getDataDesligamento().plusDays(10))
+                .build();
+    }
+
+    private long calcularMultaFgts(TipoRescisao tipo, long saldoFgts) {
+        if (tipo == null || saldoFgts <= 0) {
+            return 0L;
+        }
+        return switch (tipo) {
+            case SEM_JUSTA_CAUSA -> percentual(saldoFgts, 40);
+            case ACORDO_484A -> percentual(saldoFgts, 20);
+            default -> 0L;
+        };
+    }
+
+    private static long percentual(long centavos, long pontosPercentuais) {
+        return Centavos.dividirHalfUp(Math.multiplyExact(centavos, pontosPercentuais), 100);
+    }
+
+    private static long paraCentavos(long valorEscala10) {
+        return Centavos.dividirHalfUp(valorEscala10, ESCALA_10_PARA_CENTAVOS);
+    }
+
+    private static long adicionar(List<Componente> componentes, String nome, long centavos, long total) {
+        componentes.add(new Componente(nome, Centavos.paraBigDecimal(centavos)));
+        return Math.addExact(total, centavos);
+    }
+}
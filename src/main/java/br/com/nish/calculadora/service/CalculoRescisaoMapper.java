@@ -0,0 +1,52 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.dto.CalculoRescisaoRequest;
+import br.com.nish.calculadora.dto.CalculoRescisaoResponse;
+import br.com.nish.calculadora.model.CalculoRescisao;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Monta a entidade de histórico a partir da entrada e do resultado de um cálculo.
+ */
+@Component
+public class CalculoRescisaoMapper {
+
+    private final Timer tempoSerializacao;
+
+    public CalculoRescisaoMapper(MeterRegistry meterRegistry) {
+        this.tempoSerializacao = Timer.builder("rescisao.componentes.serializacao")
+                .description("Tempo de codificação de proventos e descontos (CBOR) para o histórico")
+                .register(meterRegistry);
+    }
+
+    public CalculoRescisao paraEntidade(Long usuarioId, CalculoRescisaoRequest request, CalculoRescisaoResponse response) {
+        CalculoRescisao.CalculoRescisaoBuilder builder = CalculoRescisao.builder();
+        long inicio = System.nanoTime();
+        try {
+            builder.componentes(response.getComponentes(), response.getDescontos());
+        } finally {
+            tempoSerializacao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+        return builder
+                .usuarioId(usuarioId)
+                .nomeEmpregado(request.getNomeEmpregado())
+                .tipoRescisao(request.getTipoRescisao().name())
+                .salarioMensal(request.getSalarioMensal())
+                .dataAdmissao(request.getDataAdmissao())
+                .dataDesligamento(request.getDataDesligamento())
+                .avisoIndenizado(request.isAvisoIndenizado())
+                .feriasVencidasDias(request.getFeriasVencidasDias())
+                .mesesTrabalhadosNoAnoAtual(request.getMesesTrabalhadosNoAnoAtual())
+                .saldoFgtsDepositado(Objects.requireNonNullElse(request.getSaldoFgtsDepositado(), BigDecimal.ZERO))
+                .totalBruto(response.getTotalBruto())
+                .totalDescontos(response.getTotalDescontos())
+                .totalLiquido(response.getTotalLiquido())
+                .pagamentoAte(response.getPagamentoAte())
+                .build();
+    }
+}
@@ -4,102 +4,137 @@ import br.com.nish.calculadora.dto.CalculoRescisaoRequest;
 import br.com.nish.calculadora.dto.CalculoRescisaoResponse;
 import br.com.nish.calculadora.dto.Componente;
 import br.com.nish.calculadora.dto.TipoRescisao;
+import br.com.nish.calculadora.dto.Verba;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+/**
+ * Motor de cálculo padrão, em {@link BigDecimal}.
+ */
 @Service
-@RequiredArgsConstructor
-public class CalculoRescisaoService {
+public class CalculoRescisaoService implements MotorCalculoRescisao {
 
     private final DescontosService descontosService;
+    private final MetricasCalculo metricas;
+    private final Timer comparacao;
+
+    public CalculoRescisaoService(DescontosService descontosService, MeterRegistry meterRegistry) {
+        this.descontosService = descontosService;
+        this.metricas = new MetricasCalculo(meterRegistry, "bigdecimal");
+        this.comparacao = Timer.builder("rescisao.calculo.comparacao")
+                .description("Tempo do cálculo de todos os tipos de rescisão para uma entrada")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     private static final BigDecimal TRINTA = new BigDecimal("30");
     private static final BigDecimal DOZE   = new BigDecimal("12");
     private static final BigDecimal ZERO_2 = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
 
+    @Override
     public CalculoRescisaoResponse calcular(CalculoRescisaoRequest req) {
+        return metricas.medir(req.getTipoRescisao(), () -> calcularSemMedir(req));
+    }
+
+    /**
+     * Calcula a mesma entrada para todos os tipos de rescisão (o tipo informado é ignorado), na ordem de
+     * {@link TipoRescisao}. Saldo de salário, férias vencidas, dias de aviso, saldo do FGTS e os descontos sobre o
+     * salário são calculados uma vez; os meses no ano e o 13º (com INSS/IRRF) uma vez por projeção de aviso. Só as
+     * verbas que dependem do tipo (aviso, 13º/férias proporcionais, saque e multa do FGTS) são refeitas.
+     */
+    public Map<TipoRescisao, CalculoRescisaoResponse> compararTipos(CalculoRescisaoRequest req) {
+        return comparacao.record(() -> {
+            BasesCalculo bases = new BasesCalculo(req);
+            Map<TipoRescisao, CalculoRescisaoResponse> porTipo = new EnumMap<>(TipoRescisao.class);
+            for (TipoRescisao tipo : TipoRescisao.values()) {
+                porTipo.put(tipo, montar(req, tipo, bases));
+            }
+            return porTipo;
+        });
+    }
+
+    /**
+     * O cálculo em si, fora do timer: usado também pelo motor em centavos, que já mede o próprio tempo.
+     */
+    CalculoRescisaoResponse calcularSemMedir(CalculoRescisaoRequest req) {
+        return montar(req, req.getTipoRescisao(), new BasesCalculo(req));
+    }
+
+    private CalculoRescisaoResponse montar(CalculoRescisaoRequest req, TipoRescisao tipo, BasesCalculo bases) {
         List<Componente> componentesProventos = new ArrayList<>();
         List<Componente> componentesDesconto = new ArrayList<>();
 
-        int mesesAno = calcularMesesTrabalhadosNoAno(req.getTipoRescisao(), req.getDataAdmissao(),
-                req.getDataDesligamento(), req.isAvisoIndenizado());
+        int diasAvisoProjetados = req.isAvisoIndenizado() ? diasAvisoAplicados(tipo, bases.diasAvisoCheio) : 0;
+        int mesesAno = bases.mesesNoAno(diasAvisoProjetados);
 
-        BigDecimal saldoSalario = calcularSaldoSalario(req.getSalarioMensal(), req.getDataDesligamento());
-        componentesProventos.add(new Componente("Saldo de salário", saldoSalario));
+        componentesProventos.add(new Componente(Verba.SALDO_SALARIO.nome(), bases.saldoSalario));
 
-        boolean inclui13Prop = incluiDecimoProporcional(req.getTipoRescisao());
-        BigDecimal decimoProporcional = BigDecimal.ZERO;
+        boolean inclui13Prop = incluiDecimoProporcional(tipo);
+        DecimoTerceiro decimo = bases.decimoTerceiro(inclui13Prop ? mesesAno : 0);
         if (inclui13Prop && mesesAno > 0) {
-            decimoProporcional = calcularDecimoTerceiroProporcional(req.getSalarioMensal(), mesesAno);
-            componentesProventos.add(new Componente("13º proporcional (" + mesesAno + " meses)", decimoProporcional));
+            componentesProventos.add(new Componente(Verba.DECIMO_TERCEIRO_PROPORCIONAL.nome(mesesAno), decimo.valor()));
         }
 
-        if (incluiFeriasProporcionais(req.getTipoRescisao()) && mesesAno > 0) {
+        if (incluiFeriasProporcionais(tipo) && mesesAno > 0) {
             BigDecimal feriasPropMaisTerco = calcularFeriasProporcionaisMaisUmTerco(req.getSalarioMensal(), mesesAno);
-            componentesProventos.add(new Componente("Férias proporcionais + 1/3", feriasPropMaisTerco));
+            componentesProventos.add(new Componente(Verba.FERIAS_PROPORCIONAIS.nome(), feriasPropMaisTerco));
         }
 
-        if (req.getFeriasVencidasDias() > 0) {
-            BigDecimal feriasVencidas = calcularFeriasVencidasMaisUmTerco(req.getSalarioMensal(), req.getFeriasVencidasDias());
-            componentesProventos.add(new Componente("Férias vencidas + 1/3", feriasVencidas));
+        if (bases.feriasVencidas != null) {
+            componentesProventos.add(new Componente(Verba.FERIAS_VENCIDAS.nome(), bases.feriasVencidas));
         }
 
-        if (req.isAvisoIndenizado() && incluiAvisoIndenizado(req.getTipoRescisao())) {
-            int diasAvisoCheio = calcularDiasAvisoPrevio(req.getDataAdmissao(), req.getDataDesligamento());
-            int diasAvisoAplicados = diasAvisoCheio;
-            if (req.getTipoRescisao() == TipoRescisao.ACORDO_484A) {
-                diasAvisoAplicados = Math.max(0, diasAvisoCheio / 2);
-            }
+        if (req.isAvisoIndenizado() && incluiAvisoIndenizado(tipo)) {
+            int diasAvisoAplicados = diasAvisoAplicados(tipo, bases.diasAvisoCheio);
             if (diasAvisoAplicados > 0) {
                 BigDecimal avisoIndenizado = calcularAvisoPrevioIndenizado(req.getSalarioMensal(), diasAvisoAplicados);
-                componentesProventos.add(new Componente("Aviso prévio indenizado (" + diasAvisoAplicados + " dias)", avisoIndenizado));
+                componentesProventos.add(new Componente(Verba.AVISO_PREVIO_INDENIZADO.nome(diasAvisoAplicados), avisoIndenizado));
             }
         }
 
-        BigDecimal saldoFgts = Objects.requireNonNullElse(req.getSaldoFgtsDepositado(), BigDecimal.ZERO)
-                .setScale(2, RoundingMode.HALF_UP);
+        BigDecimal saldoFgts = bases.saldoFgts;
 
-        if (incluiSaqueFgts(req.getTipoRescisao())) {
+        if (incluiSaqueFgts(tipo)) {
             BigDecimal valorSaqueFgts = saldoFgts;
-            String nomeComponente = "Saque FGTS (saldo depositado)";
+            String nomeComponente = Verba.SAQUE_FGTS_SALDO.nome();
 
-            if (req.getTipoRescisao() == TipoRescisao.ACORDO_484A) {
+            if (tipo == TipoRescisao.ACORDO_484A) {
                 valorSaqueFgts = saldoFgts.multiply(new BigDecimal("0.80")).setScale(2, RoundingMode.HALF_UP);
-                nomeComponente = "Saque FGTS (80% do saldo)";
+                nomeComponente = Verba.SAQUE_FGTS_80.nome();
             }
             componentesProventos.add(new Componente(nomeComponente, valorSaqueFgts));
         }
 
-        BigDecimal multaFgts = calcularMultaFgts(req.getTipoRescisao(), saldoFgts);
+        BigDecimal multaFgts = calcularMultaFgts(tipo, saldoFgts);
         if (multaFgts.compareTo(BigDecimal.ZERO) > 0) {
-            componentesProventos.add(new Componente("Multa Rescisória FGTS", multaFgts));
+            componentesProventos.add(new Componente(Verba.MULTA_FGTS.nome(), multaFgts));
         }
 
-        BigDecimal inssSobreSalario = descontosService.calcularInss(saldoSalario);
-        if (inssSobreSalario.compareTo(ZERO_2) > 0) {
-            componentesDesconto.add(new Componente("INSS sobre Saldo de Salário", inssSobreSalario));
+        if (bases.inssSobreSalario.compareTo(ZERO_2) > 0) {
+            componentesDesconto.add(new Componente(Verba.INSS_SALDO_SALARIO.nome(), bases.inssSobreSalario));
         }
 
-        BigDecimal inssSobre13 = descontosService.calcularInss(decimoProporcional);
-        if (inssSobre13.compareTo(ZERO_2) > 0) {
-            componentesDesconto.add(new Componente("INSS sobre 13º Salário", inssSobre13));
+        if (decimo.inss().compareTo(ZERO_2) > 0) {
+            componentesDesconto.add(new Componente(Verba.INSS_DECIMO_TERCEIRO.nome(), decimo.inss()));
         }
 
-        BigDecimal irrfSobreSalario = descontosService.calcularIrrf(saldoSalario, inssSobreSalario, req.getNumeroDependentes());
-        if (irrfSobreSalario.compareTo(ZERO_2) > 0) {
-            componentesDesconto.add(new Componente("IRRF sobre Salário", irrfSobreSalario));
+        if (bases.irrfSobreSalario.compareTo(ZERO_2) > 0) {
+            componentesDesconto.add(new Componente(Verba.IRRF_SALARIO.nome(), bases.irrfSobreSalario));
         }
 
-        BigDecimal irrfSobre13 = descontosService.calcularIrrf(decimoProporcional, inssSobre13, req.getNumeroDependentes());
-        if (irrfSobre13.compareTo(ZERO_2) > 0) {
-            componentesDesconto.add(new Componente("IRRF sobre 13º Salário", irrfSobre13));
+        if (decimo.irrf().compareTo(ZERO_2) > 0) {
+            componentesDesconto.add(new Componente(Verba.IRRF_DECIMO_TERCEIRO.nome(), decimo.irrf()));
         }
 
         BigDecimal totalBruto = somaComponentes(componentesProventos);
@@ -116,6 +151,13 @@ public class CalculoRescisaoService {
                 .build();
     }
 
+    /**
+     * Dias de aviso que valem para o tipo: no acordo (art. 484-A) metade do aviso cheio.
+     */
+    static int diasAvisoAplicados(TipoRescisao tipo, int diasAvisoCheio) {
+        return tipo == TipoRescisao.ACORDO_484A ? Math.max(0, diasAvisoCheio / 2) : diasAvisoCheio;
+    }
+
     boolean incluiSaqueFgts(TipoRescisao tipo) {
         if (tipo == null) return false;
         return switch (tipo) {
@@ -149,16 +191,19 @@ public class CalculoRescisaoService {
 
     int calcularMesesTrabalhadosNoAno(TipoRescisao tipo, LocalDate adm, LocalDate deslig, boolean avisoIndenizado) {
         if (adm == null || deslig == null) return 0;
+        int diasAviso = avisoIndenizado ? diasAvisoAplicados(tipo, calcularDiasAvisoPrevio(adm, deslig)) : 0;
+        return contarMesesNoAno(adm, deslig, deslig.plusDays(diasAviso));
+    }
+
+    /**
+     * Meses do ano do desligamento com 15 dias ou mais de vínculo, contando até {@code fimEfetivo} (desligamento
+     * mais o aviso indenizado projetado).
+     */
+    int contarMesesNoAno(LocalDate adm, LocalDate deslig, LocalDate fimEfetivo) {
         int year = deslig.getYear();
         LocalDate inicioNoAno = LocalDate.of(year, 1, 1);
         LocalDate fimNoAno = LocalDate.of(year, 12, 31);
         LocalDate inicioVinculo = adm.isAfter(inicioNoAno) ? adm : inicioNoAno;
-
-        int diasAviso = avisoIndenizado ? calcularDiasAvisoPrevio(adm, deslig) : 0;
-        if (tipo == TipoRescisao.ACORDO_484A && diasAviso > 0) {
-            diasAviso = Math.max(0, diasAviso / 2);
-        }
-        LocalDate fimEfetivo = avisoIndenizado ? deslig.plusDays(diasAviso) : deslig;
         LocalDate fimVinculo = fimEfetivo.isBefore(fimNoAno) ? fimEfetivo : fimNoAno;
 
         if (fimVinculo.isBefore(inicioNoAno) || fimVinculo.isBefore(inicioVinculo)) {
@@ -251,4 +296,57 @@ public class CalculoRescisaoService {
         for (Componente c : comps) total = total.add(c.getValor());
         return total.setScale(2, RoundingMode.HALF_UP);
     }
-}
\ No newline at end of file
+
+    /**
+     * Valores de uma entrada que não dependem do tipo de rescisão. Os meses no ano só mudam com os dias de aviso
+     * projetados e o 13º só com os meses, então ficam memorizados por esses valores (no máximo dois de cada).
+     */
+    private final class BasesCalculo {
+
+        private final CalculoRescisaoRequest req;
+        private final BigDecimal saldoSalario;
+        private final BigDecimal inssSobreSalario;
+        private final BigDecimal irrfSobreSalario;
+        private final BigDecimal feriasVencidas;
+        private final BigDecimal saldoFgts;
+        private final int diasAvisoCheio;
+        private final Map<Integer, Integer> mesesPorDiasAviso = new HashMap<>(4);
+        private final Map<Integer, DecimoTerceiro> decimoPorMeses = new HashMap<>(4);
+
+        BasesCalculo(CalculoRescisaoRequest req) {
+            this.req = req;
+            this.saldoSalario = calcularSaldoSalario(req.getSalarioMensal(), req.getDataDesligamento());
+            this.inssSobreSalario = descontosService.calcularInss(saldoSalario);
+            this.irrfSobreSalario = descontosService.calcularIrrf(saldoSalario, inssSobreSalario, req.getNumeroDependentes());
+            this.feriasVencidas = req.getFeriasVencidasDias() > 0
+                    ? calcularFeriasVencidasMaisUmTerco(req.getSalarioMensal(), req.getFeriasVencidasDias())
+                    : null;
+            this.saldoFgts = Objects.requireNonNullElse(req.getSaldoFgtsDepositado(), BigDecimal.ZERO)
+                    .setScale(2, RoundingMode.HALF_UP);
+            this.diasAvisoCheio = calcularDiasAvisoPrevio(req.getDataAdmissao(), req.getDataDesligamento());
+        }
+
+        int mesesNoAno(int diasAvisoProjetados) {
+            if (req.getDataAdmissao() == null || req.getDataDesligamento() == null) {
+                return 0;
+            }
+            return mesesPorDiasAviso.computeIfAbsent(diasAvisoProjetados, dias -> contarMesesNoAno(
+                    req.getDataAdmissao(), req.getDataDesligamento(), req.getDataDesligamento().plusDays(dias)));
+        }
+
+        /**
+         * 13º proporcional e seus descontos; com 0 meses (ou tipo sem 13º) o valor é zero, mas os descontos
+         * continuam vindo do {@link DescontosService}, como no cálculo de um tipo só.
+         */
+        DecimoTerceiro decimoTerceiro(int meses) {
+            return decimoPorMeses.computeIfAbsent(meses, m -> {
+                BigDecimal valor = m > 0 ? calcularDecimoTerceiroProporcional(req.getSalarioMensal(), m) : BigDecimal.ZERO;
+                BigDecimal inss = descontosService.calcularInss(valor);
+                BigDecimal irrf = descontosService.calcularIrrf(valor, inss, req.getNumeroDependentes());
+                return new DecimoTerceiro(valor, inss, irrf);
+            });
+        }
+    }
+
+    private record DecimoTerceiro(BigDecimal valor, BigDecimal inss, BigDecimal irrf) {}
+}
@@ -0,0 +1,45 @@
+package br.com.nish.calculadora.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Aritmética em centavos ({@code long}) com arredondamento HALF_UP explícito.
+ * Qualquer estouro ou valor que não caiba em centavos exatos gera {@link ArithmeticException}.
+ */
+final class Centavos {
+
+    private Centavos() {
+    }
+
+    /**
+     * Converte um valor monetário para centavos, exigindo no máximo duas casas decimais significativas.
+     */
+    static long exato(BigDecimal valor) {
+        return valor.movePointRight(2).longValueExact();
+    }
+
+    /**
+     * Converte um valor monetário para centavos arredondando (HALF_UP) para duas casas.
+     */
+    static long arredondado(BigDecimal valor) {
+        return valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal paraBigDecimal(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    /**
+     * Divisão inteira com arredondamento HALF_UP (metade se afasta do zero), como {@link RoundingMode#HALF_UP}.
+     * O divisor deve ser positivo.
+     */
+    static long dividirHalfUp(long dividendo, long divisor) {
+        long quociente = dividendo / divisor;
+        long resto = dividendo % divisor;
+        if (Math.abs(resto) * 2 >= divisor) {
+            quociente += Long.signum(dividendo);
+        }
+        return quociente;
+    }
+}
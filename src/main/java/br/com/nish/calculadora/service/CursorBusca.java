@@ -0,0 +1,34 @@
+package br.com.nish.calculadora.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Posição na busca do histórico: o (data_desligamento, id) da última linha entregue.
+ * Vai ao cliente como um token opaco (base64url de "diaEpoch:id").
+ */
+record CursorBusca(LocalDate dataDesligamento, Long id) {
+
+    String codificar() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((dataDesligamento.toEpochDay() + ":" + id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @throws IllegalArgumentException se o token não foi gerado por {@link #codificar()}
+     */
+    static CursorBusca decodificar(String token) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split(":");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new CursorBusca(LocalDate.ofEpochDay(Long.parseLong(partes[0])), Long.valueOf(partes[1]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            // NumberFormatException e erros de base64 também caem aqui.
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.nish.calculadora.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Posição no histórico: o (criado_em, id) da última linha entregue.
+ * Vai ao cliente como um token opaco (base64url de "microssegundos:id").
+ */
+record CursorHistorico(OffsetDateTime criadoEm, Long id) {
+
+    String codificar() {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, criadoEm.toInstant());
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((micros + ":" + id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @throws IllegalArgumentException se o token não foi gerado por {@link #codificar()}
+     */
+    static CursorHistorico decodificar(String token) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split(":");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            Instant instante = Instant.EPOCH.plus(Long.parseLong(partes[0]), ChronoUnit.MICROS);
+            return new CursorHistorico(OffsetDateTime.ofInstant(instante, ZoneOffset.UTC), Long.valueOf(partes[1]));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException e erros de base64 também caem aqui.
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package br.com.nish.calculadora.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import org.springframework.stereotype.Service;
 
 /**
  * Serviço responsável por calcular os descontos legais (INSS, IRRF).
+ * Cada cálculo é cronometrado em {@code rescisao.descontos} (tag {@code imposto}).
  */
 @Service
 public class DescontosService {
@@ -29,31 +35,63 @@ public class DescontosService {
             new FaixaIrrf(null, new BigDecimal("0.275"), new BigDecimal("896.00")) // Faixa final (acima de 4.664,68)
     );
 
-    public BigDecimal calcularInss(BigDecimal baseCalculo) {
-        if (baseCalculo == null || baseCalculo.compareTo(BigDecimal.ZERO) <= 0) {
-            return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
-        }
+    private static final BigDecimal ZERO_2 = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
 
-        BigDecimal descontoTotal = BigDecimal.ZERO;
-        BigDecimal baseFaixaAnterior = BigDecimal.ZERO;
+    // Tabelas compiladas uma única vez a partir das faixas acima.
+    private static final TabelaInss INSS_2025 = new TabelaInss(TABELA_INSS_2025);
+    private static final TabelaIrrf IRRF_2025 = new TabelaIrrf(TABELA_IRRF_2025, DEDUCAO_POR_DEPENDENTE_2025);
 
-        for (FaixaInss faixa : TABELA_INSS_2025) {
-            BigDecimal tetoFaixa = faixa.teto();
-            BigDecimal baseNestaFaixa = baseCalculo.min(tetoFaixa).subtract(baseFaixaAnterior);
+    /**
+     * Identifica o conteúdo das tabelas acima: muda sempre que uma faixa, alíquota ou dedução muda.
+     * Faz parte da chave do cache de resultados, para que uma tabela nova nunca reaproveite cálculos antigos.
+     */
+    public static final String VERSAO_TABELAS = "2025-"
+            + Integer.toHexString(Objects.hash(TABELA_INSS_2025, TABELA_IRRF_2025, DEDUCAO_POR_DEPENDENTE_2025));
 
-            if (baseNestaFaixa.compareTo(BigDecimal.ZERO) > 0) {
-                BigDecimal valorDescontoFaixa = baseNestaFaixa.multiply(faixa.aliquota());
-                descontoTotal = descontoTotal.add(valorDescontoFaixa);
-            }
+    private final Timer tempoInss;
+    private final Timer tempoIrrf;
 
-            baseFaixaAnterior = tetoFaixa;
+    public DescontosService(MeterRegistry meterRegistry) {
+        this.tempoInss = tempo(meterRegistry, "inss");
+        this.tempoIrrf = tempo(meterRegistry, "irrf");
+    }
 
-            if (baseCalculo.compareTo(tetoFaixa) <= 0) {
-                break;
-            }
+    private static Timer tempo(MeterRegistry meterRegistry, String imposto) {
+        return Timer.builder("rescisao.descontos")
+                .description("Tempo de cálculo de cada desconto legal")
+                .tag("imposto", imposto)
+                .register(meterRegistry);
+    }
+
+    public BigDecimal calcularInss(BigDecimal baseCalculo) {
+        long inicio = System.nanoTime();
+        try {
+            return inss(baseCalculo);
+        } finally {
+            tempoInss.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static BigDecimal inss(BigDecimal baseCalculo) {
+        if (baseCalculo == null || baseCalculo.signum() <= 0) {
+            return ZERO_2;
         }
+        if (cabeEmCentavos(baseCalculo)) {
+            return Centavos.paraBigDecimal(INSS_2025.calcular(baseCalculo.movePointRight(2).longValue()));
+        }
+        return INSS_2025.calcular(baseCalculo);
+    }
 
-        return descontoTotal.setScale(2, RoundingMode.HALF_UP);
+    /**
+     * Mesmo cálculo de {@link #calcularInss(BigDecimal)}, com base e resultado em centavos.
+     */
+    public long calcularInssCentavos(long baseCentavos) {
+        long inicio = System.nanoTime();
+        try {
+            return baseCentavos <= 0 ? 0L : INSS_2025.calcular(baseCentavos);
+        } finally {
+            tempoInss.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
     }
 
     /**
@@ -67,30 +105,205 @@ public class DescontosService {
      * @return O valor do desconto de IRRF.
      */
     public BigDecimal calcularIrrf(BigDecimal baseTributavel, BigDecimal inssDescontado, int numeroDependentes) {
-        if (baseTributavel == null || baseTributavel.compareTo(BigDecimal.ZERO) <= 0) {
-            return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+        long inicio = System.nanoTime();
+        try {
+            return irrf(baseTributavel, inssDescontado, numeroDependentes);
+        } finally {
+            tempoIrrf.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
         }
+    }
 
-        BigDecimal deducaoDependentes = DEDUCAO_POR_DEPENDENTE_2025.multiply(new BigDecimal(numeroDependentes));
-        BigDecimal baseDeCalculoFinal = baseTributavel.subtract(inssDescontado).subtract(deducaoDependentes);
-
-        if (baseDeCalculoFinal.compareTo(BigDecimal.ZERO) < 0) {
-            return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+    private static BigDecimal irrf(BigDecimal baseTributavel, BigDecimal inssDescontado, int numeroDependentes) {
+        if (baseTributavel == null || baseTributavel.signum() <= 0) {
+            return ZERO_2;
         }
+        if (cabeEmCentavos(baseTributavel) && cabeEmCentavos(inssDescontado)) {
+            return Centavos.paraBigDecimal(irrfCentavos(
+                    baseTributavel.movePointRight(2).longValue(),
+                    inssDescontado.movePointRight(2).longValue(),
+                    numeroDependentes));
+        }
+        return IRRF_2025.calcular(baseTributavel, inssDescontado, numeroDependentes);
+    }
 
-        FaixaIrrf faixaAplicavel = TABELA_IRRF_2025.stream()
-                .filter(faixa -> faixa.teto() == null || baseDeCalculoFinal.compareTo(faixa.teto()) <= 0)
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException("Nenhuma faixa de IRRF aplicável encontrada."));
+    /**
+     * Mesmo cálculo de {@link #calcularIrrf(BigDecimal, BigDecimal, int)}, com valores em centavos.
+     */
+    public long calcularIrrfCentavos(long baseTributavelCentavos, long inssDescontadoCentavos, int numeroDependentes) {
+        long inicio = System.nanoTime();
+        try {
+            return irrfCentavos(baseTributavelCentavos, inssDescontadoCentavos, numeroDependentes);
+        } finally {
+            tempoIrrf.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
 
-        BigDecimal impostoBruto = baseDeCalculoFinal.multiply(faixaAplicavel.aliquota());
-        BigDecimal impostoDevido = impostoBruto.subtract(faixaAplicavel.parcelaADeduzir());
+    private static long irrfCentavos(long baseTributavelCentavos, long inssDescontadoCentavos, int numeroDependentes) {
+        return baseTributavelCentavos <= 0 ? 0L
+                : IRRF_2025.calcular(baseTributavelCentavos, inssDescontadoCentavos, numeroDependentes);
+    }
 
-        return impostoDevido.compareTo(BigDecimal.ZERO) > 0
-                ? impostoDevido.setScale(2, RoundingMode.HALF_UP)
-                : BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+    /**
+     * Valores com até duas casas e magnitude segura seguem pelo caminho em centavos (sem exceção nem arredondamento).
+     */
+    private static boolean cabeEmCentavos(BigDecimal valor) {
+        return valor.scale() <= 2 && valor.precision() - valor.scale() <= 15;
     }
 
     private record FaixaInss(BigDecimal teto, BigDecimal aliquota) {}
     private record FaixaIrrf(BigDecimal teto, BigDecimal aliquota, BigDecimal parcelaADeduzir) {}
-}
\ No newline at end of file
+
+    /**
+     * Tabela progressiva do INSS compilada em arrays primitivos.
+     * Para cada faixa guarda o piso (teto da faixa anterior) e a contribuição acumulada de todas as faixas
+     * inferiores, em centavos x milésimos. O cálculo vira uma busca binária e uma multiplicação,
+     * com um único arredondamento no final, como no cálculo faixa a faixa.
+     */
+    private static final class TabelaInss {
+
+        private final long[] tetos;
+        private final long[] pisos;
+        private final long[] aliquotas;
+        private final long[] acumuladoAntes;
+        private final long acumuladoTotal;
+
+        // Mesmas informações em BigDecimal, para bases com mais de duas casas decimais.
+        private final BigDecimal[] tetosExatos;
+        private final BigDecimal[] pisosExatos;
+        private final BigDecimal[] aliquotasExatas;
+        private final BigDecimal[] acumuladoAntesExato;
+        private final BigDecimal acumuladoTotalExato;
+
+        TabelaInss(List<FaixaInss> faixas) {
+            int n = faixas.size();
+            tetos = new long[n];
+            pisos = new long[n];
+            aliquotas = new long[n];
+            acumuladoAntes = new long[n];
+            tetosExatos = new BigDecimal[n];
+            pisosExatos = new BigDecimal[n];
+            aliquotasExatas = new BigDecimal[n];
+            acumuladoAntesExato = new BigDecimal[n];
+
+            long acumulado = 0L;
+            BigDecimal acumuladoExato = BigDecimal.ZERO;
+            long piso = 0L;
+            BigDecimal pisoExato = BigDecimal.ZERO;
+            for (int i = 0; i < n; i++) {
+                FaixaInss faixa = faixas.get(i);
+                tetos[i] = Centavos.exato(faixa.teto());
+                pisos[i] = piso;
+                aliquotas[i] = milesimos(faixa.aliquota());
+                acumuladoAntes[i] = acumulado;
+                tetosExatos[i] = faixa.teto();
+                pisosExatos[i] = pisoExato;
+                aliquotasExatas[i] = faixa.aliquota();
+                acumuladoAntesExato[i] = acumuladoExato;
+
+                acumulado += (tetos[i] - piso) * aliquotas[i];
+                acumuladoExato = acumuladoExato.add(faixa.teto().subtract(pisoExato).multiply(faixa.aliquota()));
+                piso = tetos[i];
+                pisoExato = faixa.teto();
+            }
+            acumuladoTotal = acumulado;
+            acumuladoTotalExato = acumuladoExato;
+        }
+
+        /** Base positiva, em centavos. */
+        long calcular(long base) {
+            int faixa = primeiroTetoMaiorOuIgual(tetos, base);
+            long contribuicao = faixa == tetos.length
+                    ? acumuladoTotal
+                    : acumuladoAntes[faixa] + (base - pisos[faixa]) * aliquotas[faixa];
+            return Centavos.dividirHalfUp(contribuicao, 1000);
+        }
+
+        /** Base positiva com mais de duas casas decimais. */
+        BigDecimal calcular(BigDecimal base) {
+            int faixa = 0;
+            while (faixa < tetosExatos.length && base.compareTo(tetosExatos[faixa]) > 0) {
+                faixa++;
+            }
+            BigDecimal contribuicao = faixa == tetosExatos.length
+                    ? acumuladoTotalExato
+                    : acumuladoAntesExato[faixa].add(base.subtract(pisosExatos[faixa]).multiply(aliquotasExatas[faixa]));
+            return contribuicao.setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+
+    /**
+     * Tabela do IRRF compilada em arrays primitivos: tetos em centavos, alíquotas em milésimos
+     * e parcelas a deduzir em centavos. A última faixa não tem teto ({@link Long#MAX_VALUE}).
+     */
+    private static final class TabelaIrrf {
+
+        private final long[] tetos;
+        private final long[] aliquotas;
+        private final long[] parcelas;
+        private final long deducaoPorDependente;
+
+        private final BigDecimal[] tetosExatos;
+        private final BigDecimal[] aliquotasExatas;
+        private final BigDecimal[] parcelasExatas;
+        private final BigDecimal deducaoPorDependenteExata;
+
+        TabelaIrrf(List<FaixaIrrf> faixas, BigDecimal deducaoPorDependente) {
+            int n = faixas.size();
+            tetos = new long[n];
+            aliquotas = new long[n];
+            parcelas = new long[n];
+            tetosExatos = new BigDecimal[n];
+            aliquotasExatas = new BigDecimal[n];
+            parcelasExatas = new BigDecimal[n];
+            for (int i = 0; i < n; i++) {
+                FaixaIrrf faixa = faixas.get(i);
+                tetos[i] = faixa.teto() == null ? Long.MAX_VALUE : Centavos.exato(faixa.teto());
+                aliquotas[i] = milesimos(faixa.aliquota());
+                parcelas[i] = Centavos.exato(faixa.parcelaADeduzir());
+                tetosExatos[i] = faixa.teto();
+                aliquotasExatas[i] = faixa.aliquota();
+                parcelasExatas[i] = faixa.parcelaADeduzir();
+            }
+            this.deducaoPorDependente = Centavos.exato(deducaoPorDependente);
+            this.deducaoPorDependenteExata = deducaoPorDependente;
+        }
+
+        /** Base tributável positiva, em centavos. */
+        long calcular(long baseTributavel, long inssDescontado, int numeroDependentes) {
+            long base = baseTributavel - inssDescontado - Math.multiplyExact(deducaoPorDependente, (long) numeroDependentes);
+            if (base < 0) {
+                return 0L;
+            }
+            int faixa = primeiroTetoMaiorOuIgual(tetos, base);
+            long impostoDevido = Math.multiplyExact(base, aliquotas[faixa]) - parcelas[faixa] * 1000;
+            return impostoDevido > 0 ? Centavos.dividirHalfUp(impostoDevido, 1000) : 0L;
+        }
+
+        /** Base tributável positiva com mais de duas casas decimais. */
+        BigDecimal calcular(BigDecimal baseTributavel, BigDecimal inssDescontado, int numeroDependentes) {
+            BigDecimal base = baseTributavel.subtract(inssDescontado)
+                    .subtract(deducaoPorDependenteExata.multiply(BigDecimal.valueOf(numeroDependentes)));
+            if (base.signum() < 0) {
+                return ZERO_2;
+            }
+            int faixa = 0;
+            while (tetosExatos[faixa] != null && base.compareTo(tetosExatos[faixa]) > 0) {
+                faixa++;
+            }
+            BigDecimal impostoDevido = base.multiply(aliquotasExatas[faixa]).subtract(parcelasExatas[faixa]);
+            return impostoDevido.signum() > 0 ? impostoDevido.setScale(2, RoundingMode.HALF_UP) : ZERO_2;
+        }
+    }
+
+    /**
+     * Índice da primeira faixa cujo teto é maior ou igual ao valor ({@code tetos.length} se nenhuma).
+     */
+    private static int primeiroTetoMaiorOuIgual(long[] tetos, long valor) {
+        int indice = Arrays.binarySearch(tetos, valor);
+        return indice >= 0 ? indice : -(indice + 1);
+    }
+
+    private static long milesimos(BigDecimal aliquota) {
+        return aliquota.movePointRight(3).longValueExact();
+    }
+}
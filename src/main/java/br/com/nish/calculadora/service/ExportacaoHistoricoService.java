@@ -0,0 +1,151 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.dto.BuscaHistoricoFiltro;
+import br.com.nish.calculadora.dto.CalculoRescisaoExportacao;
+import br.com.nish.calculadora.model.CalculoRescisaoJdbcRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Exportação do histórico inteiro (ou filtrado) em CSV ou NDJSON, escrita na resposta à medida que é lida.
+ * <p>
+ * As linhas vêm de um cursor JDBC somente-avanço, {@code rescisao.exportacao-historico.fetch-size} por vez, numa
+ * transação somente leitura; cada linha é escrita e descartada. A memória usada é a mesma para 100 ou 10 milhões
+ * de cálculos, e não há consulta de contagem nem paginação.
+ */
+@Service
+public class ExportacaoHistoricoService {
+
+    public enum Formato { CSV, NDJSON }
+
+    private static final String CABECALHO_CSV = "id,nome_empregado,tipo_rescisao,salario_mensal,data_admissao,"
+            + "data_desligamento,aviso_indenizado,total_bruto,total_descontos,total_liquido,pagamento_ate,criado_em";
+
+    private final CalculoRescisaoJdbcRepository calculoRescisaoJdbcRepository;
+    private final ObjectWriter jsonWriter;
+    private final MeterRegistry meterRegistry;
+    private final int fetchSize;
+
+    public ExportacaoHistoricoService(
+            CalculoRescisaoJdbcRepository calculoRescisaoJdbcRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${rescisao.exportacao-historico.fetch-size:1000}") int fetchSize
+    ) {
+        this.calculoRescisaoJdbcRepository = calculoRescisaoJdbcRepository;
+        // Sem flush a cada linha (o buffer do gerador é esvaziado quando enche e no fim) e sem o espaço que o Jackson
+        // põe entre valores: o separador é a quebra de linha escrita após cada um.
+        this.jsonWriter = objectMapper.writerFor(CalculoRescisaoExportacao.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+        this.meterRegistry = meterRegistry;
+        this.fetchSize = Math.max(1, fetchSize);
+    }
+
+    /**
+     * Escreve na saída os cálculos do usuário que atendem aos filtros, em ordem de desligamento e id.
+     *
+     * @return quantidade de cálculos exportados
+     */
+    @Transactional(readOnly = true)
+    public long exportar(Long usuarioId, BuscaHistoricoFiltro filtro, Formato formato, OutputStream saida) throws IOException {
+        long inicio = System.nanoTime();
+        try (Stream<CalculoRescisaoExportacao> linhas =
+                     calculoRescisaoJdbcRepository.percorrerParaExportacao(usuarioId, filtro, fetchSize)) {
+            Iterator<CalculoRescisaoExportacao> iterator = linhas.iterator();
+            return formato == Formato.CSV ? escreverCsv(iterator, saida) : escreverNdjson(iterator, saida);
+        } finally {
+            Timer.builder("rescisao.historico.exportacao")
+                    .description("Tempo de exportação do histórico em CSV/NDJSON, da consulta à última linha escrita")
+                    .tag("formato", formato.name())
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static long escreverCsv(Iterator<CalculoRescisaoExportacao> linhas, OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(CABECALHO_CSV);
+        writer.write("\r\n");
+        long quantidade = 0;
+        while (linhas.hasNext()) {
+            CalculoRescisaoExportacao c = linhas.next();
+            writer.write(String.valueOf(c.id()));
+            writer.write(',');
+            writer.write(texto(c.nomeEmpregado()));
+            writer.write(',');
+            writer.write(c.tipoRescisao());
+            writer.write(',');
+            writer.write(valor(c.salarioMensal()));
+            writer.write(',');
+            writer.write(String.valueOf(c.dataAdmissao()));
+            writer.write(',');
+            writer.write(String.valueOf(c.dataDesligamento()));
+            writer.write(',');
+            writer.write(String.valueOf(c.avisoIndenizado()));
+            writer.write(',');
+            writer.write(valor(c.totalBruto()));
+            writer.write(',');
+            writer.write(valor(c.totalDescontos()));
+            writer.write(',');
+            writer.write(valor(c.totalLiquido()));
+            writer.write(',');
+            writer.write(c.pagamentoAte() != null ? c.pagamentoAte().toString() : "");
+            writer.write(',');
+            writer.write(c.criadoEm() != null ? c.criadoEm().toString() : "");
+            writer.write("\r\n");
+            quantidade++;
+        }
+        writer.flush();
+        return quantidade;
+    }
+
+    private long escreverNdjson(Iterator<CalculoRescisaoExportacao> linhas, OutputStream saida) throws IOException {
+        JsonGenerator gerador = jsonWriter.createGenerator(saida);
+        gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long quantidade = 0;
+        while (linhas.hasNext()) {
+            jsonWriter.writeValue(gerador, linhas.next());
+            gerador.writeRaw('\n');
+            quantidade++;
+        }
+        gerador.close();
+        return quantidade;
+    }
+
+    private static String valor(BigDecimal valor) {
+        return valor != null ? valor.toPlainString() : "";
+    }
+
+    /**
+     * Campo de texto do CSV (RFC 4180): entre aspas se tiver vírgula, aspas ou quebra de linha. Um texto que começa
+     * com =, +, - ou @ ganha um apóstrofo na frente, para a planilha não o executar como fórmula.
+     */
+    static String texto(String valor) {
+        if (valor == null || valor.isEmpty()) {
+            return "";
+        }
+        String texto = "=+-@\t\r".indexOf(valor.charAt(0)) >= 0 ? "'" + valor : valor;
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+}
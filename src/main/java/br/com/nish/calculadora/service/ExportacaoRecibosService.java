@@ -0,0 +1,284 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.dto.ExportacaoRecibosRequest;
+import br.com.nish.calculadora.model.CalculoRescisao;
+import br.com.nish.calculadora.model.CalculoRescisaoJdbcRepository;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfCopy;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.PdfWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Exportação de vários recibos de uma vez: um ZIP com um PDF por cálculo ou um único PDF com todas as páginas.
+ * <p>
+ * Os cálculos são lidos em páginas, renderizados em paralelo no pool de recibos e escritos na saída na ordem
+ * de id, à medida que ficam prontos. No máximo {@code rescisao.exportacao.max-em-andamento} recibos ficam
+ * em memória ao mesmo tempo, qualquer que seja o tamanho da exportação.
+ * <p>
+ * O cache de recibos só é lido: um recibo que não está lá é renderizado à parte e descartado depois de escrito, para
+ * que uma exportação grande não tire do cache os recibos consultados um a um nem regrave o diretório do disco.
+ */
+@Service
+public class ExportacaoRecibosService {
+
+    private static final int TAMANHO_INICIAL_BUFFER = 8 * 1024;
+
+    private final CalculoRescisaoJdbcRepository calculoRescisaoJdbcRepository;
+    private final ReciboPdfCache reciboPdfCache;
+    private final PdfGenerationService pdfGenerationService;
+    private final AsyncTaskExecutor reciboExecutor;
+    private final int tamanhoPagina;
+    private final int maxEmAndamento;
+
+    public ExportacaoRecibosService(
+            CalculoRescisaoJdbcRepository calculoRescisaoJdbcRepository,
+            ReciboPdfCache reciboPdfCache,
+            PdfGenerationService pdfGenerationService,
+            @Qualifier("reciboExecutor") AsyncTaskExecutor reciboExecutor,
+            @Value("${rescisao.exportacao.tamanho-pagina:200}") int tamanhoPagina,
+            @Value("${rescisao.exportacao.max-em-andamento:16}") int maxEmAndamento
+    ) {
+        this.calculoRescisaoJdbcRepository = calculoRescisaoJdbcRepository;
+        this.reciboPdfCache = reciboPdfCache;
+        this.pdfGenerationService = pdfGenerationService;
+        this.reciboExecutor = reciboExecutor;
+        this.tamanhoPagina = Math.max(1, tamanhoPagina);
+        this.maxEmAndamento = Math.max(1, maxEmAndamento);
+    }
+
+    /**
+     * Escreve a exportação na saída. Ids inexistentes ou de outros usuários são ignorados.
+     */
+    public void exportar(Long usuarioId, ExportacaoRecibosRequest request, OutputStream saida) throws IOException {
+        Iterator<CalculoRescisao> calculos = new Paginador(usuarioId, request);
+        if (request.getFormato() == ExportacaoRecibosRequest.Formato.PDF) {
+            exportarPdf(calculos, saida);
+        } else {
+            exportarZip(calculos, saida);
+        }
+    }
+
+    private void exportarZip(Iterator<CalculoRescisao> calculos, OutputStream saida) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(saida);
+        // O conteúdo dos PDFs já é comprimido; compressão rápida é suficiente.
+        zip.setLevel(Deflater.BEST_SPEED);
+        renderizarEmOrdem(calculos, (calculo, recibo) -> {
+            zip.putNextEntry(new ZipEntry("recibo_rescisao_" + calculo.getId() + ".pdf"));
+            recibo.escreverEm(zip);
+            zip.closeEntry();
+        });
+        zip.finish();
+        zip.flush();
+    }
+
+    private void exportarPdf(Iterator<CalculoRescisao> calculos, OutputStream saida) throws IOException {
+        PdfConsolidado consolidado = new PdfConsolidado(saida);
+        renderizarEmOrdem(calculos, consolidado);
+        consolidado.fechar();
+    }
+
+    /**
+     * Renderiza em paralelo e entrega os recibos na ordem dos cálculos, com uma janela limitada de tarefas.
+     */
+    private void renderizarEmOrdem(Iterator<CalculoRescisao> calculos, Destino destino) throws IOException {
+        Deque<Pendente> janela = new ArrayDeque<>(maxEmAndamento);
+        try {
+            while (calculos.hasNext()) {
+                CalculoRescisao calculo = calculos.next();
+                janela.addLast(new Pendente(calculo, reciboExecutor.submit(() -> recibo(calculo))));
+                if (janela.size() >= maxEmAndamento) {
+                    entregar(janela.removeFirst(), destino);
+                }
+            }
+            while (!janela.isEmpty()) {
+                entregar(janela.removeFirst(), destino);
+            }
+        } finally {
+            janela.forEach(p -> p.recibo().cancel(true));
+        }
+    }
+
+    /**
+     * Recibo do cache, se já estiver lá; senão renderizado em um buffer próprio, sem entrar no cache.
+     */
+    private ReciboPdf recibo(CalculoRescisao calculo) throws IOException {
+        ReciboPdf guardado = reciboPdfCache.consultar(calculo);
+        if (guardado != null) {
+            return guardado;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(TAMANHO_INICIAL_BUFFER);
+        try {
+            pdfGenerationService.escreverReciboRescisao(calculo, out);
+        } catch (DocumentException e) {
+            throw new IOException("Falha ao gerar o recibo do cálculo " + calculo.getId(), e);
+        }
+        return new ReciboPdf(ByteBuffer.wrap(out.toByteArray()), ReciboPdf.Origem.RENDERIZADO);
+    }
+
+    private void entregar(Pendente pendente, Destino destino) throws IOException {
+        ReciboPdf recibo;
+        try {
+            recibo = pendente.recibo().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Exportação de recibos interrompida");
+        } catch (ExecutionException e) {
+            throw new IOException("Falha ao gerar o recibo do cálculo " + pendente.calculo().getId(), e.getCause());
+        }
+        destino.escrever(pendente.calculo(), recibo);
+    }
+
+    /**
+     * PDF único com as páginas de todos os recibos (PdfCopy). O documento só é aberto no primeiro recibo,
+     * para que uma exportação vazia ainda gere um PDF válido.
+     */
+    private static final class PdfConsolidado implements Destino {
+
+        private final OutputStream saida;
+        private final Document documento = new Document(PageSize.A4);
+        private PdfCopy copia;
+
+        PdfConsolidado(OutputStream saida) {
+            this.saida = saida;
+        }
+
+        @Override
+        public void escrever(CalculoRescisao calculo, ReciboPdf recibo) throws IOException {
+            PdfReader reader = new PdfReader(recibo.bytes());
+            try {
+                if (copia == null) {
+                    copia = new PdfCopy(documento, saida);
+                    copia.setCloseStream(false);
+                    documento.open();
+                }
+                for (int i = 1; i <= reader.getNumberOfPages(); i++) {
+                    copia.addPage(copia.getImportedPage(reader, i));
+                }
+                copia.freeReader(reader);
+                copia.flush();
+            } catch (DocumentException e) {
+                throw new IOException("Falha ao anexar o recibo do cálculo " + calculo.getId(), e);
+            } finally {
+                reader.close();
+            }
+        }
+
+        void fechar() throws IOException {
+            if (copia != null) {
+                documento.close();
+                return;
+            }
+            try {
+                PdfWriter writer = PdfWriter.getInstance(documento, saida);
+                writer.setCloseStream(false);
+                documento.open();
+                documento.add(new Paragraph("Nenhum recibo encontrado para os critérios informados."));
+                documento.close();
+            } catch (DocumentException e) {
+                throw new IOException("Falha ao gerar o PDF da exportação", e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Destino {
+        void escrever(CalculoRescisao calculo, ReciboPdf recibo) throws IOException;
+    }
+
+    private record Pendente(CalculoRescisao calculo, Future<ReciboPdf> recibo) {}
+
+    /**
+     * Percorre os cálculos da exportação carregando uma página por vez (blocos de ids ou keyset por id).
+     */
+    private final class Paginador implements Iterator<CalculoRescisao> {
+
+        private final Long usuarioId;
+        private final ExportacaoRecibosRequest request;
+        private final Iterator<List<Long>> blocosDeIds;
+        private Iterator<CalculoRescisao> pagina = List.<CalculoRescisao>of().iterator();
+        private long ultimoId = 0;
+        private boolean fim;
+
+        Paginador(Long usuarioId, ExportacaoRecibosRequest request) {
+            this.usuarioId = usuarioId;
+            this.request = request;
+            this.blocosDeIds = request.getIds() == null ? null : blocos(new TreeSet<>(request.getIds()));
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!pagina.hasNext() && !fim) {
+                List<CalculoRescisao> proxima = carregar();
+                pagina = proxima.iterator();
+            }
+            return pagina.hasNext();
+        }
+
+        @Override
+        public CalculoRescisao next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return pagina.next();
+        }
+
+        private List<CalculoRescisao> carregar() {
+            if (blocosDeIds != null) {
+                if (!blocosDeIds.hasNext()) {
+                    fim = true;
+                    return List.of();
+                }
+                return calculoRescisaoJdbcRepository.buscarPorIds(usuarioId, blocosDeIds.next());
+            }
+            List<CalculoRescisao> proxima = calculoRescisaoJdbcRepository.buscarPorDesligamento(
+                    usuarioId, request.getDesligamentoDe(), request.getDesligamentoAte(), ultimoId, tamanhoPagina);
+            if (proxima.size() < tamanhoPagina) {
+                fim = true;
+            }
+            if (!proxima.isEmpty()) {
+                ultimoId = proxima.get(proxima.size() - 1).getId();
+            }
+            return proxima;
+        }
+
+        private Iterator<List<Long>> blocos(TreeSet<Long> ids) {
+            List<List<Long>> blocos = new ArrayList<>();
+            List<Long> atual = new ArrayList<>(tamanhoPagina);
+            for (Long id : ids) {
+                atual.add(id);
+                if (atual.size() == tamanhoPagina) {
+                    blocos.add(atual);
+                    atual = new ArrayList<>(tamanhoPagina);
+                }
+            }
+            if (!atual.isEmpty()) {
+                blocos.add(atual);
+            }
+            return blocos.iterator();
+        }
+    }
+}
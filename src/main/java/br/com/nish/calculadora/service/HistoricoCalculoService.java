@@ -0,0 +1,323 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.dto.BuscaHistoricoFiltro;
+import br.com.nish.calculadora.dto.CalculoRescisaoResumo;
+import br.com.nish.calculadora.dto.PaginaCursor;
+import br.com.nish.calculadora.model.CalculoRescisao;
+import br.com.nish.calculadora.model.CalculoRescisaoIdAllocator;
+import br.com.nish.calculadora.model.CalculoRescisaoJdbcRepository;
+import br.com.nish.calculadora.model.CalculoRescisaoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+/**
+ * Gravação dos cálculos de /calcular no histórico.
+ * <p>
+ * No modo padrão o cálculo é salvo na própria requisição. Com {@code rescisao.historico.write-behind.enabled=true}
+ * o id é reservado na hora (blocos da sequence) e a linha vai para uma fila limitada; uma thread dedicada grava
+ * o que estiver acumulado em batches JDBC. Com a fila cheia, quem chama grava a própria linha (backpressure,
+ * como o CallerRunsPolicy dos pools). No desligamento a fila é esvaziada antes de o DataSource fechar.
+ * <p>
+ * No modo write-behind a linha pode levar alguns milissegundos para aparecer no histórico. Os ids ainda não gravados
+ * ficam num mapa de pendentes: as leituras por id (detalhe, PDF, exclusão, exportação de recibos) chamam
+ * {@link #aguardarGravacao} antes de consultar o banco e esperam a linha ser gravada, em vez de responder 404 para um
+ * id que o próprio /calcular acabou de devolver. A listagem e a busca do histórico não esperam.
+ * <p>
+ * A leitura do histórico por cursor (keyset em {@code (criado_em, id)}) e a busca filtrada também ficam aqui.
+ */
+@Service
+public class HistoricoCalculoService {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoricoCalculoService.class);
+    private static final long ESPERA_POLL_MS = 200;
+
+    private final CalculoRescisaoRepository calculoRescisaoRepository;
+    private final CalculoRescisaoJdbcRepository calculoRescisaoJdbcRepository;
+    private final CalculoRescisaoIdAllocator idAllocator;
+    private final boolean writeBehind;
+    private final BlockingQueue<CalculoRescisao> fila;
+    // Linhas aceitas pelo write-behind e ainda não gravadas (na fila ou no batch em andamento), por id.
+    private final ConcurrentMap<Long, Pendente> pendentes = new ConcurrentHashMap<>();
+    private final int tamanhoBatch;
+    private final Duration esperaFilaCheia;
+    private final Duration timeoutEncerramento;
+    private final Duration esperaLeitura;
+    private final Counter descartados;
+    private final Timer gravacaoSincrona;
+    private final Timer gravacaoEmFila;
+    private final Timer gravacaoNaRequisicao;
+    private final DistributionSummary linhasPorBatch;
+
+    private volatile boolean aceitando = true;
+    private Thread gravador;
+
+    public HistoricoCalculoService(
+            CalculoRescisaoRepository calculoRescisaoRepository,
+            CalculoRescisaoJdbcRepository calculoRescisaoJdbcRepository,
+            CalculoRescisaoIdAllocator idAllocator,
+            MeterRegistry meterRegistry,
+            @Value("${rescisao.historico.write-behind.enabled:false}") boolean writeBehind,
+            @Value("${rescisao.historico.write-behind.capacidade:10000}") int capacidade,
+            @Value("${rescisao.historico.write-behind.tamanho-batch:500}") int tamanhoBatch,
+            @Value("${rescisao.historico.write-behind.espera-fila-cheia:20ms}") Duration esperaFilaCheia,
+            @Value("${rescisao.historico.write-behind.timeout-encerramento:30s}") Duration timeoutEncerramento,
+            @Value("${rescisao.historico.write-behind.espera-leitura:5s}") Duration esperaLeitura
+    ) {
+        this.calculoRescisaoRepository = calculoRescisaoRepository;
+        this.calculoRescisaoJdbcRepository = calculoRescisaoJdbcRepository;
+        this.idAllocator = idAllocator;
+        this.writeBehind = writeBehind;
+        this.fila = new ArrayBlockingQueue<>(Math.max(1, capacidade));
+        this.tamanhoBatch = Math.max(1, tamanhoBatch);
+        this.esperaFilaCheia = esperaFilaCheia;
+        this.timeoutEncerramento = timeoutEncerramento;
+        this.esperaLeitura = esperaLeitura;
+        this.descartados = meterRegistry.counter("rescisao.historico.descartados");
+        meterRegistry.gauge("rescisao.historico.fila", fila, BlockingQueue::size);
+        this.gravacaoSincrona = tempoGravacao(meterRegistry, "sincrono");
+        this.gravacaoEmFila = tempoGravacao(meterRegistry, "fila");
+        this.gravacaoNaRequisicao = tempoGravacao(meterRegistry, "requisicao");
+        this.linhasPorBatch = DistributionSummary.builder("rescisao.historico.batch")
+                .description("Linhas gravadas por batch do write-behind")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tempo que a requisição gasta para registrar o cálculo: insert síncrono, entrada na fila ou,
+     * com a fila cheia, o insert feito pela própria requisição.
+     */
+    private static Timer tempoGravacao(MeterRegistry meterRegistry, String modo) {
+        return Timer.builder("rescisao.historico.gravacao")
+                .description("Tempo de registro do cálculo no histórico, do ponto de vista da requisição")
+                .tag("modo", modo)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (writeBehind) {
+            gravador = new Thread(this::gravarContinuamente, "historico-write-behind");
+            gravador.setDaemon(true);
+            gravador.start();
+        }
+    }
+
+    /**
+     * Registra o cálculo no histórico e devolve o id atribuído.
+     */
+    public Long registrar(CalculoRescisao calculo) {
+        long inicio = System.nanoTime();
+        Timer tempo = gravacaoSincrona;
+        try {
+            if (!writeBehind) {
+                return calculoRescisaoRepository.save(calculo).getId();
+            }
+
+            calculo.setId(idAllocator.proximoId());
+            // Pendente antes de entrar na fila: a thread de gravação pode concluí-lo logo em seguida.
+            pendentes.put(calculo.getId(), new Pendente(calculo.getUsuarioId(), new CompletableFuture<>()));
+            tempo = gravacaoEmFila;
+            if (!aceitando || !enfileirar(calculo)) {
+                tempo = gravacaoNaRequisicao;
+                try {
+                    calculoRescisaoJdbcRepository.inserirEmLoteComId(List.of(calculo));
+                } finally {
+                    concluir(calculo);
+                }
+            }
+            return calculo.getId();
+        } finally {
+            tempo.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Espera a gravação dos cálculos do usuário ainda pendentes no write-behind entre os ids informados ({@code null}:
+     * todos os pendentes do usuário), por até {@code rescisao.historico.write-behind.espera-leitura}. Sem write-behind,
+     * ou sem nada pendente, retorna na hora.
+     */
+    public void aguardarGravacao(Long usuarioId, Collection<Long> ids) {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        CompletableFuture<?>[] gravacoes = (ids != null
+                ? ids.stream().map(pendentes::get).filter(Objects::nonNull)
+                : pendentes.values().stream())
+                .filter(p -> Objects.equals(p.usuarioId(), usuarioId))
+                .map(Pendente::gravado)
+                .toArray(CompletableFuture<?>[]::new);
+        if (gravacoes.length == 0) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(gravacoes).get(esperaLeitura.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("{} cálculos do usuário {} ainda não gravados após {}", gravacoes.length, usuarioId, esperaLeitura);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Não acontece: as gravações só são concluídas normalmente, com ou sem sucesso no insert.
+        }
+    }
+
+    /**
+     * Página do histórico do usuário (resumos), do mais recente para o mais antigo, a partir do cursor (nulo na primeira).
+     * Busca uma linha a mais só para saber se existe próxima página.
+     *
+     * @throws IllegalArgumentException se o cursor for inválido
+     */
+    public PaginaCursor<CalculoRescisaoResumo> listarPorCursor(Long usuarioId, String cursor, int tamanho) {
+        Limit limite = Limit.of(tamanho + 1);
+        List<CalculoRescisaoResumo> linhas;
+        if (cursor == null || cursor.isBlank()) {
+            linhas = calculoRescisaoRepository.findPrimeiraPaginaHistorico(usuarioId, limite);
+        } else {
+            CursorHistorico posicao = CursorHistorico.decodificar(cursor);
+            linhas = calculoRescisaoRepository.findPaginaHistoricoApos(usuarioId, posicao.criadoEm(), posicao.id(), limite);
+        }
+
+        if (linhas.size() <= tamanho) {
+            return new PaginaCursor<>(linhas, null);
+        }
+        List<CalculoRescisaoResumo> itens = linhas.subList(0, tamanho);
+        CalculoRescisaoResumo ultimo = itens.get(tamanho - 1);
+        return new PaginaCursor<>(itens, new CursorHistorico(ultimo.criadoEm(), ultimo.id()).codificar());
+    }
+
+    /**
+     * Página da busca filtrada no histórico do usuário, do desligamento mais recente para o mais antigo, a partir do
+     * cursor (nulo na primeira). Busca uma linha a mais só para saber se existe próxima página.
+     *
+     * @throws IllegalArgumentException se o cursor for inválido
+     */
+    public PaginaCursor<CalculoRescisaoResumo> buscar(Long usuarioId, BuscaHistoricoFiltro filtro, String cursor, int tamanho) {
+        CursorBusca posicao = cursor == null || cursor.isBlank() ? null : CursorBusca.decodificar(cursor);
+        List<CalculoRescisaoResumo> linhas = calculoRescisaoJdbcRepository.buscarResumos(usuarioId, filtro,
+                posicao != null ? posicao.dataDesligamento() : null, posicao != null ? posicao.id() : null, tamanho + 1);
+
+        if (linhas.size() <= tamanho) {
+            return new PaginaCursor<>(linhas, null);
+        }
+        List<CalculoRescisaoResumo> itens = linhas.subList(0, tamanho);
+        CalculoRescisaoResumo ultimo = itens.get(tamanho - 1);
+        return new PaginaCursor<>(itens, new CursorBusca(ultimo.dataDesligamento(), ultimo.id()).codificar());
+    }
+
+    /**
+     * Para de aceitar novas linhas e espera a thread gravar o que resta na fila.
+     * Roda depois que o servidor web parou de receber requisições e antes de o DataSource fechar.
+     */
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        aceitando = false;
+        if (gravador != null) {
+            gravador.join(timeoutEncerramento.toMillis());
+            if (gravador.isAlive()) {
+                log.warn("Write-behind do histórico não terminou em {}; {} cálculos ainda na fila", timeoutEncerramento, fila.size());
+                return;
+            }
+        }
+        // Linhas que entraram depois da última passada da thread.
+        List<CalculoRescisao> restantes = new ArrayList<>();
+        fila.drainTo(restantes);
+        gravar(restantes);
+    }
+
+    private boolean enfileirar(CalculoRescisao calculo) {
+        try {
+            return fila.offer(calculo, esperaFilaCheia.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void gravarContinuamente() {
+        List<CalculoRescisao> lote = new ArrayList<>(tamanhoBatch);
+        while (aceitando || !fila.isEmpty()) {
+            try {
+                CalculoRescisao primeiro = fila.poll(ESPERA_POLL_MS, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                // Tudo o que acumulou enquanto o batch anterior era gravado vai no mesmo batch.
+                lote.add(primeiro);
+                fila.drainTo(lote, tamanhoBatch - 1);
+                gravar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Erro inesperado no write-behind do histórico", e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Grava o batch; se falhar, tenta linha a linha para não perder as linhas válidas por causa de uma só.
+     */
+    private void gravar(List<CalculoRescisao> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        linhasPorBatch.record(lote.size());
+        try {
+            gravarLote(lote);
+        } finally {
+            // Com ou sem sucesso: quem espera não fica preso a uma linha descartada.
+            lote.forEach(this::concluir);
+        }
+    }
+
+    private void gravarLote(List<CalculoRescisao> lote) {
+        try {
+            calculoRescisaoJdbcRepository.inserirEmLoteComId(lote);
+            return;
+        } catch (DataAccessException e) {
+            log.warn("Falha ao gravar batch de {} cálculos do histórico; gravando um a um", lote.size(), e);
+        }
+        for (CalculoRescisao calculo : lote) {
+            try {
+                calculoRescisaoJdbcRepository.inserirEmLoteComId(List.of(calculo));
+            } catch (DataAccessException e) {
+                descartados.increment();
+                log.error("Cálculo {} do usuário {} não foi gravado no histórico", calculo.getId(), calculo.getUsuarioId(), e);
+            }
+        }
+    }
+
+    private void concluir(CalculoRescisao calculo) {
+        Pendente pendente = pendentes.remove(calculo.getId());
+        if (pendente != null) {
+            pendente.gravado().complete(null);
+        }
+    }
+
+    private record Pendente(Long usuarioId, CompletableFuture<Void> gravado) {}
+}
@@ -0,0 +1,95 @@
+package br.com.nish.calculadora.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converte linhas de arquivos de importação (NDJSON ou CSV com cabeçalho) em objetos.
+ * No CSV, o cabeçalho traz os nomes dos campos do DTO e a conversão de tipos fica a cargo do Jackson.
+ */
+@Component
+public class LinhaImportacaoParser {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final ObjectMapper objectMapper;
+
+    public LinhaImportacaoParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean isCsv(MediaType contentType) {
+        return contentType != null && TEXT_CSV.isCompatibleWith(contentType);
+    }
+
+    /**
+     * Lê o cabeçalho do CSV.
+     */
+    public List<String> lerCabecalho(String linha) {
+        List<String> campos = dividirCsv(linha);
+        campos.replaceAll(String::trim);
+        return campos;
+    }
+
+    public <T> T converterJson(String linha, Class<T> tipo) throws JsonProcessingException {
+        return objectMapper.readValue(linha, tipo);
+    }
+
+    /**
+     * Converte uma linha do CSV usando o cabeçalho. Células vazias são ignoradas (valor padrão do DTO).
+     *
+     * @throws IllegalArgumentException se a quantidade de colunas não bater ou algum valor for inválido
+     */
+    public <T> T converterCsv(String linha, List<String> cabecalho, Class<T> tipo) {
+        List<String> valores = dividirCsv(linha);
+        if (valores.size() != cabecalho.size()) {
+            throw new IllegalArgumentException("Esperadas " + cabecalho.size() + " colunas, encontradas " + valores.size());
+        }
+        Map<String, String> campos = new LinkedHashMap<>();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            String valor = valores.get(i).trim();
+            if (!valor.isEmpty()) {
+                campos.put(cabecalho.get(i), valor);
+            }
+        }
+        return objectMapper.convertValue(campos, tipo);
+    }
+
+    /**
+     * Divide uma linha CSV separada por vírgulas, respeitando campos entre aspas duplas ("" escapa a aspa).
+     */
+    static List<String> dividirCsv(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+}
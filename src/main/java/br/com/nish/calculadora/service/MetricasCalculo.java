@@ -0,0 +1,35 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.dto.CalculoRescisaoResponse;
+import br.com.nish.calculadora.dto.TipoRescisao;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Timers {@code rescisao.calculo} de um motor, um por {@link TipoRescisao}, com histograma para percentis.
+ * A contagem de cada timer é o número de cálculos daquele tipo.
+ */
+final class MetricasCalculo {
+
+    private final Map<TipoRescisao, Timer> porTipo = new EnumMap<>(TipoRescisao.class);
+
+    MetricasCalculo(MeterRegistry meterRegistry, String motor) {
+        for (TipoRescisao tipo : TipoRescisao.values()) {
+            porTipo.put(tipo, Timer.builder("rescisao.calculo")
+                    .description("Tempo do motor de cálculo por tipo de rescisão")
+                    .tag("motor", motor)
+                    .tag("tipo", tipo.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    CalculoRescisaoResponse medir(TipoRescisao tipo, Supplier<CalculoRescisaoResponse> calculo) {
+        // Sem tipo a validação do motor falha logo; não há o que medir.
+        Timer timer = tipo == null ? null : porTipo.get(tipo);
+        return timer == null ? calculo.get() : timer.record(calculo);
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.dto.CalculoRescisaoRequest;
+import br.com.nish.calculadora.dto.CalculoRescisaoResponse;
+
+/**
+ * Contrato dos motores de cálculo de rescisão.
+ * O motor ativo é escolhido pela propriedade {@code rescisao.calculo.motor} ({@code bigdecimal} ou {@code centavos}).
+ */
+public interface MotorCalculoRescisao {
+
+    CalculoRescisaoResponse calcular(CalculoRescisaoRequest req);
+}
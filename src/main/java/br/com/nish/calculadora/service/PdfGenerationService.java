@@ -2,8 +2,6 @@ package br.com.nish.calculadora.service;
 
 import br.com.nish.calculadora.dto.Componente;
 import br.com.nish.calculadora.model.CalculoRescisao;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lowagie.text.Document;
 import com.lowagie.text.DocumentException;
 import com.lowagie.text.Font;
@@ -13,49 +11,101 @@ import com.lowagie.text.Phrase;
 import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 import org.springframework.stereotype.Service;
 
+/**
+ * Geração do recibo de rescisão em PDF. Cada renderização é medida em {@code recibos.pdf.geracao} (tempo)
+ * e {@code recibos.pdf.tamanho} (bytes do documento).
+ */
 @Service
 public class PdfGenerationService {
 
-    private final ObjectMapper objectMapper;
-
-    public PdfGenerationService(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+    /**
+     * Versão do layout do recibo. Entra na impressão digital dos PDFs guardados pelo {@link ReciboPdfCache}:
+     * incremente a cada mudança no conteúdo ou na aparência do recibo, para que os PDFs antigos não sejam mais servidos.
+     */
+    public static final int VERSAO_LAYOUT = 1;
+
+    // Fontes e formatadores montados uma única vez (as fontes só são lidas durante a renderização).
+    private static final Font FONTE_TITULO = new Font(Font.HELVETICA, 18, Font.BOLD);
+    private static final Font FONTE_SECAO = new Font(Font.HELVETICA, 14, Font.BOLD);
+    private static final Font FONTE_NEGRITO = new Font(Font.HELVETICA, 12, Font.BOLD);
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    // NumberFormat não é thread-safe: uma instância por thread.
+    private static final ThreadLocal<NumberFormat> MOEDA =
+            ThreadLocal.withInitial(() -> NumberFormat.getCurrencyInstance(new Locale("pt", "BR")));
+
+    private final Timer tempoGeracao;
+    private final DistributionSummary tamanhoPdf;
+
+    public PdfGenerationService(MeterRegistry meterRegistry) {
+        this.tempoGeracao = Timer.builder("recibos.pdf.geracao")
+                .description("Tempo de renderização de um recibo em PDF")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.tamanhoPdf = DistributionSummary.builder("recibos.pdf.tamanho")
+                .description("Tamanho dos recibos em PDF gerados")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     public ByteArrayInputStream gerarReciboRescisao(CalculoRescisao calculo) throws IOException, DocumentException {
         // Usa um fluxo de bytes em memória para construir o PDF
         ByteArrayOutputStream out = new ByteArrayOutputStream();
+        escreverReciboRescisao(calculo, out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    /**
+     * Renderiza o recibo direto na saída informada (ex.: a resposta HTTP), sem montar o PDF em memória.
+     * A saída não é fechada.
+     */
+    public void escreverReciboRescisao(CalculoRescisao calculo, OutputStream out) throws IOException, DocumentException {
+        long inicio = System.nanoTime();
+        SaidaContada contada = new SaidaContada(out);
+        try {
+            renderizar(calculo, contada);
+            tamanhoPdf.record(contada.bytes);
+        } finally {
+            tempoGeracao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void renderizar(CalculoRescisao calculo, OutputStream out) throws IOException, DocumentException {
         Document document = new Document(PageSize.A4);
-        PdfWriter.getInstance(document, out);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
 
         document.open();
 
         // --- Título ---
-        Font fontTitulo = new Font(Font.HELVETICA, 18, Font.BOLD);
-        Paragraph titulo = new Paragraph("Termo de Rescisão do Contrato de Trabalho", fontTitulo);
+        Paragraph titulo = new Paragraph("Termo de Rescisão do Contrato de Trabalho", FONTE_TITULO);
         titulo.setAlignment(Paragraph.ALIGN_CENTER);
         document.add(titulo);
         document.add(new Paragraph(" ")); // Linha em branco
 
         // --- Dados do Cálculo ---
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
         document.add(new Paragraph("Nome do Empregado: " + (calculo.getNomeEmpregado() != null ? calculo.getNomeEmpregado() : "N/A")));
-        document.add(new Paragraph("Data de Admissão: " + calculo.getDataAdmissao().format(formatter)));
-        document.add(new Paragraph("Data de Desligamento: " + calculo.getDataDesligamento().format(formatter)));
+        document.add(new Paragraph("Data de Admissão: " + calculo.getDataAdmissao().format(FORMATO_DATA)));
+        document.add(new Paragraph("Data de Desligamento: " + calculo.getDataDesligamento().format(FORMATO_DATA)));
         document.add(new Paragraph(" "));
 
         // --- Tabela de Verbas Rescisórias (Proventos) ---
-        document.add(new Paragraph("Verbas Rescisórias (Proventos)", new Font(Font.HELVETICA, 14, Font.BOLD)));
+        document.add(new Paragraph("Verbas Rescisórias (Proventos)", FONTE_SECAO));
         document.add(new Paragraph(" "));
 
         PdfPTable table = new PdfPTable(2);
@@ -63,19 +113,17 @@ public class PdfGenerationService {
         table.setWidths(new int[]{3, 1});
 
         // Cabeçalho da tabela
-        Font headFont = new Font(Font.HELVETICA, 12, Font.BOLD);
         PdfPCell hcell;
-        hcell = new PdfPCell(new Phrase("Descrição", headFont));
+        hcell = new PdfPCell(new Phrase("Descrição", FONTE_NEGRITO));
         hcell.setHorizontalAlignment(PdfPCell.ALIGN_CENTER);
         table.addCell(hcell);
 
-        hcell = new PdfPCell(new Phrase("Valor (R$)", headFont));
+        hcell = new PdfPCell(new Phrase("Valor (R$)", FONTE_NEGRITO));
         hcell.setHorizontalAlignment(PdfPCell.ALIGN_CENTER);
         table.addCell(hcell);
 
         // Corpo da tabela
-        List<Componente> componentes = objectMapper.readValue(calculo.getComponentesJson(), new TypeReference<>() {});
-        for (Componente comp : componentes) {
+        for (Componente comp : calculo.getComponentes()) {
             table.addCell(comp.getNome());
             PdfPCell valorCell = new PdfPCell(new Phrase(formatCurrency(comp.getValor())));
             valorCell.setHorizontalAlignment(PdfPCell.ALIGN_RIGHT);
@@ -88,16 +136,38 @@ public class PdfGenerationService {
         document.add(new Paragraph("Total Bruto: " + formatCurrency(calculo.getTotalBruto())));
         document.add(new Paragraph("Total de Descontos: " + formatCurrency(calculo.getTotalDescontos())));
 
-        Paragraph totalLiquido = new Paragraph("Total Líquido a Receber: " + formatCurrency(calculo.getTotalLiquido()), new Font(Font.HELVETICA, 12, Font.BOLD));
+        Paragraph totalLiquido = new Paragraph("Total Líquido a Receber: " + formatCurrency(calculo.getTotalLiquido()), FONTE_NEGRITO);
         totalLiquido.setAlignment(Paragraph.ALIGN_RIGHT);
         document.add(totalLiquido);
 
         document.close();
-        return new ByteArrayInputStream(out.toByteArray());
     }
 
     private String formatCurrency(BigDecimal value) {
-        Locale ptBr = new Locale("pt", "BR");
-        return NumberFormat.getCurrencyInstance(ptBr).format(value);
+        return MOEDA.get().format(value);
+    }
+
+    /**
+     * Repassa os bytes para a saída real contando o total (o writer não é fechado aqui: setCloseStream(false)).
+     */
+    private static final class SaidaContada extends FilterOutputStream {
+
+        private long bytes;
+
+        SaidaContada(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytes += len;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,233 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.auth.UsuarioJdbcRepository;
+import br.com.nish.calculadora.auth.UsuarioJdbcRepository.NovoUsuario;
+import br.com.nish.calculadora.controller.dto.RegisterRequest;
+import br.com.nish.calculadora.dto.ProvisionamentoResultado;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Provisionamento de usuários em lote (NDJSON ou CSV com os campos do /auth/register), para importações de RH.
+ * <p>
+ * A entrada é lida em blocos de {@code seguranca.provisionamento.tamanho-bloco} linhas. Em cada bloco: a unicidade de
+ * email e username é conferida com uma consulta por campo, os hashes BCrypt são calculados em paralelo no pool
+ * {@code provisionamentoExecutor} (limitado, sem disputar os núcleos dos cálculos) e os usuários e perfis são gravados
+ * em batch, numa transação. Se o batch falhar (ex.: o mesmo email cadastrado por outra via entre a consulta e o
+ * insert), as linhas do bloco são gravadas uma a uma.
+ * Cada linha gera um {@link ProvisionamentoResultado}, escrito na ordem da entrada ao fim de cada bloco.
+ */
+@Service
+public class ProvisionamentoUsuariosService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProvisionamentoUsuariosService.class);
+    private static final String ROLE_PADRAO = "ROLE_USER";
+
+    private final UsuarioJdbcRepository usuarioJdbcRepository;
+    private final LinhaImportacaoParser linhaImportacaoParser;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final Executor provisionamentoExecutor;
+    private final int tamanhoBloco;
+
+    public ProvisionamentoUsuariosService(
+            UsuarioJdbcRepository usuarioJdbcRepository,
+            LinhaImportacaoParser linhaImportacaoParser,
+            Validator validator,
+            ObjectMapper objectMapper,
+            BCryptPasswordEncoder passwordEncoder,
+            @Qualifier("provisionamentoExecutor") Executor provisionamentoExecutor,
+            @Value("${seguranca.provisionamento.tamanho-bloco:500}") int tamanhoBloco
+    ) {
+        this.usuarioJdbcRepository = usuarioJdbcRepository;
+        this.linhaImportacaoParser = linhaImportacaoParser;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.passwordEncoder = passwordEncoder;
+        this.provisionamentoExecutor = provisionamentoExecutor;
+        this.tamanhoBloco = Math.max(1, tamanhoBloco);
+    }
+
+    /**
+     * Lê os usuários da entrada, grava os válidos e escreve um resultado por linha (NDJSON) na saída.
+     */
+    public void processar(InputStream entrada, MediaType contentType, OutputStream saida) throws IOException {
+        boolean csv = linhaImportacaoParser.isCsv(contentType);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        // Emails e usernames já vistos no arquivo: a repetição dentro do próprio arquivo também é erro.
+        Set<String> emailsVistos = new HashSet<>();
+        Set<String> usernamesVistos = new HashSet<>();
+        List<Item> bloco = new ArrayList<>(tamanhoBloco);
+
+        List<String> cabecalho = null;
+        long numeroLinha = 0;
+        String linha;
+        while ((linha = reader.readLine()) != null) {
+            numeroLinha++;
+            if (linha.isBlank()) {
+                continue;
+            }
+            if (csv && cabecalho == null) {
+                cabecalho = linhaImportacaoParser.lerCabecalho(linha);
+                continue;
+            }
+            Item item = converter(numeroLinha, linha, cabecalho);
+            if (item.valido() && !emailsVistos.add(item.request().getEmail())) {
+                item.erro("email: repetido no arquivo");
+            }
+            if (item.valido() && !usernamesVistos.add(item.request().getUsername())) {
+                item.erro("username: repetido no arquivo");
+            }
+            bloco.add(item);
+            if (bloco.size() >= tamanhoBloco) {
+                processarBloco(bloco, saida);
+            }
+        }
+        processarBloco(bloco, saida);
+    }
+
+    private Item converter(long numeroLinha, String linha, List<String> cabecalho) {
+        RegisterRequest request;
+        try {
+            request = cabecalho != null
+                    ? linhaImportacaoParser.converterCsv(linha, cabecalho, RegisterRequest.class)
+                    : linhaImportacaoParser.converterJson(linha, RegisterRequest.class);
+        } catch (JsonProcessingException e) {
+            return new Item(numeroLinha, null).erro("Linha inválida: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            return new Item(numeroLinha, null).erro("Linha inválida: " + e.getMessage());
+        }
+        Item item = new Item(numeroLinha, request);
+        Set<ConstraintViolation<RegisterRequest>> violacoes = validator.validate(request);
+        violacoes.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted(Comparator.naturalOrder())
+                .forEach(item::erro);
+        return item;
+    }
+
+    private void processarBloco(List<Item> bloco, OutputStream saida) throws IOException {
+        if (bloco.isEmpty()) {
+            return;
+        }
+        List<Item> validos = bloco.stream().filter(Item::valido).toList();
+        Set<String> emails = usuarioJdbcRepository.emailsExistentes(validos.stream().map(i -> i.request().getEmail()).toList());
+        Set<String> usernames = usuarioJdbcRepository.usernamesExistentes(validos.stream().map(i -> i.request().getUsername()).toList());
+        for (Item item : validos) {
+            if (emails.contains(item.request().getEmail())) {
+                item.erro("email: já cadastrado");
+            }
+            if (usernames.contains(item.request().getUsername())) {
+                item.erro("username: já cadastrado");
+            }
+        }
+
+        gravar(bloco.stream().filter(Item::valido).toList());
+        for (Item item : bloco) {
+            saida.write(objectMapper.writeValueAsBytes(item.resultado()));
+            saida.write('\n');
+        }
+        saida.flush();
+        bloco.clear();
+    }
+
+    /**
+     * Calcula os hashes em paralelo e grava o bloco em batch; se o batch falhar, grava linha a linha.
+     */
+    private void gravar(List<Item> novos) {
+        if (novos.isEmpty()) {
+            return;
+        }
+        List<CompletableFuture<NovoUsuario>> hashes = novos.stream()
+                .map(i -> CompletableFuture.supplyAsync(() -> novoUsuario(i.request()), provisionamentoExecutor))
+                .toList();
+        List<NovoUsuario> usuarios = hashes.stream().map(CompletableFuture::join).toList();
+
+        try {
+            atribuirIds(novos, usuarioJdbcRepository.inserir(usuarios, ROLE_PADRAO));
+            return;
+        } catch (DataAccessException e) {
+            log.warn("Falha ao gravar bloco de {} usuários; gravando um a um", novos.size(), e);
+        }
+        for (int i = 0; i < novos.size(); i++) {
+            try {
+                atribuirIds(List.of(novos.get(i)), usuarioJdbcRepository.inserir(List.of(usuarios.get(i)), ROLE_PADRAO));
+            } catch (DataAccessException e) {
+                novos.get(i).erro("Falha ao gravar: email ou username já cadastrado");
+            }
+        }
+    }
+
+    private NovoUsuario novoUsuario(RegisterRequest request) {
+        return new NovoUsuario(request.getEmail(), request.getUsername(), request.getNome(),
+                passwordEncoder.encode(request.getSenha()));
+    }
+
+    private static void atribuirIds(List<Item> itens, Map<String, Long> ids) {
+        itens.forEach(i -> i.id = ids.get(i.request().getEmail()));
+    }
+
+    /**
+     * Linha da entrada em processamento: o pedido convertido (nulo se a linha não pôde ser lida) e os erros acumulados.
+     */
+    private static final class Item {
+
+        private final long linha;
+        private final RegisterRequest request;
+        private final List<String> erros = new ArrayList<>();
+        private Long id;
+
+        Item(long linha, RegisterRequest request) {
+            this.linha = linha;
+            this.request = request;
+        }
+
+        RegisterRequest request() {
+            return request;
+        }
+
+        boolean valido() {
+            return request != null && erros.isEmpty();
+        }
+
+        Item erro(String erro) {
+            erros.add(erro);
+            return this;
+        }
+
+        ProvisionamentoResultado resultado() {
+            return ProvisionamentoResultado.builder()
+                    .linha(linha)
+                    .status(erros.isEmpty() ? ProvisionamentoResultado.Status.CRIADO : ProvisionamentoResultado.Status.ERRO)
+                    .email(request != null ? request.getEmail() : null)
+                    .id(erros.isEmpty() ? id : null)
+                    .erros(erros.isEmpty() ? null : erros)
+                    .build();
+        }
+    }
+}
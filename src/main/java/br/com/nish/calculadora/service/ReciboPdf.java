@@ -0,0 +1,51 @@
+package br.com.nish.calculadora.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Recibo em PDF pronto para envio: um buffer em heap (cache em memória) ou mapeado do arquivo (cache em disco).
+ *
+ * @param conteudo bytes do PDF; não deve ser alterado
+ * @param origem   de onde o recibo veio, para as métricas
+ */
+public record ReciboPdf(ByteBuffer conteudo, Origem origem) {
+
+    public enum Origem { MEMORIA, DISCO, RENDERIZADO }
+
+    public long tamanho() {
+        return conteudo.remaining();
+    }
+
+    /**
+     * Conteúdo como array: o próprio array do cache quando ele cobre o PDF inteiro, senão uma cópia.
+     */
+    public byte[] bytes() {
+        ByteBuffer leitura = conteudo.duplicate();
+        if (leitura.hasArray() && leitura.arrayOffset() == 0 && leitura.position() == 0
+                && leitura.remaining() == leitura.array().length) {
+            return leitura.array();
+        }
+        byte[] copia = new byte[leitura.remaining()];
+        leitura.get(copia);
+        return copia;
+    }
+
+    /**
+     * Escreve o PDF na saída sem copiar o conteúdo para um novo array.
+     */
+    public void escreverEm(OutputStream out) throws IOException {
+        ByteBuffer leitura = conteudo.duplicate();
+        if (leitura.hasArray()) {
+            out.write(leitura.array(), leitura.arrayOffset() + leitura.position(), leitura.remaining());
+            return;
+        }
+        WritableByteChannel canal = Channels.newChannel(out);
+        while (leitura.hasRemaining()) {
+            canal.write(leitura);
+        }
+    }
+}
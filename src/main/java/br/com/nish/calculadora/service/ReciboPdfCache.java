@@ -0,0 +1,361 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.model.CalculoRescisao;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.lowagie.text.DocumentException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Cache dos recibos em PDF em dois níveis. Um cálculo salvo nunca muda, então o PDF só é gerado uma vez:
+ * <ul>
+ *   <li>memória: LRU limitado pelo total de bytes ({@code rescisao.pdf.cache.memoria-max});</li>
+ *   <li>disco: um arquivo por cálculo em {@code rescisao.pdf.cache.diretorio}, lido via mmap e também limitado
+ *       em bytes; sobrevive a reinícios (vazio desliga o nível).</li>
+ * </ul>
+ * Cada PDF guardado leva a impressão digital do cálculo que o gerou (id, data de criação, dados impressos e
+ * {@link PdfGenerationService#VERSAO_LAYOUT}), e só é servido para um cálculo com a mesma impressão. Assim um banco
+ * restaurado ou recriado (ids reaproveitados) ou um layout novo nunca recebem um PDF antigo do disco.
+ * <p>
+ * Requisições simultâneas para o mesmo id esperam uma única renderização, feita fora do lock do mapa interno
+ * (como em {@code UsuarioStatusCache}): o mapa só recebe um future vazio, que quem o inseriu completa.
+ */
+@Service
+public class ReciboPdfCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ReciboPdfCache.class);
+    private static final String EXTENSAO = ".pdf";
+    private static final int TAMANHO_INICIAL_BUFFER = 8 * 1024;
+
+    private final PdfGenerationService pdfGenerationService;
+    private final AsyncCache<Long, Renderizado> memoria;
+    private final Cache<Long, Renderizado> disco;
+    private final Path diretorio;
+    private final boolean habilitado;
+    private final Map<ReciboPdf.Origem, Counter> requisicoes = new EnumMap<>(ReciboPdf.Origem.class);
+
+    public ReciboPdfCache(
+            PdfGenerationService pdfGenerationService,
+            MeterRegistry meterRegistry,
+            @Value("${rescisao.pdf.cache.enabled:true}") boolean habilitado,
+            @Value("${rescisao.pdf.cache.memoria-max:64MB}") DataSize memoriaMax,
+            @Value("${rescisao.pdf.cache.diretorio:}") String diretorio,
+            @Value("${rescisao.pdf.cache.disco-max:1GB}") DataSize discoMax
+    ) {
+        this.pdfGenerationService = pdfGenerationService;
+        this.habilitado = habilitado;
+        this.memoria = Caffeine.newBuilder()
+                .maximumWeight(memoriaMax.toBytes())
+                .weigher((Long id, Renderizado pdf) -> pdf.tamanho())
+                .executor(Runnable::run)
+                .buildAsync();
+        this.diretorio = !habilitado || diretorio.isBlank() ? null : Path.of(diretorio);
+        // Índice dos arquivos em disco (só impressão e tamanho, sem o PDF): ao sair do índice (LRU, exclusão do
+        // cálculo ou substituição por um PDF de outra impressão), o arquivo é apagado.
+        this.disco = Caffeine.newBuilder()
+                .maximumWeight(discoMax.toBytes())
+                .weigher((Long id, Renderizado arquivo) -> arquivo.tamanho())
+                .executor(Runnable::run)
+                .removalListener((Long id, Renderizado arquivo, RemovalCause causa) -> {
+                    if (id != null && arquivo != null && (causa != RemovalCause.REPLACED || !indexado(id, arquivo))) {
+                        apagarArquivo(id, arquivo.impressao());
+                    }
+                })
+                .build();
+
+        for (ReciboPdf.Origem origem : ReciboPdf.Origem.values()) {
+            requisicoes.put(origem, Counter.builder("recibos.pdf.requisicoes")
+                    .tag("origem", origem.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("recibos.pdf.cache.bytes", memoria.synchronous(), ReciboPdfCache::bytesEmUso)
+                .tag("nivel", "memoria").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("recibos.pdf.cache.bytes", disco, ReciboPdfCache::bytesEmUso)
+                .tag("nivel", "disco").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("recibos.pdf.cache.entradas", memoria.synchronous(), Cache::estimatedSize)
+                .tag("nivel", "memoria").register(meterRegistry);
+        Gauge.builder("recibos.pdf.cache.entradas", disco, Cache::estimatedSize)
+                .tag("nivel", "disco").register(meterRegistry);
+
+        carregarDisco();
+    }
+
+    /**
+     * Com o cache desligado ({@code rescisao.pdf.cache.enabled=false}) o recibo é renderizado direto na resposta.
+     */
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Recibo do cálculo, vindo da memória, do disco ou de uma nova renderização (nessa ordem).
+     * Com o cache desligado, apenas renderiza. O chamador já deve ter verificado que o cálculo pertence ao usuário.
+     */
+    public ReciboPdf obter(CalculoRescisao calculo) throws IOException {
+        Long id = calculo.getId();
+        if (!habilitado) {
+            return contar(new ReciboPdf(ByteBuffer.wrap(renderizarSemCache(calculo)), ReciboPdf.Origem.RENDERIZADO));
+        }
+        String impressao = impressao(calculo);
+        ReciboPdf guardado = guardado(id, impressao);
+        if (guardado != null) {
+            return contar(guardado);
+        }
+
+        // Single-flight: fica no mapa a renderização em andamento ou válida para o id; senão, o future desta
+        // requisição, que é renderizado a seguir, fora do compute.
+        CompletableFuture<Renderizado> propria = new CompletableFuture<>();
+        CompletableFuture<Renderizado> atual = memoria.asMap().compute(id, (chave, existente) ->
+                existente == null || existente.isCompletedExceptionally() || desatualizado(existente, impressao)
+                        ? propria : existente);
+        if (atual == propria) {
+            try {
+                byte[] pdf = renderizarSemCache(calculo);
+                gravarNoDisco(id, impressao, pdf);
+                propria.complete(new Renderizado(impressao, pdf));
+                return contar(new ReciboPdf(ByteBuffer.wrap(pdf), ReciboPdf.Origem.RENDERIZADO));
+            } catch (IOException | RuntimeException e) {
+                // Future com falha sai do cache sozinho; quem esperava recebe o mesmo erro.
+                propria.completeExceptionally(e);
+                throw e;
+            }
+        }
+        Renderizado compartilhado = aguardar(atual);
+        if (compartilhado.impressao().equals(impressao)) {
+            return contar(new ReciboPdf(ByteBuffer.wrap(compartilhado.pdf()), ReciboPdf.Origem.MEMORIA));
+        }
+        // A renderização em andamento era de outra versão do cálculo (raro): esta resposta é gerada à parte.
+        return contar(new ReciboPdf(ByteBuffer.wrap(renderizarSemCache(calculo)), ReciboPdf.Origem.RENDERIZADO));
+    }
+
+    /**
+     * Recibo já guardado (memória ou disco) para o cálculo, sem renderizar nem inserir nada no cache; {@code null} se
+     * não houver. Para exportações em lote: recibos avulsos renderizados uma única vez não devem tirar do cache os
+     * recibos consultados com frequência. Não entra em {@code recibos.pdf.requisicoes}.
+     */
+    public ReciboPdf consultar(CalculoRescisao calculo) {
+        return habilitado ? guardado(calculo.getId(), impressao(calculo)) : null;
+    }
+
+    /**
+     * Remove o recibo dos dois níveis (ex.: quando o cálculo é excluído).
+     */
+    public void remover(Long id) {
+        memoria.synchronous().invalidate(id);
+        disco.invalidate(id);
+    }
+
+    /**
+     * Impressão digital do recibo: muda se mudar o layout ou qualquer dado impresso, e distingue cálculos diferentes
+     * que tenham recebido o mesmo id (banco restaurado ou recriado).
+     */
+    static String impressao(CalculoRescisao calculo) {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        String dados = String.join("|",
+                String.valueOf(PdfGenerationService.VERSAO_LAYOUT),
+                String.valueOf(calculo.getId()),
+                String.valueOf(calculo.getUsuarioId()),
+                String.valueOf(calculo.getCriadoEm() != null ? calculo.getCriadoEm().toInstant() : null),
+                String.valueOf(calculo.getNomeEmpregado()),
+                String.valueOf(calculo.getDataAdmissao()),
+                String.valueOf(calculo.getDataDesligamento()),
+                String.valueOf(calculo.getTotalBruto()),
+                String.valueOf(calculo.getTotalDescontos()),
+                String.valueOf(calculo.getTotalLiquido()));
+        sha.update(dados.getBytes(StandardCharsets.UTF_8));
+        if (calculo.getResultado() != null) {
+            sha.update(calculo.getResultado());
+        }
+        // 64 bits bastam: a impressão só separa versões de um mesmo id.
+        return HexFormat.of().formatHex(sha.digest(), 0, 8);
+    }
+
+    /**
+     * Renderização já concluída com sucesso, ou {@code null} (ausente, em andamento ou com falha).
+     */
+    private static Renderizado concluido(CompletableFuture<Renderizado> renderizacao) {
+        return renderizacao != null && renderizacao.isDone() && !renderizacao.isCompletedExceptionally()
+                ? renderizacao.join() : null;
+    }
+
+    private static boolean desatualizado(CompletableFuture<Renderizado> renderizacao, String impressao) {
+        Renderizado pronto = concluido(renderizacao);
+        return pronto != null && !pronto.impressao().equals(impressao);
+    }
+
+    private static Renderizado aguardar(CompletableFuture<Renderizado> renderizacao) throws IOException {
+        try {
+            return renderizacao.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException causa) {
+                throw causa;
+            }
+            throw e.getCause() instanceof RuntimeException causa ? causa : e;
+        }
+    }
+
+    private ReciboPdf guardado(Long id, String impressao) {
+        Renderizado pronto = concluido(memoria.getIfPresent(id));
+        if (pronto != null && pronto.impressao().equals(impressao)) {
+            return new ReciboPdf(ByteBuffer.wrap(pronto.pdf()), ReciboPdf.Origem.MEMORIA);
+        }
+        ByteBuffer emDisco = lerDoDisco(id, impressao);
+        return emDisco != null ? new ReciboPdf(emDisco, ReciboPdf.Origem.DISCO) : null;
+    }
+
+    private byte[] renderizarSemCache(CalculoRescisao calculo) throws IOException {
+        // Renderiza direto no buffer que vai para o cache: uma única cópia do PDF (toByteArray).
+        ByteArrayOutputStream out = new ByteArrayOutputStream(TAMANHO_INICIAL_BUFFER);
+        try {
+            pdfGenerationService.escreverReciboRescisao(calculo, out);
+        } catch (DocumentException e) {
+            throw new IOException("Falha ao gerar o recibo do cálculo " + calculo.getId(), e);
+        }
+        return out.toByteArray();
+    }
+
+    private ByteBuffer lerDoDisco(Long id, String impressao) {
+        Renderizado indexado = diretorio != null ? disco.getIfPresent(id) : null;
+        if (indexado == null) {
+            return null;
+        }
+        if (!indexado.impressao().equals(impressao)) {
+            // PDF de outra versão do cálculo: sai do índice (e o arquivo é apagado) e o recibo é renderizado de novo.
+            disco.asMap().remove(id, indexado);
+            return null;
+        }
+        // O mapeamento continua válido mesmo que o arquivo seja apagado depois (evicção concorrente).
+        try (FileChannel canal = FileChannel.open(arquivo(id, impressao), StandardOpenOption.READ)) {
+            return canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        } catch (IOException e) {
+            log.warn("Recibo {} indisponível no cache em disco", id, e);
+            disco.asMap().remove(id, indexado);
+            return null;
+        }
+    }
+
+    private void gravarNoDisco(Long id, String impressao, byte[] pdf) {
+        if (diretorio == null) {
+            return;
+        }
+        try {
+            // Grava em arquivo temporário e renomeia, para nunca expor um PDF pela metade.
+            Path temporario = Files.createTempFile(diretorio, id + "-", ".tmp");
+            Files.write(temporario, pdf);
+            Files.move(temporario, arquivo(id, impressao), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            disco.put(id, new Renderizado(impressao, pdf.length));
+        } catch (IOException e) {
+            // O nível em disco é só uma otimização: a falha não impede a resposta.
+            log.warn("Não foi possível gravar o recibo {} no cache em disco", id, e);
+        }
+    }
+
+    /**
+     * Recupera no índice os recibos gravados por execuções anteriores e limpa temporários incompletos. Cada arquivo
+     * volta com a impressão do nome, conferida com o cálculo na primeira leitura; arquivos sem impressão (formato
+     * anterior) são apagados.
+     */
+    private void carregarDisco() {
+        if (diretorio == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(diretorio);
+            try (Stream<Path> arquivos = Files.list(diretorio)) {
+                arquivos.forEach(this::indexar);
+            }
+        } catch (IOException e) {
+            log.warn("Cache de recibos em disco indisponível em {}", diretorio, e);
+        }
+    }
+
+    private void indexar(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        try {
+            int separador = nome.indexOf('-');
+            if (nome.endsWith(EXTENSAO) && separador > 0) {
+                Long id = Long.valueOf(nome.substring(0, separador));
+                String impressao = nome.substring(separador + 1, nome.length() - EXTENSAO.length());
+                disco.put(id, new Renderizado(impressao, (int) Files.size(arquivo)));
+            } else if (nome.endsWith(EXTENSAO) || nome.endsWith(".tmp")) {
+                Files.deleteIfExists(arquivo);
+            }
+        } catch (NumberFormatException | IOException e) {
+            log.debug("Ignorando {} no cache de recibos", arquivo);
+        }
+    }
+
+    /**
+     * Se o arquivo ainda é o do índice (substituição pelo mesmo arquivo, ex.: reindexação).
+     */
+    private boolean indexado(Long id, Renderizado arquivo) {
+        Renderizado atual = disco.getIfPresent(id);
+        return atual != null && atual.impressao().equals(arquivo.impressao());
+    }
+
+    private void apagarArquivo(Long id, String impressao) {
+        try {
+            Files.deleteIfExists(arquivo(id, impressao));
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o recibo {} do cache em disco", id, e);
+        }
+    }
+
+    private Path arquivo(Long id, String impressao) {
+        return diretorio.resolve(id + "-" + impressao + EXTENSAO);
+    }
+
+    private ReciboPdf contar(ReciboPdf recibo) {
+        requisicoes.get(recibo.origem()).increment();
+        return recibo;
+    }
+
+    private static double bytesEmUso(Cache<Long, ?> cache) {
+        return cache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    /**
+     * PDF guardado e a impressão do cálculo que o gerou. No índice do disco só o tamanho é guardado ({@code pdf} nulo).
+     */
+    private record Renderizado(String impressao, byte[] pdf, int tamanho) {
+
+        Renderizado(String impressao, byte[] pdf) {
+            this(impressao, pdf, pdf.length);
+        }
+
+        Renderizado(String impressao, int tamanho) {
+            this(impressao, null, tamanho);
+        }
+    }
+}
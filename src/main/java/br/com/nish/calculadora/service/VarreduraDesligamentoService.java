@@ -0,0 +1,278 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.dto.CalculoRescisaoRequest;
+import br.com.nish.calculadora.dto.TipoRescisao;
+import br.com.nish.calculadora.dto.VarreduraDesligamentoResponse;
+import br.com.nish.calculadora.dto.VarreduraDesligamentoResponse.Dia;
+import br.com.nish.calculadora.dto.VarreduraDesligamentoResponse.Motivo;
+import br.com.nish.calculadora.dto.VarreduraDesligamentoResponse.Quebra;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Curva do total da rescisão por data de desligamento: os totais de cada dia de um período e os pontos de quebra.
+ * <p>
+ * Em vez de chamar o motor de cálculo uma vez por dia, a varredura anda em dias epoch e só recalcula o que muda de
+ * um dia para o outro: o saldo de salário (e seus descontos) fica memorizado por dia do mês; os dias de aviso só
+ * mudam no aniversário de admissão; os meses no ano só mudam quando o fim do vínculo (desligamento mais o aviso
+ * projetado) completa 15 dias em um mês, e o 13º e as férias proporcionais ficam memorizados por meses. As verbas
+ * que não dependem da data (férias vencidas, saque e multa do FGTS) são calculadas uma vez. Os totais são
+ * idênticos aos de {@link CalculoRescisaoService#calcular}.
+ */
+@Service
+public class VarreduraDesligamentoService {
+
+    private static final BigDecimal ZERO_2 = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+
+    private final CalculoRescisaoService motor;
+    private final DescontosService descontosService;
+    private final Timer tempo;
+    private final int maxDias;
+
+    public VarreduraDesligamentoService(
+            CalculoRescisaoService motor,
+            DescontosService descontosService,
+            MeterRegistry meterRegistry,
+            @Value("${rescisao.varredura.max-dias:366}") int maxDias
+    ) {
+        this.motor = motor;
+        this.descontosService = descontosService;
+        this.maxDias = maxDias;
+        this.tempo = Timer.builder("rescisao.calculo.varredura")
+                .description("Tempo da varredura de datas de desligamento")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Totais da entrada para cada data de desligamento de {@code de} a {@code ate}, inclusive.
+     *
+     * @throws IllegalArgumentException se o período passar de {@code rescisao.varredura.max-dias} ou começar antes
+     * da admissão
+     */
+    public VarreduraDesligamentoResponse varrer(CalculoRescisaoRequest base, LocalDate de, LocalDate ate) {
+        long dias = ChronoUnit.DAYS.between(de, ate) + 1;
+        if (dias > maxDias) {
+            throw new IllegalArgumentException("O período pode ter no máximo " + maxDias + " dias");
+        }
+        if (de.isBefore(base.getDataAdmissao())) {
+            throw new IllegalArgumentException("O período deve começar na data de admissão ou depois");
+        }
+        return tempo.record(() -> new Varredura(base).executar(de.toEpochDay(), ate.toEpochDay()));
+    }
+
+    /**
+     * Estado da varredura de uma entrada: os valores do dia corrente e até quando valem, em dias epoch.
+     */
+    private final class Varredura {
+
+        private final CalculoRescisaoRequest req;
+        private final TipoRescisao tipo;
+        private final LocalDate admissao;
+        private final BigDecimal brutoFixo;
+        private final Saldo[] saldoPorDiaDoMes = new Saldo[32];
+        private final Map<Integer, Proporcionais> proporcionaisPorMeses = new HashMap<>();
+
+        // Mês corrente
+        private int ano;
+        private int diaDoMes;
+        private long fimDoMes = Long.MIN_VALUE;
+
+        // Aviso prévio: muda só no aniversário de admissão
+        private long proximoAniversario = Long.MIN_VALUE;
+        private int diasAvisoCheio = -1;
+        private int diasAvisoProjetados;
+        private BigDecimal avisoIndenizado;
+
+        // Meses no ano: valem enquanto o fim efetivo do vínculo estiver antes de proximaMudancaMeses
+        private int meses = -1;
+        private long proximaMudancaMeses = Long.MIN_VALUE;
+
+        Varredura(CalculoRescisaoRequest req) {
+            this.req = req;
+            this.tipo = req.getTipoRescisao();
+            this.admissao = req.getDataAdmissao();
+
+            BigDecimal saldoFgts = Objects.requireNonNullElse(req.getSaldoFgtsDepositado(), BigDecimal.ZERO)
+                    .setScale(2, RoundingMode.HALF_UP);
+            BigDecimal fixo = motor.calcularMultaFgts(tipo, saldoFgts);
+            if (motor.incluiSaqueFgts(tipo)) {
+                fixo = fixo.add(tipo == TipoRescisao.ACORDO_484A
+                        ? saldoFgts.multiply(new BigDecimal("0.80")).setScale(2, RoundingMode.HALF_UP)
+                        : saldoFgts);
+            }
+            if (req.getFeriasVencidasDias() > 0) {
+                fixo = fixo.add(motor.calcularFeriasVencidasMaisUmTerco(req.getSalarioMensal(), req.getFeriasVencidasDias()));
+            }
+            this.brutoFixo = fixo;
+        }
+
+        VarreduraDesligamentoResponse executar(long de, long ate) {
+            List<Dia> dias = new ArrayList<>((int) (ate - de + 1));
+            List<Quebra> quebras = new ArrayList<>();
+            BigDecimal liquidoAnterior = null;
+
+            for (long dia = de; dia <= ate; dia++) {
+                EnumSet<Motivo> motivos = EnumSet.noneOf(Motivo.class);
+                boolean recontarMeses = false;
+
+                if (dia > fimDoMes) {
+                    LocalDate data = LocalDate.ofEpochDay(dia);
+                    if (fimDoMes != Long.MIN_VALUE) {
+                        motivos.add(Motivo.VIRADA_DO_MES);
+                        if (data.getYear() != ano) {
+                            motivos.add(Motivo.VIRADA_DO_ANO);
+                            recontarMeses = true;
+                        }
+                    }
+                    ano = data.getYear();
+                    diaDoMes = data.getDayOfMonth();
+                    fimDoMes = data.withDayOfMonth(data.lengthOfMonth()).toEpochDay();
+                } else {
+                    diaDoMes++;
+                }
+
+                if (dia >= proximoAniversario) {
+                    int cheioAntes = diasAvisoCheio;
+                    int projetadosAntes = diasAvisoProjetados;
+                    atualizarAviso(dia);
+                    recontarMeses |= diasAvisoProjetados != projetadosAntes;
+                    // Passado o teto de 90 dias o aniversário não muda mais nada.
+                    if (cheioAntes >= 0 && diasAvisoCheio != cheioAntes) {
+                        motivos.add(Motivo.AVISO_PREVIO);
+                    }
+                }
+
+                long fimEfetivo = dia + diasAvisoProjetados;
+                if (recontarMeses || fimEfetivo >= proximaMudancaMeses) {
+                    int mesesAntes = meses;
+                    contarMeses(dia, fimEfetivo);
+                    if (mesesAntes >= 0 && meses != mesesAntes) {
+                        motivos.add(Motivo.MESES_NO_ANO);
+                    }
+                }
+
+                Saldo saldo = saldo(dia);
+                Proporcionais proporcionais = proporcionaisPorMeses.computeIfAbsent(meses, this::proporcionais);
+                BigDecimal bruto = saldo.valor().add(proporcionais.valor()).add(avisoIndenizado).add(brutoFixo)
+                        .setScale(2, RoundingMode.HALF_UP);
+                BigDecimal descontos = saldo.descontos().add(proporcionais.descontos()).setScale(2, RoundingMode.HALF_UP);
+                BigDecimal liquido = bruto.subtract(descontos).setScale(2, RoundingMode.HALF_UP);
+
+                LocalDate data = LocalDate.ofEpochDay(dia);
+                dias.add(new Dia(data, bruto, descontos, liquido));
+                if (!motivos.isEmpty()) {
+                    quebras.add(new Quebra(data, motivos, liquidoAnterior, liquido));
+                }
+                liquidoAnterior = liquido;
+            }
+            return VarreduraDesligamentoResponse.builder().dias(dias).quebras(quebras).build();
+        }
+
+        /**
+         * Recalcula os dias de aviso e acha o próximo aniversário, o primeiro dia em que os anos completos aumentam.
+         */
+        private void atualizarAviso(long dia) {
+            LocalDate data = LocalDate.ofEpochDay(dia);
+            int anosCompletos = admissao.until(data).getYears();
+            LocalDate aniversario = admissao.plusYears(anosCompletos + 1L);
+            // Admissão em 29/02: plusYears cai em 28/02, que ainda não completa o ano.
+            while (admissao.until(aniversario).getYears() <= anosCompletos) {
+                aniversario = aniversario.plusDays(1);
+            }
+            proximoAniversario = aniversario.toEpochDay();
+
+            diasAvisoCheio = motor.calcularDiasAvisoPrevio(admissao, data);
+            int diasAvisoAplicados = CalculoRescisaoService.diasAvisoAplicados(tipo, diasAvisoCheio);
+            diasAvisoProjetados = req.isAvisoIndenizado() ? diasAvisoAplicados : 0;
+            avisoIndenizado = req.isAvisoIndenizado() && motor.incluiAvisoIndenizado(tipo) && diasAvisoAplicados > 0
+                    ? motor.calcularAvisoPrevioIndenizado(req.getSalarioMensal(), diasAvisoAplicados)
+                    : BigDecimal.ZERO;
+        }
+
+        /**
+         * Conta os meses no ano e acha o próximo fim efetivo em que a contagem muda: o dia em que o mês do fim do
+         * vínculo completa 15 dias. Depois de 31/12 o fim do vínculo fica preso no ano e a contagem não muda mais.
+         */
+        private void contarMeses(long dia, long fimEfetivo) {
+            LocalDate desligamento = LocalDate.ofEpochDay(dia);
+            LocalDate fim = LocalDate.ofEpochDay(fimEfetivo);
+            meses = motor.contarMesesNoAno(admissao, desligamento, fim);
+
+            LocalDate fimDoAno = LocalDate.of(ano, 12, 31);
+            LocalDate inicioVinculo = admissao.isAfter(LocalDate.of(ano, 1, 1)) ? admissao : LocalDate.of(ano, 1, 1);
+            proximaMudancaMeses = Long.MAX_VALUE;
+            if (fim.isAfter(fimDoAno)) {
+                return;
+            }
+            for (YearMonth mes = YearMonth.from(fim); mes.getYear() == ano; mes = mes.plusMonths(1)) {
+                LocalDate inicioNoMes = mes.atDay(1).isAfter(inicioVinculo) ? mes.atDay(1) : inicioVinculo;
+                LocalDate quinzeDias = inicioNoMes.plusDays(14);
+                if (quinzeDias.isAfter(fim) && !quinzeDias.isAfter(mes.atEndOfMonth())) {
+                    proximaMudancaMeses = quinzeDias.toEpochDay();
+                    return;
+                }
+            }
+        }
+
+        private Saldo saldo(long dia) {
+            Saldo saldo = saldoPorDiaDoMes[diaDoMes];
+            if (saldo == null) {
+                BigDecimal valor = motor.calcularSaldoSalario(req.getSalarioMensal(), LocalDate.ofEpochDay(dia));
+                BigDecimal inss = descontosService.calcularInss(valor);
+                BigDecimal irrf = descontosService.calcularIrrf(valor, inss, req.getNumeroDependentes());
+                saldo = new Saldo(valor, positivos(inss, irrf));
+                saldoPorDiaDoMes[diaDoMes] = saldo;
+            }
+            return saldo;
+        }
+
+        private Proporcionais proporcionais(int meses) {
+            BigDecimal decimo = BigDecimal.ZERO;
+            BigDecimal valor = BigDecimal.ZERO;
+            if (meses > 0 && motor.incluiDecimoProporcional(tipo)) {
+                decimo = motor.calcularDecimoTerceiroProporcional(req.getSalarioMensal(), meses);
+                valor = decimo;
+            }
+            if (meses > 0 && motor.incluiFeriasProporcionais(tipo)) {
+                valor = valor.add(motor.calcularFeriasProporcionaisMaisUmTerco(req.getSalarioMensal(), meses));
+            }
+            BigDecimal inss = descontosService.calcularInss(decimo);
+            BigDecimal irrf = descontosService.calcularIrrf(decimo, inss, req.getNumeroDependentes());
+            return new Proporcionais(valor, positivos(inss, irrf));
+        }
+    }
+
+    /**
+     * Soma dos descontos, como no motor: só entram os valores positivos.
+     */
+    private static BigDecimal positivos(BigDecimal inss, BigDecimal irrf) {
+        BigDecimal total = BigDecimal.ZERO;
+        if (inss.compareTo(ZERO_2) > 0) {
+            total = total.add(inss);
+        }
+        if (irrf.compareTo(ZERO_2) > 0) {
+            total = total.add(irrf);
+        }
+        return total;
+    }
+
+    // Saldo de salário de um dia do mês e os descontos sobre ele.
+    private record Saldo(BigDecimal valor, BigDecimal descontos) {}
+
+    // 13º e férias proporcionais de uma contagem de meses, e os descontos sobre o 13º.
+    private record Proporcionais(BigDecimal valor, BigDecimal descontos) {}
+}
@@ -0,0 +1,199 @@
+package db.migration;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.TreeSet;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Preenche {@code resultado} e {@code verbas} (V11) a partir do JSON de {@code componentes}, em lotes por id.
+ * Essas linhas só guardavam os proventos: o resultado fica sem descontos ({@code null}), e os totais seguem nas
+ * colunas próprias.
+ * <p>
+ * Congelada: o dicionário e o codificador abaixo são cópias da versão 1 do formato ({@code ResultadoCalculoCodec} e
+ * {@code Verba} na época desta migração) e não devem acompanhar mudanças no código da aplicação. Uma migração já
+ * aplicada tem de produzir os mesmos bytes em qualquer banco que ainda for migrado.
+ */
+public class V11_1__ResultadoCompacto extends BaseJavaMigration {
+
+    private static final int LOTE = 1000;
+
+    private static final int VERSAO = 1;
+
+    /**
+     * Verbas da versão 1. Nas verbas com parâmetro o nome é {@code antes + numero + depois}.
+     */
+    private static final List<VerbaV1> DICIONARIO = List.of(
+            new VerbaV1(1, "Saldo de salário", null),
+            new VerbaV1(2, "13º proporcional (", " meses)"),
+            new VerbaV1(3, "Férias proporcionais + 1/3", null),
+            new VerbaV1(4, "Férias vencidas + 1/3", null),
+            new VerbaV1(5, "Aviso prévio indenizado (", " dias)"),
+            new VerbaV1(6, "Saque FGTS (saldo depositado)", null),
+            new VerbaV1(7, "Saque FGTS (80% do saldo)", null),
+            new VerbaV1(8, "Multa Rescisória FGTS", null),
+            new VerbaV1(9, "INSS sobre Saldo de Salário", null),
+            new VerbaV1(10, "INSS sobre 13º Salário", null),
+            new VerbaV1(11, "IRRF sobre Salário", null),
+            new VerbaV1(12, "IRRF sobre 13º Salário", null));
+
+    private static final CBORFactory CBOR = new CBORFactory();
+
+    private static final String SELECT_SQL = """
+            SELECT id, CAST(componentes AS VARCHAR) AS componentes
+              FROM calculos_rescisao
+             WHERE id > ?
+             ORDER BY id
+             LIMIT ?
+            """;
+
+    private static final String UPDATE_SQL = "UPDATE calculos_rescisao SET resultado = ?, verbas = ? WHERE id = ?";
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection conexao = context.getConnection();
+        ObjectMapper objectMapper = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        // Os totais não mudam: no PostgreSQL o trigger de UPDATE da V9_1 só refaria os totais mensais à toa.
+        boolean postgres = "PostgreSQL".equals(conexao.getMetaData().getDatabaseProductName());
+        if (postgres) {
+            executar(conexao, "ALTER TABLE calculos_rescisao DISABLE TRIGGER calculos_rescisao_mensal_update");
+        }
+        try (PreparedStatement select = conexao.prepareStatement(SELECT_SQL);
+             PreparedStatement update = conexao.prepareStatement(UPDATE_SQL)) {
+            long ultimoId = 0;
+            int lidas;
+            do {
+                select.setLong(1, ultimoId);
+                select.setInt(2, LOTE);
+                lidas = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        ultimoId = rs.getLong("id");
+                        JsonNode proventos = objectMapper.readTree(rs.getString("componentes"));
+                        update.setBytes(1, codificar(proventos));
+                        update.setArray(2, conexao.createArrayOf("smallint", verbas(proventos)));
+                        update.setLong(3, ultimoId);
+                        update.addBatch();
+                        lidas++;
+                    }
+                }
+                if (lidas > 0) {
+                    update.executeBatch();
+                }
+            } while (lidas == LOTE);
+        }
+        if (postgres) {
+            executar(conexao, "ALTER TABLE calculos_rescisao ENABLE TRIGGER calculos_rescisao_mensal_update");
+        }
+    }
+
+    /**
+     * {@code [1, [proventos...], null]}: cada provento é o código (e o número, nas verbas com parâmetro) ou o nome por
+     * extenso, seguido do valor em centavos.
+     */
+    static byte[] codificar(JsonNode proventos) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(64);
+        try (CBORGenerator gerador = CBOR.createGenerator(saida)) {
+            gerador.writeStartArray(null, 3);
+            gerador.writeNumber(VERSAO);
+            gerador.writeStartArray();
+            for (JsonNode componente : proventos) {
+                String nome = componente.get("nome").asText();
+                VerbaV1 verba = verba(nome);
+                Integer parametro = verba != null ? verba.parametro(nome) : null;
+                if (verba == null || verba.temParametro() && parametro == null) {
+                    gerador.writeString(nome);
+                } else {
+                    gerador.writeNumber(verba.codigo());
+                    if (parametro != null) {
+                        gerador.writeNumber(parametro);
+                    }
+                }
+                // O formato compacto guarda centavos; valores gravados com mais casas são arredondados.
+                BigDecimal valor = new BigDecimal(componente.get("valor").asText()).setScale(2, RoundingMode.HALF_UP);
+                gerador.writeNumber(valor.movePointRight(2).longValueExact());
+            }
+            gerador.writeEndArray();
+            gerador.writeNull();
+            gerador.writeEndArray();
+        }
+        return saida.toByteArray();
+    }
+
+    /**
+     * Códigos distintos, em ordem, das verbas do dicionário presentes nos proventos.
+     */
+    static Short[] verbas(JsonNode proventos) {
+        TreeSet<Short> codigos = new TreeSet<>();
+        for (JsonNode componente : proventos) {
+            VerbaV1 verba = verba(componente.get("nome").asText());
+            if (verba != null) {
+                codigos.add((short) verba.codigo());
+            }
+        }
+        return codigos.toArray(new Short[0]);
+    }
+
+    /**
+     * Verba do nome: o nome exato, ou, nas verbas com parâmetro, o nome com um número válido ou só o prefixo
+     * ("13º proporcional").
+     */
+    private static VerbaV1 verba(String nome) {
+        for (VerbaV1 verba : DICIONARIO) {
+            if (verba.temParametro()
+                    ? verba.prefixo().equals(nome) || verba.parametro(nome) != null
+                    : verba.antes().equals(nome)) {
+                return verba;
+            }
+        }
+        return null;
+    }
+
+    private static void executar(Connection conexao, String sql) throws SQLException {
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private record VerbaV1(int codigo, String antes, String depois) {
+
+        boolean temParametro() {
+            return depois != null;
+        }
+
+        String prefixo() {
+            return antes.substring(0, antes.length() - 2);
+        }
+
+        /**
+         * Número do nome, só na forma {@code antes + numero + depois} (sem zeros à esquerda nem sinal); senão null.
+         */
+        Integer parametro(String nome) {
+            if (!temParametro() || nome.length() <= antes.length() + depois.length()
+                    || !nome.startsWith(antes) || !nome.endsWith(depois)) {
+                return null;
+            }
+            String texto = nome.substring(antes.length(), nome.length() - depois.length());
+            try {
+                int numero = Integer.parseInt(texto);
+                return Integer.toString(numero).equals(texto) ? numero : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
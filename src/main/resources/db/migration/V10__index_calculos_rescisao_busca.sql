@@ -0,0 +1,4 @@
+-- Índices da busca filtrada do histórico (/historico/busca): período de desligamento (também a ordem da listagem)
+-- e faixa de valor líquido, sempre dentro do histórico de um usuário.
+CREATE INDEX idx_calculos_rescisao_usuario_desligamento ON calculos_rescisao (usuario_id, data_desligamento, id);
+CREATE INDEX idx_calculos_rescisao_usuario_liquido ON calculos_rescisao (usuario_id, total_liquido);
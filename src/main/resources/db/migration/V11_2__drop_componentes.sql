@@ -0,0 +1,5 @@
+-- Com o resultado preenchido em todas as linhas (V11_1), o JSON de componentes deixa de ser usado.
+DROP INDEX IF EXISTS idx_calculos_rescisao_componentes;
+ALTER TABLE calculos_rescisao ALTER COLUMN resultado SET NOT NULL;
+ALTER TABLE calculos_rescisao ALTER COLUMN verbas SET NOT NULL;
+ALTER TABLE calculos_rescisao DROP COLUMN componentes;
@@ -0,0 +1,6 @@
+-- Resultado completo do cálculo (proventos e descontos) em formato compacto: CBOR com verbas codificadas pelo
+-- dicionário e valores em centavos (ver ResultadoCalculoCodec), no lugar do JSON de componentes.
+-- verbas: códigos distintos das verbas do resultado, para a busca por verba sem decodificar o resultado.
+-- As colunas nascem anuláveis; a V11_1 preenche as linhas existentes e a V11_2 as torna obrigatórias.
+ALTER TABLE calculos_rescisao ADD COLUMN resultado BYTEA;
+ALTER TABLE calculos_rescisao ADD COLUMN verbas SMALLINT ARRAY;
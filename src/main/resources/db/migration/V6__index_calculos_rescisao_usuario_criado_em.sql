@@ -0,0 +1,3 @@
+-- Índice composto para o histórico paginado por cursor (keyset): filtra pelo usuário e já entrega as linhas
+-- na ordem (criado_em DESC, id DESC), sem sort nem OFFSET.
+CREATE INDEX idx_calculos_rescisao_usuario_criado_em ON calculos_rescisao (usuario_id, criado_em DESC, id DESC);
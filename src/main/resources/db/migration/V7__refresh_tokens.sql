@@ -0,0 +1,16 @@
+-- Refresh tokens opacos e rotativos. Só o hash SHA-256 do token é gravado.
+-- Cada login abre uma família; cada renovação marca o token como usado e emite o próximo da mesma família.
+-- Um token já usado que volta a aparecer indica vazamento e revoga a família inteira.
+CREATE TABLE refresh_tokens (
+  id BIGSERIAL PRIMARY KEY,
+  usuario_id BIGINT NOT NULL REFERENCES usuarios(id) ON DELETE CASCADE,
+  familia UUID NOT NULL,
+  token_hash VARCHAR(64) NOT NULL UNIQUE,
+  criado_em TIMESTAMP WITH TIME ZONE NOT NULL,
+  expira_em TIMESTAMP WITH TIME ZONE NOT NULL,
+  usado_em TIMESTAMP WITH TIME ZONE,
+  revogado_em TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX idx_refresh_tokens_usuario_id ON refresh_tokens(usuario_id);
+CREATE INDEX idx_refresh_tokens_familia ON refresh_tokens(familia);
@@ -0,0 +1,6 @@
+-- Perfis fixos: ROLE_USER (todo usuário registrado) e ROLE_ADMIN (administração, ex.: /api/v1/admin/**).
+-- Até aqui a ROLE_USER só era criada no primeiro /auth/register; o provisionamento em lote precisa dela de antemão.
+-- Para promover alguém a administrador:
+--   INSERT INTO usuarios_roles (usuario_id, role_id) SELECT <id>, id FROM roles WHERE name = 'ROLE_ADMIN';
+INSERT INTO roles (name) SELECT 'ROLE_USER' WHERE NOT EXISTS (SELECT 1 FROM roles WHERE name = 'ROLE_USER');
+INSERT INTO roles (name) SELECT 'ROLE_ADMIN' WHERE NOT EXISTS (SELECT 1 FROM roles WHERE name = 'ROLE_ADMIN');
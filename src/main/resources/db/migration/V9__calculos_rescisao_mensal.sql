@@ -0,0 +1,21 @@
+-- Totais mensais do histórico por usuário, mês de desligamento e tipo de rescisão, para as análises sem varrer
+-- calculos_rescisao. Mantida por trigger a cada INSERT, UPDATE e DELETE (V9_1, específica de cada banco) e
+-- recalculável do zero pelo endpoint de administração /api/v1/admin/analise/reconstruir.
+-- Sem FK para usuarios: ao apagar um usuário, o cascade em calculos_rescisao dispara o trigger, que zera e remove
+-- as linhas dele.
+CREATE TABLE calculos_rescisao_mensal (
+  usuario_id BIGINT NOT NULL,
+  mes DATE NOT NULL,
+  tipo_rescisao VARCHAR(50) NOT NULL,
+  quantidade BIGINT NOT NULL,
+  total_bruto NUMERIC(21, 2) NOT NULL,
+  total_descontos NUMERIC(21, 2) NOT NULL,
+  total_liquido NUMERIC(21, 2) NOT NULL,
+  PRIMARY KEY (usuario_id, mes, tipo_rescisao)
+);
+
+INSERT INTO calculos_rescisao_mensal (usuario_id, mes, tipo_rescisao, quantidade, total_bruto, total_descontos, total_liquido)
+SELECT usuario_id, CAST(DATE_TRUNC('month', data_desligamento) AS DATE), tipo_rescisao,
+       COUNT(*), SUM(total_bruto), SUM(total_descontos), SUM(total_liquido)
+  FROM calculos_rescisao
+ GROUP BY usuario_id, CAST(DATE_TRUNC('month', data_desligamento) AS DATE), tipo_rescisao;
@@ -0,0 +1,71 @@
+package br.com.nish.calculadora.auth;
+
+import br.com.nish.calculadora.auth.UsuarioJdbcRepository.StatusUsuario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes para o status e a troca de perfis de UsuarioJdbcRepository (H2)")
+class UsuarioJdbcRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private UsuarioJdbcRepository repository;
+    private long usuarioId;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                        + "DEFAULT_NULL_ORDERING=HIGH;INIT=CREATE DOMAIN IF NOT EXISTS JSONB AS JSON", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration", "classpath:db/vendor/h2").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new UsuarioJdbcRepository(jdbcTemplate, new SimpleMeterRegistry());
+
+        usuarioId = repository.inserir(List.of(new UsuarioJdbcRepository.NovoUsuario("ana@empresa.com", "ana", "Ana", "x")),
+                "ROLE_USER").get("ana@empresa.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    @DisplayName("Status traz o ativo e os perfis atuais; usuário inexistente vem vazio")
+    void deveLerStatusComPerfis() {
+        assertEquals(Optional.of(new StatusUsuario(true, List.of("ROLE_USER"))), repository.status(usuarioId));
+
+        assertTrue(repository.substituirRoles(usuarioId, Set.of("ROLE_USER", "ROLE_ADMIN")));
+        assertTrue(repository.atualizarAtivo(usuarioId, false));
+
+        assertEquals(Optional.of(new StatusUsuario(false, List.of("ROLE_ADMIN", "ROLE_USER"))), repository.status(usuarioId));
+        assertEquals(Optional.empty(), repository.status(usuarioId + 1));
+        assertFalse(repository.atualizarAtivo(usuarioId + 1, false));
+        assertFalse(repository.substituirRoles(usuarioId + 1, Set.of("ROLE_USER")));
+    }
+
+    @Test
+    @DisplayName("Sem perfis, o status vem com a lista vazia; perfil inexistente não altera nada")
+    void deveTrocarPerfis() {
+        assertThrows(IllegalArgumentException.class, () -> repository.substituirRoles(usuarioId, Set.of("ROLE_USER", "ROLE_DONO")));
+        assertEquals(List.of("ROLE_USER"), repository.status(usuarioId).orElseThrow().roles());
+
+        assertTrue(repository.substituirRoles(usuarioId, Set.of()));
+        assertEquals(Optional.of(new StatusUsuario(true, List.of())), repository.status(usuarioId));
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.nish.calculadora.model;
+
+import br.com.nish.calculadora.dto.BuscaHistoricoFiltro;
+import br.com.nish.calculadora.dto.Componente;
+import br.com.nish.calculadora.dto.Verba;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere, com EXPLAIN num PostgreSQL real e 200 mil cálculos, que cada filtro da busca usa o seu índice (V10, V11_3).
+ * Sem Docker disponível, a classe é ignorada.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Planos de consulta da busca no histórico (PostgreSQL)")
+class CalculoRescisaoBuscaPlanoTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static CalculoRescisaoJdbcRepository repository;
+    private static long usuarioId;
+
+    @BeforeAll
+    static void semear() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure().dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/postgresql").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new CalculoRescisaoJdbcRepository(jdbcTemplate, new SimpleMeterRegistry());
+
+        // Quatro usuários com 50 mil cálculos cada: nomes distintos, 10 anos de desligamentos, líquidos de 0 a 50 mil
+        // e a multa do FGTS em 0,1% dos cálculos.
+        jdbcTemplate.update("""
+                INSERT INTO usuarios (email, senha_hash, nome, username)
+                SELECT 'usuario' || g || '@empresa.com', 'x', 'Usuário ' || g, 'usuario' || g FROM generate_series(1, 4) g
+                """);
+        usuarioId = jdbcTemplate.queryForObject("SELECT min(id) FROM usuarios", Long.class);
+        byte[] multa = ResultadoCalculoCodec.codificar(
+                List.of(new Componente(Verba.MULTA_FGTS.nome(), new BigDecimal("1200.00"))), List.of());
+        byte[] saldo = ResultadoCalculoCodec.codificar(
+                List.of(new Componente(Verba.SALDO_SALARIO.nome(), new BigDecimal("1500.00"))), List.of());
+        jdbcTemplate.update("""
+                INSERT INTO calculos_rescisao (
+                    usuario_id, tipo_rescisao, salario_mensal, data_admissao, data_desligamento,
+                    aviso_indenizado, ferias_vencidas_dias, meses_trabalhados_ano, saldo_fgts_depositado,
+                    total_bruto, total_descontos, total_liquido, resultado, verbas, nome_empregado)
+                SELECT ? + g % 4,
+                       (ARRAY['SEM_JUSTA_CAUSA', 'PEDIDO_DEMISSAO', 'ACORDO_484A'])[1 + g % 3],
+                       3000, DATE '2010-01-01', DATE '2015-01-01' + g % 3650,
+                       true, 0, 6, 0,
+                       (g * 7919 % 5000000) / 100.0 + 100, 100, (g * 7919 % 5000000) / 100.0,
+                       CASE WHEN g % 1000 = 0 THEN ? ELSE ? END,
+                       CASE WHEN g % 1000 = 0 THEN ARRAY[?] ELSE ARRAY[?] END::smallint[],
+                       'Empregado ' || md5(g::text)
+                  FROM generate_series(1, 200000) g
+                """, usuarioId, multa, saldo, Verba.MULTA_FGTS.codigo(), Verba.SALDO_SALARIO.codigo());
+        jdbcTemplate.execute("ANALYZE calculos_rescisao");
+    }
+
+    @Test
+    @DisplayName("Trecho do nome usa o índice de trigramas")
+    void nomeUsaTrigramas() {
+        String trecho = jdbcTemplate.queryForObject("SELECT substr(md5('12344'), 3, 10)", String.class);
+        assertUsaIndice("idx_calculos_rescisao_nome_trgm", BuscaHistoricoFiltro.builder().nome(trecho).build());
+    }
+
+    @Test
+    @DisplayName("Período de desligamento usa o índice (usuario_id, data_desligamento, id)")
+    void periodoUsaIndiceDeDesligamento() {
+        assertUsaIndice("idx_calculos_rescisao_usuario_desligamento", BuscaHistoricoFiltro.builder()
+                .desligamentoDe(LocalDate.of(2020, 3, 1)).desligamentoAte(LocalDate.of(2020, 3, 7)).build());
+    }
+
+    @Test
+    @DisplayName("Faixa de líquido usa o índice (usuario_id, total_liquido)")
+    void faixaUsaIndiceDeLiquido() {
+        assertUsaIndice("idx_calculos_rescisao_usuario_liquido", BuscaHistoricoFiltro.builder()
+                .liquidoMin(new BigDecimal("12000.00")).liquidoMax(new BigDecimal("12010.00")).build());
+    }
+
+    @Test
+    @DisplayName("Verba usa o índice GIN de verbas")
+    void verbaUsaIndiceDeVerbas() {
+        assertUsaIndice("idx_calculos_rescisao_verbas",
+                BuscaHistoricoFiltro.builder().verba("Multa Rescisória FGTS").build());
+    }
+
+    private static void assertUsaIndice(String indice, BuscaHistoricoFiltro filtro) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource();
+        String sql = repository.montarBusca(usuarioId, filtro, null, null, 21, parametros);
+        String plano = String.join("\n", new NamedParameterJdbcTemplate(jdbcTemplate)
+                .queryForList("EXPLAIN " + sql, parametros, String.class));
+
+        assertTrue(plano.contains(indice), plano);
+        assertFalse(plano.contains("Seq Scan"), plano);
+    }
+}
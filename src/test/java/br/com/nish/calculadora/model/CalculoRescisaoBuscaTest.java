@@ -0,0 +1,125 @@
+package br.com.nish.calculadora.model;
+
+import br.com.nish.calculadora.dto.BuscaHistoricoFiltro;
+import br.com.nish.calculadora.dto.CalculoRescisaoExportacao;
+import br.com.nish.calculadora.dto.CalculoRescisaoResumo;
+import br.com.nish.calculadora.dto.Componente;
+import br.com.nish.calculadora.dto.TipoRescisao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Testes para a busca e a exportação de CalculoRescisaoJdbcRepository (H2)")
+class CalculoRescisaoBuscaTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private CalculoRescisaoJdbcRepository repository;
+    private long usuarioId;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                        + "DEFAULT_NULL_ORDERING=HIGH;INIT=CREATE DOMAIN IF NOT EXISTS JSONB AS JSON", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration", "classpath:db/vendor/h2").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new CalculoRescisaoJdbcRepository(jdbcTemplate, new SimpleMeterRegistry());
+
+        jdbcTemplate.update("INSERT INTO usuarios (email, senha_hash, nome, username) VALUES ('ana@empresa.com', 'x', 'Ana', 'ana')");
+        jdbcTemplate.update("INSERT INTO usuarios (email, senha_hash, nome, username) VALUES ('bia@empresa.com', 'x', 'Bia', 'bia')");
+        usuarioId = jdbcTemplate.queryForObject("SELECT min(id) FROM usuarios", Long.class);
+        repository.inserirEmLote(List.of(
+                calculo(usuarioId, "João da Silva", "SEM_JUSTA_CAUSA", LocalDate.of(2025, 1, 10), "5000.00", "Multa Rescisória FGTS"),
+                calculo(usuarioId, "Maria Joana", "PEDIDO_DEMISSAO", LocalDate.of(2025, 2, 10), "1200.00", "Saldo de salário"),
+                calculo(usuarioId, "JOÃO PEDRO", "SEM_JUSTA_CAUSA", LocalDate.of(2025, 3, 10), "8000.00", "Multa Rescisória FGTS"),
+                calculo(usuarioId, "Carla_100%", "SEM_JUSTA_CAUSA", LocalDate.of(2025, 4, 10), "3000.00", "13º proporcional (4 meses)"),
+                calculo(usuarioId + 1, "João de Outro Usuário", "SEM_JUSTA_CAUSA", LocalDate.of(2025, 1, 10), "5000.00",
+                        "Multa Rescisória FGTS")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    @DisplayName("Filtros se combinam, só no histórico do usuário, do desligamento mais recente para o mais antigo")
+    void deveCombinarFiltros() {
+        assertEquals(List.of("JOÃO PEDRO", "João da Silva"), nomes(BuscaHistoricoFiltro.builder().nome("joão").build()));
+        assertEquals(List.of("JOÃO PEDRO", "João da Silva"),
+                nomes(BuscaHistoricoFiltro.builder().verba("Multa Rescisória FGTS").build()));
+        assertEquals(List.of("João da Silva"), nomes(BuscaHistoricoFiltro.builder()
+                .tipoRescisao(TipoRescisao.SEM_JUSTA_CAUSA)
+                .desligamentoAte(LocalDate.of(2025, 2, 28))
+                .liquidoMin(new BigDecimal("4000.00"))
+                .build()));
+        assertEquals(List.of("Maria Joana"), nomes(BuscaHistoricoFiltro.builder()
+                .liquidoMax(new BigDecimal("2000.00")).verba("Saldo de salário").build()));
+        // Verba com número: vale o nome sem ele ou com qualquer número.
+        assertEquals(List.of("Carla_100%"), nomes(BuscaHistoricoFiltro.builder().verba("13º proporcional").build()));
+        assertEquals(List.of("Carla_100%"), nomes(BuscaHistoricoFiltro.builder().verba("13º proporcional (7 meses)").build()));
+        // % e _ no trecho são literais, não curingas.
+        assertEquals(List.of("Carla_100%"), nomes(BuscaHistoricoFiltro.builder().nome("a_100%").build()));
+        assertEquals(List.of(), nomes(BuscaHistoricoFiltro.builder().nome("a%a").build()));
+    }
+
+    @Test
+    @DisplayName("A página seguinte começa depois do (desligamento, id) informado")
+    void devePaginarPorDesligamento() {
+        List<CalculoRescisaoResumo> primeira = repository.buscarResumos(usuarioId, new BuscaHistoricoFiltro(), null, null, 2);
+        CalculoRescisaoResumo ultimo = primeira.get(1);
+
+        List<CalculoRescisaoResumo> segunda = repository.buscarResumos(usuarioId, new BuscaHistoricoFiltro(),
+                ultimo.dataDesligamento(), ultimo.id(), 2);
+
+        assertEquals(List.of("Carla_100%", "JOÃO PEDRO"), primeira.stream().map(CalculoRescisaoResumo::nomeEmpregado).toList());
+        assertEquals(List.of("Maria Joana", "João da Silva"), segunda.stream().map(CalculoRescisaoResumo::nomeEmpregado).toList());
+    }
+
+    @Test
+    @DisplayName("Exportação percorre todos os filtrados em ordem de desligamento, buscando poucas linhas por vez")
+    void devePercorrerParaExportacao() {
+        BuscaHistoricoFiltro filtro = BuscaHistoricoFiltro.builder().tipoRescisao(TipoRescisao.SEM_JUSTA_CAUSA).build();
+
+        try (Stream<CalculoRescisaoExportacao> linhas = repository.percorrerParaExportacao(usuarioId, filtro, 2)) {
+            assertEquals(List.of("João da Silva", "JOÃO PEDRO", "Carla_100%"),
+                    linhas.map(CalculoRescisaoExportacao::nomeEmpregado).toList());
+        }
+    }
+
+    private List<String> nomes(BuscaHistoricoFiltro filtro) {
+        return repository.buscarResumos(usuarioId, filtro, null, null, 10).stream()
+                .map(CalculoRescisaoResumo::nomeEmpregado)
+                .toList();
+    }
+
+    private static CalculoRescisao calculo(long usuarioId, String nome, String tipo, LocalDate desligamento,
+                                           String liquido, String verba) {
+        return CalculoRescisao.builder()
+                .usuarioId(usuarioId)
+                .nomeEmpregado(nome)
+                .tipoRescisao(tipo)
+                .salarioMensal(new BigDecimal("3000.00"))
+                .dataAdmissao(LocalDate.of(2020, 1, 10))
+                .dataDesligamento(desligamento)
+                .saldoFgtsDepositado(BigDecimal.ZERO)
+                .totalBruto(new BigDecimal(liquido))
+                .totalDescontos(BigDecimal.ZERO)
+                .totalLiquido(new BigDecimal(liquido))
+                .componentes(List.of(new Componente(verba, new BigDecimal("100.00"))), List.of())
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package br.com.nish.calculadora.model;
+
+import br.com.nish.calculadora.dto.ResumoMensal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Testes para CalculoRescisaoMensalRepository e o trigger do H2")
+class CalculoRescisaoMensalRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private CalculoRescisaoJdbcRepository calculoRescisaoJdbcRepository;
+    private CalculoRescisaoMensalRepository repository;
+    private long usuarioId;
+
+    @BeforeEach
+    void setUp() {
+        // Mesmas migrações e modo de compatibilidade do perfil h2, num banco em memória por teste.
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                        + "DEFAULT_NULL_ORDERING=HIGH;INIT=CREATE DOMAIN IF NOT EXISTS JSONB AS JSON", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration", "classpath:db/vendor/h2").load().migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        calculoRescisaoJdbcRepository = new CalculoRescisaoJdbcRepository(jdbcTemplate, new SimpleMeterRegistry());
+        repository = new CalculoRescisaoMensalRepository(jdbcTemplate, new SimpleMeterRegistry());
+        jdbcTemplate.update("INSERT INTO usuarios (email, senha_hash, nome, username) VALUES ('ana@empresa.com', 'x', 'Ana', 'ana')");
+        usuarioId = jdbcTemplate.queryForObject("SELECT id FROM usuarios", Long.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    @DisplayName("Inserções, alteração de tipo e exclusões são refletidas nos totais do mês")
+    void deveManterTotaisNasGravacoes() {
+        calculoRescisaoJdbcRepository.inserirEmLote(List.of(
+                calculo("SEM_JUSTA_CAUSA", LocalDate.of(2025, 3, 1), "1000.00", "100.00"),
+                calculo("SEM_JUSTA_CAUSA", LocalDate.of(2025, 3, 31), "2000.50", "200.25"),
+                calculo("PEDIDO_DEMISSAO", LocalDate.of(2025, 3, 15), "500.00", "0.00"),
+                calculo("SEM_JUSTA_CAUSA", LocalDate.of(2025, 4, 1), "700.00", "70.00")));
+
+        assertEquals(List.of(
+                resumo(2025, 3, "PEDIDO_DEMISSAO", 1, "500.00", "0.00"),
+                resumo(2025, 3, "SEM_JUSTA_CAUSA", 2, "3000.50", "300.25"),
+                resumo(2025, 4, "SEM_JUSTA_CAUSA", 1, "700.00", "70.00")),
+                repository.buscar(usuarioId, YearMonth.of(2025, 1), YearMonth.of(2025, 12)));
+
+        jdbcTemplate.update("UPDATE calculos_rescisao SET tipo_rescisao = 'ACORDO_COMUM' WHERE tipo_rescisao = 'PEDIDO_DEMISSAO'");
+        jdbcTemplate.update("DELETE FROM calculos_rescisao WHERE data_desligamento = ?", LocalDate.of(2025, 3, 31));
+
+        assertEquals(List.of(
+                resumo(2025, 3, "ACORDO_COMUM", 1, "500.00", "0.00"),
+                resumo(2025, 3, "SEM_JUSTA_CAUSA", 1, "1000.00", "100.00")),
+                repository.buscar(usuarioId, YearMonth.of(2025, 3), YearMonth.of(2025, 3)));
+
+        jdbcTemplate.update("DELETE FROM usuarios");
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM calculos_rescisao_mensal", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Reconstruir recalcula do histórico uma tabela divergente")
+    void deveReconstruir() {
+        calculoRescisaoJdbcRepository.inserirEmLote(List.of(
+                calculo("SEM_JUSTA_CAUSA", LocalDate.of(2025, 3, 1), "1000.00", "100.00"),
+                calculo("SEM_JUSTA_CAUSA", LocalDate.of(2025, 5, 20), "400.00", "40.00")));
+        List<ResumoMensal> esperado = repository.buscar(usuarioId, YearMonth.of(2025, 1), YearMonth.of(2025, 12));
+        jdbcTemplate.update("UPDATE calculos_rescisao_mensal SET quantidade = 99 WHERE mes = ?", LocalDate.of(2025, 3, 1));
+        jdbcTemplate.update("DELETE FROM calculos_rescisao_mensal WHERE mes = ?", LocalDate.of(2025, 5, 1));
+
+        assertEquals(2, repository.reconstruir());
+        assertEquals(esperado, repository.buscar(usuarioId, YearMonth.of(2025, 1), YearMonth.of(2025, 12)));
+    }
+
+    private CalculoRescisao calculo(String tipo, LocalDate desligamento, String bruto, String descontos) {
+        BigDecimal totalBruto = new BigDecimal(bruto);
+        BigDecimal totalDescontos = new BigDecimal(descontos);
+        return CalculoRescisao.builder()
+                .usuarioId(usuarioId)
+                .tipoRescisao(tipo)
+                .salarioMensal(new BigDecimal("3000.00"))
+                .dataAdmissao(LocalDate.of(2020, 1, 10))
+                .dataDesligamento(desligamento)
+                .saldoFgtsDepositado(BigDecimal.ZERO)
+                .totalBruto(totalBruto)
+                .totalDescontos(totalDescontos)
+                .totalLiquido(totalBruto.subtract(totalDescontos))
+                .componentes(List.of(), List.of())
+                .build();
+    }
+
+    private static ResumoMensal resumo(int ano, int mes, String tipo, long quantidade, String bruto, String descontos) {
+        BigDecimal totalBruto = new BigDecimal(bruto);
+        BigDecimal totalDescontos = new BigDecimal(descontos);
+        return new ResumoMensal(YearMonth.of(ano, mes), tipo, quantidade, totalBruto, totalDescontos,
+                totalBruto.subtract(totalDescontos));
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.nish.calculadora.model;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Testes para MetricaRepositorio")
+class MetricaRepositorioTest {
+
+    @Test
+    @DisplayName("Registra cada chamada com as tags do Spring Data, separando sucesso e erro")
+    void deveRegistrarComTagsDoSpringData() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MetricaRepositorio metrica = new MetricaRepositorio(registry, CalculoRescisaoJdbcRepository.class);
+
+        assertEquals(1, metrica.medir("buscarPorIds", () -> 1));
+        assertEquals(2, metrica.medir("buscarPorIds", () -> 2));
+        assertThrows(QueryTimeoutException.class, () -> metrica.medir("buscarPorIds", () -> {
+            throw new QueryTimeoutException("lento");
+        }));
+
+        Timer sucesso = registry.get(MetricaRepositorio.METRICA)
+                .tags("repository", "CalculoRescisaoJdbcRepository", "method", "buscarPorIds",
+                        "state", "SUCCESS", "exception", "None")
+                .timer();
+        Timer erro = registry.get(MetricaRepositorio.METRICA)
+                .tags("method", "buscarPorIds", "state", "ERROR", "exception", "QueryTimeoutException")
+                .timer();
+        assertEquals(2, sucesso.count());
+        assertEquals(1, erro.count());
+        assertEquals(2, registry.getMeters().size());
+    }
+}
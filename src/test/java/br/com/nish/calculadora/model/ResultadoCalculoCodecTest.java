@@ -0,0 +1,97 @@
+package br.com.nish.calculadora.model;
+
+import br.com.nish.calculadora.dto.Componente;
+import br.com.nish.calculadora.dto.Verba;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes para ResultadoCalculoCodec e o dicionário de verbas")
+class ResultadoCalculoCodecTest {
+
+    private static final List<Componente> PROVENTOS = List.of(
+            new Componente(Verba.SALDO_SALARIO.nome(), new BigDecimal("3045.53")),
+            new Componente(Verba.DECIMO_TERCEIRO_PROPORCIONAL.nome(8), new BigDecimal("2900.50")),
+            new Componente(Verba.AVISO_PREVIO_INDENIZADO.nome(48), new BigDecimal("6961.20")),
+            new Componente(Verba.MULTA_FGTS.nome(), new BigDecimal("8572.08")),
+            new Componente("Gratificação avulsa", new BigDecimal("0.01")));
+
+    private static final List<Componente> DESCONTOS = List.of(
+            new Componente(Verba.INSS_SALDO_SALARIO.nome(), new BigDecimal("261.15")),
+            new Componente(Verba.IRRF_SALARIO.nome(), BigDecimal.ZERO.setScale(2)));
+
+    @Test
+    @DisplayName("Proventos e descontos voltam iguais, com nomes e centavos, inclusive verbas fora do dicionário")
+    void deveManterResultado() {
+        byte[] resultado = ResultadoCalculoCodec.codificar(PROVENTOS, DESCONTOS);
+
+        assertEquals(PROVENTOS, ResultadoCalculoCodec.decodificarProventos(resultado));
+        assertEquals(DESCONTOS, ResultadoCalculoCodec.decodificarDescontos(resultado));
+    }
+
+    @Test
+    @DisplayName("Resultado sem descontos (gravado antes deles) devolve descontos nulos")
+    void deveAceitarDescontosNulos() {
+        byte[] resultado = ResultadoCalculoCodec.codificar(PROVENTOS, null);
+
+        assertEquals(PROVENTOS, ResultadoCalculoCodec.decodificarProventos(resultado));
+        assertNull(ResultadoCalculoCodec.decodificarDescontos(resultado));
+    }
+
+    @Test
+    @DisplayName("Formato compacto ocupa bem menos que o JSON dos componentes")
+    void deveSerMenorQueJson() throws Exception {
+        byte[] json = new ObjectMapper().writeValueAsBytes(List.of(PROVENTOS, DESCONTOS));
+
+        byte[] resultado = ResultadoCalculoCodec.codificar(PROVENTOS, DESCONTOS);
+
+        assertTrue(resultado.length * 3 < json.length, resultado.length + " bytes vs " + json.length + " do JSON");
+    }
+
+    @Test
+    @DisplayName("Versão desconhecida é recusada em vez de lida errado")
+    void deveRecusarVersaoDesconhecida() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (CBORGenerator gerador = new CBORFactory().createGenerator(saida)) {
+            gerador.writeStartArray();
+            gerador.writeNumber(ResultadoCalculoCodec.VERSAO + 1);
+            gerador.writeStartArray();
+            gerador.writeEndArray();
+            gerador.writeNull();
+            gerador.writeEndArray();
+        }
+
+        assertThrows(IllegalStateException.class, () -> ResultadoCalculoCodec.decodificarProventos(saida.toByteArray()));
+    }
+
+    @Test
+    @DisplayName("Verbas: códigos distintos e ordenados das verbas do dicionário")
+    void deveListarVerbas() {
+        List<Componente> repetida = List.of(new Componente(Verba.MULTA_FGTS.nome(), BigDecimal.ONE));
+
+        assertArrayEquals(new Short[]{1, 2, 5, 8, 9, 11}, ResultadoCalculoCodec.verbas(PROVENTOS, DESCONTOS));
+        assertArrayEquals(new Short[]{8}, ResultadoCalculoCodec.verbas(repetida, repetida));
+    }
+
+    @Test
+    @DisplayName("Nome da verba com número resolve pelo prefixo; número malformado não é verba")
+    void deveResolverVerbaPorNome() {
+        assertEquals(Verba.DECIMO_TERCEIRO_PROPORCIONAL, Verba.porNome("13º proporcional (12 meses)"));
+        assertEquals(Verba.DECIMO_TERCEIRO_PROPORCIONAL, Verba.porNome("13º proporcional"));
+        assertEquals(12, Verba.DECIMO_TERCEIRO_PROPORCIONAL.parametro("13º proporcional (12 meses)"));
+        assertNull(Verba.porNome("13º proporcional (doze meses)"));
+        assertNull(Verba.porNome("Gratificação avulsa"));
+    }
+}
@@ -0,0 +1,132 @@
+package br.com.nish.calculadora.security;
+
+import br.com.nish.calculadora.auth.UsuarioJdbcRepository.StatusUsuario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testes para JwtAuthFilter")
+class JwtAuthFilterTest {
+
+    private JwtService jwtService;
+    private UserDetailsServiceImpl userDetailsService;
+    private UsuarioStatusCache usuarioStatusCache;
+    private SimpleMeterRegistry registry;
+    private JwtAuthFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtService, "secret", "0123456789abcdef0123456789abcdef0123456789abcdef");
+        ReflectionTestUtils.setField(jwtService, "issuer", "br.com.nish");
+        ReflectionTestUtils.setField(jwtService, "expirationMinutes", 60);
+        ReflectionTestUtils.setField(jwtService, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(jwtService, "cacheTtlMaximo", Duration.ofMinutes(10));
+        jwtService.init();
+
+        userDetailsService = mock(UserDetailsServiceImpl.class);
+        usuarioStatusCache = mock(UsuarioStatusCache.class);
+        registry = new SimpleMeterRegistry();
+        filtro = new JwtAuthFilter(userDetailsService, jwtService, usuarioStatusCache, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Token com 'uid' autentica a partir das claims, sem carregar o usuário do banco")
+    void deveMontarPrincipalDasClaims() throws Exception {
+        when(usuarioStatusCache.status(42L)).thenReturn(new StatusUsuario(true, List.of("ROLE_USER")));
+        String token = jwtService.generateToken("nish@example.com",
+                Map.of("uid", 42L, "username", "nish", "roles", List.of("ROLE_USER")));
+
+        filtrar(token);
+
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(new UsuarioAutenticado(42L, "nish@example.com", "nish", List.of("ROLE_USER")), autenticacao.getPrincipal());
+        assertEquals("ROLE_USER", autenticacao.getAuthorities().iterator().next().getAuthority());
+        verify(userDetailsService, never()).carregarPrincipal(anyString());
+    }
+
+    @Test
+    @DisplayName("Usuário inativo não é autenticado, mesmo com token válido")
+    void naoDeveAutenticarUsuarioInativo() throws Exception {
+        when(usuarioStatusCache.status(42L)).thenReturn(new StatusUsuario(false, List.of("ROLE_USER")));
+        String token = jwtService.generateToken("nish@example.com", Map.of("uid", 42L, "roles", List.of("ROLE_USER")));
+
+        filtrar(token);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("Perfis vêm do status atual, não da claim: perfil retirado deixa de valer antes de o token expirar")
+    void deveUsarPerfisAtuaisEmVezDaClaim() throws Exception {
+        when(usuarioStatusCache.status(42L)).thenReturn(new StatusUsuario(true, List.of("ROLE_USER")));
+        String token = jwtService.generateToken("nish@example.com",
+                Map.of("uid", 42L, "username", "nish", "roles", List.of("ROLE_ADMIN", "ROLE_USER")));
+
+        filtrar(token);
+
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(List.of("ROLE_USER"), autenticacao.getAuthorities().stream().map(a -> a.getAuthority()).toList());
+    }
+
+    @Test
+    @DisplayName("Token antigo, sem 'uid', usa o caminho que consulta o banco")
+    void deveUsarCaminhoAntigoSemUid() throws Exception {
+        UsuarioAutenticado usuario = new UsuarioAutenticado(7L, "antigo@example.com", "antigo", List.of("ROLE_USER"));
+        when(userDetailsService.carregarPrincipal("antigo@example.com")).thenReturn(usuario);
+        String token = jwtService.generateToken("antigo@example.com", Map.of("roles", List.of("ROLE_USER")));
+
+        filtrar(token);
+
+        assertEquals(usuario, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(usuarioStatusCache, never()).status(any());
+    }
+
+    @Test
+    @DisplayName("Métricas separam a verificação do token da consulta do usuário e contam cada resultado")
+    void deveRegistrarMetricasPorEtapa() throws Exception {
+        when(usuarioStatusCache.status(42L)).thenReturn(new StatusUsuario(true, List.of("ROLE_USER")));
+
+        filtrar(jwtService.generateToken("nish@example.com", Map.of("uid", 42L)));
+        SecurityContextHolder.clearContext();
+        filtrar("token-adulterado");
+
+        assertEquals(1, registry.get("seguranca.jwt.verificacao").tag("resultado", "valido").timer().count());
+        assertEquals(1, registry.get("seguranca.jwt.verificacao").tag("resultado", "invalido").timer().count());
+        assertEquals(1, registry.get("seguranca.usuario.consulta").tag("origem", "claims").timer().count());
+        assertEquals(1.0, registry.get("seguranca.autenticacao").tag("resultado", "autenticado").counter().count());
+        assertEquals(1.0, registry.get("seguranca.autenticacao").tag("resultado", "token_invalido").counter().count());
+    }
+
+    private void filtrar(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.nish.calculadora.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes para JwtService")
+class JwtServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtService = novoJwtService(60);
+    }
+
+    @Test
+    @DisplayName("Token válido é verificado uma vez e depois servido do cache")
+    void deveServirTokenRepetidoDoCache() {
+        String token = jwtService.generateToken("nish@example.com", Map.of("username", "nish"));
+
+        Optional<Claims> primeira = jwtService.verificar(token);
+        Optional<Claims> segunda = jwtService.verificar(token);
+
+        assertTrue(primeira.isPresent());
+        assertEquals("nish@example.com", segunda.orElseThrow().getSubject());
+        assertEquals(1.0, contagem("hit"));
+        assertEquals(1.0, contagem("miss"));
+    }
+
+    @Test
+    @DisplayName("Token adulterado é rejeitado e não entra no cache")
+    void deveRejeitarTokenAdulterado() {
+        String token = jwtService.generateToken("nish@example.com", Map.of());
+        String adulterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertTrue(jwtService.verificar(adulterado).isEmpty());
+        assertTrue(jwtService.verificar(adulterado).isEmpty());
+        assertEquals(0.0, contagem("hit"));
+    }
+
+    @Test
+    @DisplayName("Token expirado é rejeitado")
+    void deveRejeitarTokenExpirado() {
+        String expirado = novoJwtService(-1).generateToken("nish@example.com", Map.of());
+
+        assertTrue(jwtService.verificar(expirado).isEmpty());
+    }
+
+    private JwtService novoJwtService(int expirationMinutes) {
+        JwtService service = new JwtService(meterRegistry);
+        ReflectionTestUtils.setField(service, "secret", "0123456789abcdef0123456789abcdef0123456789abcdef");
+        ReflectionTestUtils.setField(service, "issuer", "br.com.nish");
+        ReflectionTestUtils.setField(service, "expirationMinutes", expirationMinutes);
+        ReflectionTestUtils.setField(service, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(service, "cacheTtlMaximo", Duration.ofMinutes(10));
+        service.init();
+        return service;
+    }
+
+    private double contagem(String resultado) {
+        return meterRegistry.get("cache.gets").tag("cache", "jwt.verificacao").tag("result", resultado)
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.nish.calculadora.security;
+
+import br.com.nish.calculadora.auth.RefreshToken;
+import br.com.nish.calculadora.auth.RefreshTokenRepository;
+import br.com.nish.calculadora.auth.Usuario;
+import br.com.nish.calculadora.auth.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testes para RefreshTokenService")
+class RefreshTokenServiceTest {
+
+    // Tabela refresh_tokens em memória, indexada pelo hash.
+    private final Map<String, RefreshToken> tokens = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private RefreshTokenRepository repository;
+    private Usuario usuario;
+    private SimpleMeterRegistry registry;
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RefreshTokenRepository.class);
+        when(repository.save(any())).thenAnswer(inv -> {
+            RefreshToken token = inv.getArgument(0);
+            token.setId(ids.incrementAndGet());
+            tokens.put(token.getTokenHash(), token);
+            return token;
+        });
+        when(repository.findByTokenHash(any())).thenAnswer(inv -> Optional.ofNullable(tokens.get(inv.<String>getArgument(0))));
+        when(repository.marcarUsado(any(), any())).thenAnswer(inv -> {
+            RefreshToken token = porId(inv.getArgument(0));
+            if (token.getUsadoEm() != null || token.getRevogadoEm() != null) {
+                return 0;
+            }
+            token.setUsadoEm(inv.getArgument(1));
+            return 1;
+        });
+        when(repository.revogarFamilia(any(), any())).thenAnswer(inv -> {
+            UUID familia = inv.getArgument(0);
+            tokens.values().stream().filter(t -> t.getFamilia().equals(familia)).forEach(t -> t.setRevogadoEm(inv.getArgument(1)));
+            return 1;
+        });
+
+        usuario = new Usuario();
+        usuario.setId(1L);
+        UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+        when(usuarioRepository.findById(1L)).thenAnswer(inv -> Optional.of(usuario));
+        registry = new SimpleMeterRegistry();
+        service = new RefreshTokenService(repository, usuarioRepository, registry, Duration.ofDays(30));
+    }
+
+    @Test
+    @DisplayName("Renovação troca o token por outro da mesma família, e só o hash fica gravado")
+    void deveRotacionarNaMesmaFamilia() {
+        String primeiro = service.emitir(1L);
+
+        RefreshTokenService.Renovacao renovacao = service.renovar(primeiro).orElseThrow();
+
+        assertEquals(usuario, renovacao.usuario());
+        assertNotEquals(primeiro, renovacao.refreshToken());
+        assertFalse(tokens.containsKey(primeiro), "o token em claro não deve ser gravado");
+        RefreshToken antigo = tokens.get(JwtService.hash(primeiro));
+        RefreshToken novo = tokens.get(JwtService.hash(renovacao.refreshToken()));
+        assertNotNull(antigo.getUsadoEm());
+        assertEquals(antigo.getFamilia(), novo.getFamilia());
+        assertTrue(service.renovar(renovacao.refreshToken()).isPresent());
+        assertEquals(2.0, registry.get("seguranca.refresh").tag("resultado", "renovado").counter().count());
+    }
+
+    @Test
+    @DisplayName("Token já usado apresentado de novo revoga a família inteira")
+    void deveRevogarFamiliaNoReuso() {
+        String primeiro = service.emitir(1L);
+        String segundo = service.renovar(primeiro).orElseThrow().refreshToken();
+
+        assertTrue(service.renovar(primeiro).isEmpty());
+        assertTrue(service.renovar(segundo).isEmpty(), "o token legítimo mais recente também deixa de valer");
+        assertEquals(1.0, registry.get("seguranca.refresh").tag("resultado", "reutilizado").counter().count());
+    }
+
+    @Test
+    @DisplayName("Token expirado ou desconhecido é rejeitado sem ser marcado como usado")
+    void deveRejeitarExpiradoOuDesconhecido() {
+        String token = service.emitir(1L);
+        tokens.get(JwtService.hash(token)).setExpiraEm(OffsetDateTime.now().minusSeconds(1));
+
+        assertTrue(service.renovar(token).isEmpty());
+        assertTrue(service.renovar("nao-existe").isEmpty());
+        verify(repository, never()).marcarUsado(anyLong(), any());
+        assertEquals(2.0, registry.get("seguranca.refresh").tag("resultado", "invalido").counter().count());
+    }
+
+    @Test
+    @DisplayName("Usuário inativo não renova e perde a família")
+    void deveRejeitarUsuarioInativo() {
+        String token = service.emitir(1L);
+        usuario.setAtivo(false);
+
+        assertTrue(service.renovar(token).isEmpty());
+        verify(repository).revogarFamilia(any(), any());
+    }
+
+    private RefreshToken porId(Long id) {
+        return tokens.values().stream().filter(t -> id.equals(t.getId())).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.nish.calculadora.security;
+
+import br.com.nish.calculadora.auth.Role;
+import br.com.nish.calculadora.auth.Usuario;
+import br.com.nish.calculadora.auth.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testes para UsuarioAuthenticationProvider")
+class UsuarioAuthenticationProviderTest {
+
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+    private UsuarioRepository usuarioRepository;
+    private VerificadorSenha verificadorSenha;
+    private UsuarioAuthenticationProvider provider;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository = mock(UsuarioRepository.class);
+        verificadorSenha = mock(VerificadorSenha.class);
+        when(verificadorSenha.confere(anyString(), anyString()))
+                .thenAnswer(inv -> encoder.matches(inv.getArgument(0), inv.getArgument(1)));
+        provider = new UsuarioAuthenticationProvider(usuarioRepository, verificadorSenha, encoder);
+
+        Role role = new Role();
+        role.setName("ROLE_USER");
+        usuario = new Usuario();
+        usuario.setId(7L);
+        usuario.setEmail("nish@example.com");
+        usuario.setSenhaHash(encoder.encode("SenhaForte123!"));
+        usuario.setRoles(Set.of(role));
+        when(usuarioRepository.findByUsernameOrEmail("nish@example.com", "nish@example.com")).thenReturn(Optional.of(usuario));
+    }
+
+    @Test
+    @DisplayName("Login válido consulta o usuário uma vez e o devolve como principal")
+    void deveAutenticarComUmaConsulta() {
+        Authentication autenticado = provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("nish@example.com", "SenhaForte123!"));
+
+        assertSame(usuario, autenticado.getPrincipal());
+        assertEquals(List.of("ROLE_USER"), autenticado.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        verify(usuarioRepository).findByUsernameOrEmail("nish@example.com", "nish@example.com");
+        verifyNoMoreInteractions(usuarioRepository);
+    }
+
+    @Test
+    @DisplayName("Senha errada e usuário inativo são recusados")
+    void deveRecusarSenhaErradaEUsuarioInativo() {
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("nish@example.com", "errada")));
+
+        usuario.setAtivo(false);
+        assertThrows(DisabledException.class, () -> provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("nish@example.com", "SenhaForte123!")));
+    }
+
+    @Test
+    @DisplayName("Login inexistente também passa pela verificação de senha")
+    void deveVerificarSenhaMesmoSemUsuario() {
+        when(usuarioRepository.findByUsernameOrEmail(any(), any())).thenReturn(Optional.empty());
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("ninguem@example.com", "SenhaForte123!")));
+        verify(verificadorSenha).confere(eq("SenhaForte123!"), anyString());
+    }
+}
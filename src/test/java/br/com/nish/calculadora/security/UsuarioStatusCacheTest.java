@@ -0,0 +1,114 @@
+package br.com.nish.calculadora.security;
+
+import br.com.nish.calculadora.auth.UsuarioJdbcRepository;
+import br.com.nish.calculadora.auth.UsuarioJdbcRepository.StatusUsuario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testes para UsuarioStatusCache")
+class UsuarioStatusCacheTest {
+
+    private static final StatusUsuario ATIVO = new StatusUsuario(true, List.of("ROLE_USER"));
+    private static final StatusUsuario INATIVO = new StatusUsuario(false, List.of("ROLE_USER"));
+
+    private UsuarioJdbcRepository usuarioRepository;
+    private UsuarioStatusCache cache;
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository = mock(UsuarioJdbcRepository.class);
+        cache = new UsuarioStatusCache(usuarioRepository, new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    @DisplayName("Requisições simultâneas para o mesmo usuário fazem uma única consulta")
+    void deveConsultarUmaVezEmRequisicoesSimultaneas() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(usuarioRepository.status(1L)).thenAnswer(inv -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return Optional.of(ATIVO);
+        });
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<StatusUsuario>> consultas = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                consultas.add(pool.submit(() -> cache.status(1L)));
+            }
+            Thread.sleep(100);
+            liberar.countDown();
+            for (Future<StatusUsuario> consulta : consultas) {
+                assertEquals(ATIVO, consulta.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(usuarioRepository, times(1)).status(1L);
+    }
+
+    @Test
+    @DisplayName("Falha na consulta não fica no cache")
+    void deveTentarDeNovoAposFalha() {
+        when(usuarioRepository.status(1L))
+                .thenThrow(new QueryTimeoutException("banco indisponível"))
+                .thenReturn(Optional.of(INATIVO));
+
+        assertThrows(QueryTimeoutException.class, () -> cache.status(1L).ativo());
+        assertFalse(cache.status(1L).ativo());
+        assertFalse(cache.status(1L).ativo());
+
+        verify(usuarioRepository, times(2)).status(1L);
+    }
+
+    @Test
+    @DisplayName("Usuário desativado no banco é bloqueado quando o status expira (TTL)")
+    void deveConsultarDeNovoAposTtl() throws Exception {
+        UsuarioStatusCache ttlCurto = new UsuarioStatusCache(usuarioRepository, new SimpleMeterRegistry(), Duration.ofMillis(50), 100);
+        when(usuarioRepository.status(1L)).thenReturn(Optional.of(ATIVO)).thenReturn(Optional.of(INATIVO));
+
+        assertTrue(ttlCurto.status(1L).ativo());
+        assertTrue(ttlCurto.status(1L).ativo());
+        Thread.sleep(100);
+
+        assertFalse(ttlCurto.status(1L).ativo());
+    }
+
+    @Test
+    @DisplayName("Usuário inexistente é inativo e sem perfis; invalidar força nova consulta com os perfis atuais")
+    void deveConsultarDeNovoAposInvalidar() {
+        when(usuarioRepository.status(1L))
+                .thenReturn(Optional.of(new StatusUsuario(true, List.of("ROLE_ADMIN", "ROLE_USER"))))
+                .thenReturn(Optional.of(ATIVO));
+        when(usuarioRepository.status(2L)).thenReturn(Optional.empty());
+
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), cache.status(1L).roles());
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), cache.status(1L).roles());
+        cache.invalidar(1L);
+
+        assertEquals(ATIVO, cache.status(1L));
+        assertEquals(new StatusUsuario(false, List.of()), cache.status(2L));
+        verify(usuarioRepository, times(2)).status(1L);
+    }
+}
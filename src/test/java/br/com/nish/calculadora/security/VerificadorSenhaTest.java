@@ -0,0 +1,80 @@
+package br.com.nish.calculadora.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes para VerificadorSenha")
+class VerificadorSenhaTest {
+
+    private ThreadPoolTaskExecutor executor;
+    private SimpleMeterRegistry registry;
+    private VerificadorSenha verificador;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        registry = new SimpleMeterRegistry();
+        verificador = new VerificadorSenha(new BCryptPasswordEncoder(4), executor, registry, Duration.ofSeconds(3));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Confere a senha no pool e registra o tempo")
+    void deveConferirSenha() {
+        String hash = new BCryptPasswordEncoder(4).encode("SenhaForte123!");
+
+        assertTrue(verificador.confere("SenhaForte123!", hash));
+        assertFalse(verificador.confere("errada", hash));
+        assertEquals(2, registry.get("seguranca.senha.verificacao").timer().count());
+    }
+
+    @Test
+    @DisplayName("Com o pool e a fila ocupados, recusa na hora com o Retry-After configurado")
+    void deveRecusarComPoolCheio() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch ocupado = new CountDownLatch(1);
+        executor.execute(() -> {
+            ocupado.countDown();
+            await(liberar);
+        });
+        ocupado.await(5, TimeUnit.SECONDS);
+        executor.execute(() -> await(liberar));
+
+        LoginSobrecarregadoException e = assertThrows(LoginSobrecarregadoException.class,
+                () -> verificador.confere("SenhaForte123!", "$2a$04$qualquer"));
+
+        assertEquals(Duration.ofSeconds(3), e.getRetryAfter());
+        assertEquals(1.0, registry.get("seguranca.senha.rejeitadas").counter().count());
+        liberar.countDown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.auth.UsuarioJdbcRepository;
+import br.com.nish.calculadora.security.UsuarioStatusCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testes para AdministracaoUsuariosService")
+class AdministracaoUsuariosServiceTest {
+
+    private UsuarioJdbcRepository repositoryMock;
+    private UsuarioStatusCache cacheMock;
+    private AdministracaoUsuariosService service;
+
+    @BeforeEach
+    void setUp() {
+        repositoryMock = mock(UsuarioJdbcRepository.class);
+        cacheMock = mock(UsuarioStatusCache.class);
+        service = new AdministracaoUsuariosService(repositoryMock, cacheMock);
+    }
+
+    @Test
+    @DisplayName("Desativar ou trocar perfis descarta o status em cache do usuário")
+    void deveInvalidarCacheAposAlterar() {
+        when(repositoryMock.atualizarAtivo(7L, false)).thenReturn(true);
+        when(repositoryMock.substituirRoles(8L, Set.of("ROLE_USER"))).thenReturn(true);
+
+        assertTrue(service.alterarAtivo(7L, false));
+        assertTrue(service.alterarRoles(8L, Set.of("ROLE_USER")));
+
+        verify(cacheMock).invalidar(7L);
+        verify(cacheMock).invalidar(8L);
+    }
+
+    @Test
+    @DisplayName("Usuário inexistente ou perfil inválido não mexe no cache")
+    void naoDeveInvalidarSemAlteracao() {
+        when(repositoryMock.atualizarAtivo(7L, false)).thenReturn(false);
+        when(repositoryMock.substituirRoles(7L, Set.of("ROLE_DONO"))).thenThrow(new IllegalArgumentException("Perfil inexistente"));
+
+        assertFalse(service.alterarAtivo(7L, false));
+        assertThrows(IllegalArgumentException.class, () -> service.alterarRoles(7L, Set.of("ROLE_DONO")));
+
+        verify(cacheMock, never()).invalidar(any());
+    }
+}
@@ -0,0 +1,139 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.model.CalculoRescisao;
+import br.com.nish.calculadora.model.CalculoRescisaoIdAllocator;
+import br.com.nish.calculadora.model.CalculoRescisaoJdbcRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes para CalculoLoteService")
+class CalculoLoteServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private CalculoRescisaoJdbcRepository jdbcRepositoryMock;
+    private CalculoLoteService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcRepositoryMock = Mockito.mock(CalculoRescisaoJdbcRepository.class);
+        CalculoRescisaoIdAllocator idAllocatorMock = Mockito.mock(CalculoRescisaoIdAllocator.class);
+        AtomicLong ids = new AtomicLong(100);
+        Mockito.when(idAllocatorMock.proximoId()).thenAnswer(inv -> ids.incrementAndGet());
+        service = new CalculoLoteService(
+                new CalculoRescisaoService(new DescontosService(new SimpleMeterRegistry()), new SimpleMeterRegistry()),
+                new CalculoRescisaoMapper(new SimpleMeterRegistry()),
+                jdbcRepositoryMock,
+                idAllocatorMock,
+                new LinhaImportacaoParser(objectMapper),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                objectMapper,
+                Runnable::run,
+                2,
+                4
+        );
+    }
+
+    @Test
+    @DisplayName("NDJSON: linhas válidas são calculadas e gravadas; linhas inválidas viram erro sem abortar o lote")
+    void deveProcessarNdjsonComErrosPorLinha() throws Exception {
+        String entrada = """
+                {"tipoRescisao":"SEM_JUSTA_CAUSA","salarioMensal":3000.00,"dataAdmissao":"2023-01-10","dataDesligamento":"2025-08-29","saldoFgtsDepositado":5000.00}
+                {"tipoRescisao":"PEDIDO_DEMISSAO","dataAdmissao":"2023-01-10","dataDesligamento":"2025-08-29"}
+                isto não é json
+
+                {"tipoRescisao":"JUSTA_CAUSA","salarioMensal":2500.00,"dataAdmissao":"2020-03-01","dataDesligamento":"2025-02-10","saldoFgtsDepositado":0}
+                {"tipoRescisao":"ACORDO_484A","salarioMensal":4200.00,"dataAdmissao":"2019-05-20","dataDesligamento":"2025-06-30","saldoFgtsDepositado":12000.00}
+                """;
+
+        List<JsonNode> linhas = processar(entrada, LinhaImportacaoParser.APPLICATION_NDJSON);
+
+        // Erros saem na hora; os OK só depois do batch deles, com o id do histórico.
+        assertEquals(List.of(2, 3, 1, 5, 6), linhas.stream().map(l -> l.get("linha").asInt()).toList());
+        assertEquals("ERRO", linhas.get(0).get("status").asText());
+        assertTrue(linhas.get(0).get("erros").get(0).asText().startsWith("salarioMensal"));
+        assertEquals("ERRO", linhas.get(1).get("status").asText());
+        assertEquals(List.of("OK", "OK", "OK"), linhas.subList(2, 5).stream().map(l -> l.get("status").asText()).toList());
+        assertEquals(List.of(101L, 102L, 103L), linhas.subList(2, 5).stream().map(l -> l.get("id").asLong()).toList());
+
+        // 3 cálculos válidos com batch de 2 -> dois batches (2 + 1)
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CalculoRescisao>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(jdbcRepositoryMock, Mockito.times(2)).inserirEmLoteComId(captor.capture());
+        assertEquals(List.of(2, 1), captor.getAllValues().stream().map(List::size).toList());
+    }
+
+    @Test
+    @DisplayName("Batch com falha: grava linha a linha e cada linha sai uma única vez, OK com id ou erro de gravação")
+    void deveEmitirUmResultadoPorLinhaQuandoBatchFalha() throws Exception {
+        Mockito.doThrow(new DataAccessResourceFailureException("batch"))
+                .doNothing()
+                .doThrow(new DataAccessResourceFailureException("linha"))
+                .when(jdbcRepositoryMock).inserirEmLoteComId(Mockito.anyList());
+        String entrada = """
+                {"tipoRescisao":"SEM_JUSTA_CAUSA","salarioMensal":3000.00,"dataAdmissao":"2023-01-10","dataDesligamento":"2025-08-29"}
+                {"tipoRescisao":"JUSTA_CAUSA","salarioMensal":2500.00,"dataAdmissao":"2020-03-01","dataDesligamento":"2025-02-10"}
+                """;
+
+        List<JsonNode> linhas = processar(entrada, LinhaImportacaoParser.APPLICATION_NDJSON);
+
+        assertEquals(2, linhas.size());
+        assertEquals(1, linhas.get(0).get("linha").asInt());
+        assertEquals("OK", linhas.get(0).get("status").asText());
+        assertEquals(101L, linhas.get(0).get("id").asLong());
+        assertEquals(2, linhas.get(1).get("linha").asInt());
+        assertEquals("ERRO", linhas.get(1).get("status").asText());
+        assertEquals("Falha ao gravar no histórico", linhas.get(1).get("erros").get(0).asText());
+        assertFalse(linhas.get(1).has("id"));
+        assertFalse(linhas.get(1).has("resultado"));
+        // O batch e depois cada linha sozinha.
+        Mockito.verify(jdbcRepositoryMock, Mockito.times(3)).inserirEmLoteComId(Mockito.anyList());
+    }
+
+    @Test
+    @DisplayName("CSV: o cabeçalho define os campos e o resultado bate com o cálculo individual")
+    void deveProcessarCsvComCabecalho() throws Exception {
+        String entrada = """
+                tipoRescisao,salarioMensal,dataAdmissao,dataDesligamento,avisoIndenizado,feriasVencidasDias,saldoFgtsDepositado,nomeEmpregado
+                SEM_JUSTA_CAUSA,3000.00,2023-01-10,2025-08-15,false,10,5000.00,"Silva, João"
+                SEM_JUSTA_CAUSA,3000.00,2023-01-10
+                """;
+
+        List<JsonNode> linhas = processar(entrada, LinhaImportacaoParser.TEXT_CSV);
+
+        assertEquals(2, linhas.size());
+        assertEquals("ERRO", linhas.get(0).get("status").asText());
+        assertEquals("OK", linhas.get(1).get("status").asText());
+        assertEquals(2, linhas.get(1).get("linha").asInt());
+        assertEquals("Silva, João", linhas.get(1).get("nomeEmpregado").asText());
+    }
+
+    private List<JsonNode> processar(String entrada, org.springframework.http.MediaType tipo) throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        service.processar(new ByteArrayInputStream(entrada.getBytes(StandardCharsets.UTF_8)), tipo, 1L, saida);
+
+        List<JsonNode> linhas = new ArrayList<>();
+        for (String linha : saida.toString(StandardCharsets.UTF_8).split("\n")) {
+            linhas.add(objectMapper.readTree(linha));
+        }
+        return linhas;
+    }
+}
@@ -0,0 +1,159 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.dto.CalculoRescisaoRequest;
+import br.com.nish.calculadora.dto.CalculoRescisaoResponse;
+import br.com.nish.calculadora.dto.TipoRescisao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes para CalculoRescisaoCache")
+class CalculoRescisaoCacheTest {
+
+    private AtomicInteger execucoes;
+    private MotorCalculoRescisao motor;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        execucoes = new AtomicInteger();
+        CalculoRescisaoService real = new CalculoRescisaoService(new DescontosService(new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        motor = req -> {
+            execucoes.incrementAndGet();
+            return real.calcular(req);
+        };
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Entrada repetida vem do cache, mesmo com escala e nome diferentes")
+    void deveReaproveitarEntradaNormalizada() {
+        CalculoRescisaoCache cache = novoCache(true, DataSize.ofMegabytes(1));
+
+        CalculoRescisaoResponse primeira = cache.calcular(request("3000", "Ana"));
+        CalculoRescisaoResponse segunda = cache.calcular(request("3000.00", "Beatriz"));
+
+        assertEquals(1, execucoes.get());
+        assertEquals(primeira, segunda);
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "rescisao.calculo").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "rescisao.calculo").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Campo que o motor usa muda a chave")
+    void deveRecalcularQuandoEntradaMuda() {
+        CalculoRescisaoCache cache = novoCache(true, DataSize.ofMegabytes(1));
+
+        cache.calcular(request("3000", "Ana"));
+        CalculoRescisaoRequest comDependente = request("3000", "Ana");
+        comDependente.setNumeroDependentes(2);
+        cache.calcular(comDependente);
+
+        assertEquals(2, execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Alterar a resposta devolvida não contamina o cache")
+    void deveDevolverCopias() {
+        CalculoRescisaoCache cache = novoCache(true, DataSize.ofMegabytes(1));
+
+        CalculoRescisaoResponse primeira = cache.calcular(request("3000", "Ana"));
+        primeira.setId(42L);
+        primeira.getComponentes().clear();
+        CalculoRescisaoResponse segunda = cache.calcular(request("3000", "Ana"));
+
+        assertNotSame(primeira, segunda);
+        assertNull(segunda.getId());
+        assertTrue(!segunda.getComponentes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Chamadas simultâneas com a mesma entrada executam o motor uma vez")
+    void deveCalcularUmaVezEmChamadasSimultaneas() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        MotorCalculoRescisao lento = motor;
+        motor = req -> {
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return lento.calcular(req);
+        };
+        CalculoRescisaoCache cache = novoCache(true, DataSize.ofMegabytes(1));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CalculoRescisaoResponse>> chamadas = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                chamadas.add(pool.submit(() -> cache.calcular(request("3000", "Ana"))));
+            }
+            Thread.sleep(100);
+            liberar.countDown();
+            for (Future<CalculoRescisaoResponse> chamada : chamadas) {
+                chamada.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Limite em bytes despeja as entradas mais antigas e conta as evicções")
+    void deveDespejarAoPassarDoLimite() {
+        CalculoRescisaoCache cache = novoCache(true, DataSize.ofKilobytes(4));
+
+        for (int i = 0; i < 50; i++) {
+            cache.calcular(request(String.valueOf(2000 + i), "Ana"));
+        }
+
+        assertTrue(registry.get("cache.evictions").tag("cache", "rescisao.calculo").functionCounter().count() > 0);
+    }
+
+    @Test
+    @DisplayName("Desligado, todo cálculo vai ao motor")
+    void deveDelegarQuandoDesligado() {
+        CalculoRescisaoCache cache = novoCache(false, DataSize.ofMegabytes(1));
+
+        cache.calcular(request("3000", "Ana"));
+        cache.calcular(request("3000", "Ana"));
+
+        assertEquals(2, execucoes.get());
+    }
+
+    private CalculoRescisaoCache novoCache(boolean habilitado, DataSize memoriaMax) {
+        return new CalculoRescisaoCache(motor, registry, habilitado, memoriaMax, Duration.ofHours(1));
+    }
+
+    private static CalculoRescisaoRequest request(String salario, String nome) {
+        return CalculoRescisaoRequest.builder()
+                .tipoRescisao(TipoRescisao.SEM_JUSTA_CAUSA)
+                .salarioMensal(new BigDecimal(salario))
+                .dataAdmissao(LocalDate.of(2022, 1, 10))
+                .dataDesligamento(LocalDate.of(2025, 8, 1))
+                .avisoIndenizado(true)
+                .saldoFgtsDepositado(new BigDecimal("5000"))
+                .nomeEmpregado(nome)
+                .build();
+    }
+}
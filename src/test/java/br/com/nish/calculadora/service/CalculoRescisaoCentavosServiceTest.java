@@ -0,0 +1,123 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.dto.CalculoRescisaoRequest;
+import br.com.nish.calculadora.dto.TipoRescisao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes diferenciais: o motor em centavos deve produzir exatamente o mesmo resultado do motor BigDecimal.
+ */
+@DisplayName("Testes diferenciais para CalculoRescisaoCentavosService")
+class CalculoRescisaoCentavosServiceTest {
+
+    private SimpleMeterRegistry registry;
+    private CalculoRescisaoService motorBigDecimal;
+    private CalculoRescisaoCentavosService motorCentavos;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        DescontosService descontosService = new DescontosService(registry);
+        motorBigDecimal = new CalculoRescisaoService(descontosService, registry);
+        motorCentavos = new CalculoRescisaoCentavosService(motorBigDecimal, descontosService, registry);
+    }
+
+    @ParameterizedTest
+    @EnumSource(TipoRescisao.class)
+    @DisplayName("Deve bater com o motor BigDecimal em cenários fixos de cada tipo de rescisão")
+    void deveBaterComMotorBigDecimalPorTipo(TipoRescisao tipo) {
+        String[] salarios = {"0.00", "1.00", "1412.00", "1500.01", "3000.00", "4350.75", "7800.00", "12345.67", "98765.43"};
+        LocalDate[][] periodos = {
+                {LocalDate.of(2023, 1, 10), LocalDate.of(2025, 8, 29)},
+                {LocalDate.of(2025, 2, 14), LocalDate.of(2025, 2, 28)},
+                {LocalDate.of(2010, 6, 30), LocalDate.of(2025, 12, 31)},
+                {LocalDate.of(2024, 2, 29), LocalDate.of(2025, 3, 1)},
+                {LocalDate.of(2025, 7, 1), LocalDate.of(2025, 6, 1)}
+        };
+        for (String salario : salarios) {
+            for (LocalDate[] periodo : periodos) {
+                for (boolean aviso : new boolean[]{true, false}) {
+                    CalculoRescisaoRequest req = CalculoRescisaoRequest.builder()
+                            .tipoRescisao(tipo)
+                            .salarioMensal(new BigDecimal(salario))
+                            .dataAdmissao(periodo[0])
+                            .dataDesligamento(periodo[1])
+                            .avisoIndenizado(aviso)
+                            .feriasVencidasDias(aviso ? 17 : 0)
+                            .saldoFgtsDepositado(new BigDecimal("8123.45"))
+                            .numeroDependentes(aviso ? 0 : 2)
+                            .build();
+                    assertEquals(motorBigDecimal.calcular(req), motorCentavos.calcularEmCentavos(req), req.toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve bater com o motor BigDecimal em entradas aleatórias")
+    void deveBaterComMotorBigDecimalEmEntradasAleatorias() {
+        Random random = new Random(20250829L);
+        TipoRescisao[] tipos = TipoRescisao.values();
+        LocalDate inicio = LocalDate.of(2005, 1, 1);
+
+        for (int i = 0; i < 20_000; i++) {
+            LocalDate admissao = inicio.plusDays(random.nextInt(7300));
+            CalculoRescisaoRequest req = CalculoRescisaoRequest.builder()
+                    .tipoRescisao(tipos[random.nextInt(tipos.length)])
+                    .salarioMensal(BigDecimal.valueOf(random.nextInt(5_000_000), 2))
+                    .dataAdmissao(admissao)
+                    .dataDesligamento(admissao.plusDays(random.nextInt(5000) - 30))
+                    .avisoIndenizado(random.nextBoolean())
+                    .feriasVencidasDias(random.nextInt(61))
+                    .saldoFgtsDepositado(random.nextInt(10) == 0 ? null : BigDecimal.valueOf(random.nextInt(30_000_000), 2))
+                    .numeroDependentes(random.nextInt(6))
+                    .build();
+            assertEquals(motorBigDecimal.calcular(req), motorCentavos.calcularEmCentavos(req), req.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Entradas com mais de duas casas decimais devem ser delegadas ao motor BigDecimal")
+    void deveDelegarEntradasForaDosCentavos() {
+        CalculoRescisaoRequest req = CalculoRescisaoRequest.builder()
+                .tipoRescisao(TipoRescisao.SEM_JUSTA_CAUSA)
+                .salarioMensal(new BigDecimal("3000.005"))
+                .dataAdmissao(LocalDate.of(2023, 1, 10))
+                .dataDesligamento(LocalDate.of(2025, 8, 29))
+                .saldoFgtsDepositado(new BigDecimal("5000.00"))
+                .build();
+
+        assertThrows(ArithmeticException.class, () -> motorCentavos.calcularEmCentavos(req));
+        assertEquals(motorBigDecimal.calcular(req), motorCentavos.calcular(req));
+    }
+
+    @Test
+    @DisplayName("Cálculo delegado ao motor BigDecimal conta uma única vez, no motor em centavos")
+    void deveMedirDelegacaoUmaVez() {
+        CalculoRescisaoRequest req = CalculoRescisaoRequest.builder()
+                .tipoRescisao(TipoRescisao.PEDIDO_DEMISSAO)
+                .salarioMensal(new BigDecimal("3000.005"))
+                .dataAdmissao(LocalDate.of(2023, 1, 10))
+                .dataDesligamento(LocalDate.of(2025, 8, 29))
+                .build();
+
+        motorCentavos.calcular(req);
+
+        assertEquals(1, registry.get("rescisao.calculo").tag("motor", "centavos").tag("tipo", "PEDIDO_DEMISSAO").timer().count());
+        assertEquals(0, registry.get("rescisao.calculo").tag("motor", "bigdecimal").tag("tipo", "PEDIDO_DEMISSAO").timer().count());
+        assertTrue(registry.get("rescisao.descontos").tag("imposto", "inss").timer().count() > 0);
+    }
+}
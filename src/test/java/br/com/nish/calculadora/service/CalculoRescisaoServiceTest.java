@@ -3,6 +3,7 @@ package br.com.nish.calculadora.service;
 import br.com.nish.calculadora.dto.CalculoRescisaoRequest;
 import br.com.nish.calculadora.dto.CalculoRescisaoResponse;
 import br.com.nish.calculadora.dto.TipoRescisao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,6 +11,8 @@ import org.mockito.Mockito;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
@@ -28,7 +31,7 @@ class CalculoRescisaoServiceTest {
         // Isso nos permite controlar o que seus métodos retornam durante os testes.
         descontosServiceMock = Mockito.mock(DescontosService.class);
         // ALTERADO: Injetamos o mock no construtor do serviço principal.
-        service = new CalculoRescisaoService(descontosServiceMock);
+        service = new CalculoRescisaoService(descontosServiceMock, new SimpleMeterRegistry());
     }
 
     @Test
@@ -130,4 +133,31 @@ class CalculoRescisaoServiceTest {
         assertEquals(totalDescontosEsperado, resp.getTotalDescontos());
         assertEquals(totalLiquidoEsperado, resp.getTotalLiquido());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Comparação de tipos dá o mesmo resultado que calcular cada tipo, com as bases comuns calculadas uma vez")
+    void compararTiposDeveIgualarCalculoPorTipo() {
+        DescontosService descontos = Mockito.spy(new DescontosService(new SimpleMeterRegistry()));
+        CalculoRescisaoService real = new CalculoRescisaoService(descontos, new SimpleMeterRegistry());
+        CalculoRescisaoRequest req = CalculoRescisaoRequest.builder()
+                .salarioMensal(new BigDecimal("6500.00"))
+                .dataAdmissao(LocalDate.of(2017, 2, 13))
+                .dataDesligamento(LocalDate.of(2025, 11, 20))
+                .avisoIndenizado(true)
+                .feriasVencidasDias(30)
+                .saldoFgtsDepositado(new BigDecimal("41000.00"))
+                .numeroDependentes(2)
+                .build();
+
+        Map<TipoRescisao, CalculoRescisaoResponse> comparacao = real.compararTipos(req);
+
+        // Saldo de salário, 13º de 12 meses (aviso cheio e meio aviso do acordo terminam em dezembro) e 13º zerado
+        // (justa causa): cinco tipos, três bases de INSS.
+        Mockito.verify(descontos, Mockito.times(3)).calcularInss(any(BigDecimal.class));
+        assertEquals(List.of(TipoRescisao.values()), List.copyOf(comparacao.keySet()));
+        for (TipoRescisao tipo : TipoRescisao.values()) {
+            req.setTipoRescisao(tipo);
+            assertEquals(real.calcular(req), comparacao.get(tipo), tipo.name());
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package br.com.nish.calculadora.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -14,7 +16,7 @@ class DescontosServiceTest {
 
     @BeforeEach
     void setUp() {
-        descontosService = new DescontosService();
+        descontosService = new DescontosService(new SimpleMeterRegistry());
     }
 
     @Test
@@ -76,4 +78,73 @@ class DescontosServiceTest {
         BigDecimal expected = new BigDecimal("523.25");
         assertEquals(expected, descontosService.calcularIrrf(baseTributavel, inss, dependentes));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Tabelas compiladas devem bater com o cálculo faixa a faixa em todas as bordas e valores intermediários")
+    void tabelasCompiladasDevemBaterComCalculoFaixaAFaixa() {
+        // Todos os centavos até 9.000,00 (cobre todas as faixas e o teto do INSS), mais valores com 3 casas decimais.
+        for (long centavos = -100; centavos <= 900_000; centavos++) {
+            BigDecimal base = BigDecimal.valueOf(centavos, 2);
+            BigDecimal inss = inssFaixaAFaixa(base);
+            assertEquals(inss, descontosService.calcularInss(base), base.toPlainString());
+            assertEquals(inss.movePointRight(2).longValueExact(), descontosService.calcularInssCentavos(centavos));
+
+            int dependentes = (int) (centavos % 3);
+            BigDecimal irrf = irrfFaixaAFaixa(base, inss, dependentes);
+            assertEquals(irrf, descontosService.calcularIrrf(base, inss, dependentes), base.toPlainString());
+            assertEquals(irrf.movePointRight(2).longValueExact(),
+                    descontosService.calcularIrrfCentavos(centavos, inss.movePointRight(2).longValueExact(), dependentes));
+        }
+        for (long milesimos = 0; milesimos <= 9_000_000; milesimos += 7) {
+            BigDecimal base = BigDecimal.valueOf(milesimos, 3);
+            BigDecimal inss = inssFaixaAFaixa(base);
+            assertEquals(inss, descontosService.calcularInss(base), base.toPlainString());
+            assertEquals(irrfFaixaAFaixa(base, BigDecimal.ZERO, 0), descontosService.calcularIrrf(base, BigDecimal.ZERO, 0));
+        }
+    }
+
+    // Implementação de referência: percorre as faixas como a versão original do serviço.
+    private static BigDecimal inssFaixaAFaixa(BigDecimal base) {
+        if (base.compareTo(BigDecimal.ZERO) <= 0) {
+            return new BigDecimal("0.00");
+        }
+        String[][] tabela = {{"1500.00", "0.075"}, {"2800.00", "0.09"}, {"4200.00", "0.12"}, {"7800.00", "0.14"}};
+        BigDecimal total = BigDecimal.ZERO;
+        BigDecimal anterior = BigDecimal.ZERO;
+        for (String[] faixa : tabela) {
+            BigDecimal teto = new BigDecimal(faixa[0]);
+            BigDecimal nestaFaixa = base.min(teto).subtract(anterior);
+            if (nestaFaixa.compareTo(BigDecimal.ZERO) > 0) {
+                total = total.add(nestaFaixa.multiply(new BigDecimal(faixa[1])));
+            }
+            anterior = teto;
+            if (base.compareTo(teto) <= 0) {
+                break;
+            }
+        }
+        return total.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal irrfFaixaAFaixa(BigDecimal base, BigDecimal inss, int dependentes) {
+        if (base.compareTo(BigDecimal.ZERO) <= 0) {
+            return new BigDecimal("0.00");
+        }
+        BigDecimal baseFinal = base.subtract(inss).subtract(new BigDecimal("189.59").multiply(new BigDecimal(dependentes)));
+        if (baseFinal.compareTo(BigDecimal.ZERO) < 0) {
+            return new BigDecimal("0.00");
+        }
+        String[][] tabela = {
+                {"2259.20", "0", "0"}, {"2826.65", "0.075", "169.44"}, {"3751.05", "0.15", "381.44"},
+                {"4664.68", "0.225", "662.77"}, {null, "0.275", "896.00"}
+        };
+        for (String[] faixa : tabela) {
+            if (faixa[0] == null || baseFinal.compareTo(new BigDecimal(faixa[0])) <= 0) {
+                BigDecimal imposto = baseFinal.multiply(new BigDecimal(faixa[1])).subtract(new BigDecimal(faixa[2]));
+                return imposto.compareTo(BigDecimal.ZERO) > 0
+                        ? imposto.setScale(2, RoundingMode.HALF_UP)
+                        : new BigDecimal("0.00");
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.dto.BuscaHistoricoFiltro;
+import br.com.nish.calculadora.dto.CalculoRescisaoExportacao;
+import br.com.nish.calculadora.model.CalculoRescisaoJdbcRepository;
+import br.com.nish.calculadora.service.ExportacaoHistoricoService.Formato;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testes para ExportacaoHistoricoService")
+class ExportacaoHistoricoServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final AtomicBoolean fechado = new AtomicBoolean();
+    private CalculoRescisaoJdbcRepository repositoryMock;
+    private ExportacaoHistoricoService service;
+
+    @BeforeEach
+    void setUp() {
+        repositoryMock = Mockito.mock(CalculoRescisaoJdbcRepository.class);
+        when(repositoryMock.percorrerParaExportacao(eq(7L), any(), eq(500))).thenAnswer(inv -> Stream.of(
+                linha(1L, "Ana Souza", null),
+                linha(2L, "Silva, \"Beto\"", LocalDate.of(2025, 3, 20)),
+                linha(3L, "=HYPERLINK(\"x\")", null)
+        ).onClose(() -> fechado.set(true)));
+        service = new ExportacaoHistoricoService(repositoryMock, objectMapper, new SimpleMeterRegistry(), 500);
+    }
+
+    @Test
+    @DisplayName("CSV: cabeçalho, uma linha por cálculo, aspas quando necessário e fórmulas neutralizadas")
+    void deveExportarCsv() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        long quantidade = service.exportar(7L, new BuscaHistoricoFiltro(), Formato.CSV, saida);
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, quantidade);
+        assertEquals(4, linhas.length);
+        assertTrue(linhas[0].startsWith("id,nome_empregado,tipo_rescisao,"));
+        assertEquals("1,Ana Souza,SEM_JUSTA_CAUSA,3000.00,2020-01-10,2025-03-10,true,5000.00,250.50,4749.50,,"
+                + "2025-03-11T09:30Z", linhas[1]);
+        assertTrue(linhas[2].startsWith("2,\"Silva, \"\"Beto\"\"\",SEM_JUSTA_CAUSA,"));
+        assertTrue(linhas[2].contains(",2025-03-20,"));
+        assertTrue(linhas[3].startsWith("3,\"'=HYPERLINK(\"\"x\"\")\","));
+        assertTrue(fechado.get());
+    }
+
+    @Test
+    @DisplayName("NDJSON: um objeto JSON por linha, com datas ISO")
+    void deveExportarNdjson() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        service.exportar(7L, new BuscaHistoricoFiltro(), Formato.NDJSON, saida);
+
+        String texto = saida.toString(StandardCharsets.UTF_8);
+        String[] linhas = texto.split("\n");
+        assertTrue(texto.endsWith("\n"));
+        assertEquals(3, linhas.length);
+        for (String linha : linhas) {
+            assertTrue(linha.startsWith("{\"id\":"), linha);
+        }
+        JsonNode segunda = objectMapper.readTree(linhas[1]);
+        assertEquals(2, segunda.get("id").asLong());
+        assertEquals("Silva, \"Beto\"", segunda.get("nomeEmpregado").asText());
+        assertEquals("2025-03-20", segunda.get("pagamentoAte").asText());
+        assertTrue(linhas[1].contains("\"totalLiquido\":4749.50"));
+        assertTrue(fechado.get());
+    }
+
+    private static CalculoRescisaoExportacao linha(Long id, String nome, LocalDate pagamentoAte) {
+        return new CalculoRescisaoExportacao(id, nome, "SEM_JUSTA_CAUSA", new BigDecimal("3000.00"),
+                LocalDate.of(2020, 1, 10), LocalDate.of(2025, 3, 10), true,
+                new BigDecimal("5000.00"), new BigDecimal("250.50"), new BigDecimal("4749.50"), pagamentoAte,
+                OffsetDateTime.of(2025, 3, 11, 9, 30, 0, 0, ZoneOffset.UTC));
+    }
+}
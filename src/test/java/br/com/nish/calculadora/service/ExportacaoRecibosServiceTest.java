@@ -0,0 +1,164 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.dto.Componente;
+import br.com.nish.calculadora.dto.ExportacaoRecibosRequest;
+import br.com.nish.calculadora.model.CalculoRescisao;
+import br.com.nish.calculadora.model.CalculoRescisaoJdbcRepository;
+import com.lowagie.text.pdf.PdfReader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testes para ExportacaoRecibosService")
+class ExportacaoRecibosServiceTest {
+
+    private static final LocalDate DE = LocalDate.of(2025, 1, 1);
+    private static final LocalDate ATE = LocalDate.of(2025, 1, 31);
+
+    private CalculoRescisaoJdbcRepository repository;
+    private ThreadPoolTaskExecutor executor;
+    private ExportacaoRecibosService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CalculoRescisaoJdbcRepository.class);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+        PdfGenerationService pdfGenerationService = new PdfGenerationService(new SimpleMeterRegistry());
+        ReciboPdfCache cache = new ReciboPdfCache(pdfGenerationService, new SimpleMeterRegistry(),
+                false, DataSize.ofMegabytes(1), "", DataSize.ofMegabytes(1));
+        service = new ExportacaoRecibosService(repository, cache, pdfGenerationService, executor, 2, 3);
+
+        // Keyset por id: páginas de 2 até esgotar os 5 cálculos do período.
+        when(repository.buscarPorDesligamento(eq(1L), eq(DE), eq(ATE), anyLong(), anyInt())).thenAnswer(inv -> {
+            long aposId = inv.getArgument(3);
+            int limite = inv.getArgument(4);
+            List<CalculoRescisao> pagina = new ArrayList<>();
+            for (long id = aposId + 1; id <= 5 && pagina.size() < limite; id++) {
+                pagina.add(calculo(id));
+            }
+            return pagina;
+        });
+        when(repository.buscarPorIds(eq(1L), any())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(1);
+            return ids.stream().filter(id -> id <= 5).map(ExportacaoRecibosServiceTest::calculo).toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("ZIP traz um PDF por cálculo do período, na ordem de id, lendo em páginas")
+    void deveExportarZipPorPeriodo() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportar(1L, ExportacaoRecibosRequest.builder().desligamentoDe(DE).desligamentoAte(ATE).build(), out);
+
+        List<String> entradas = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entrada;
+            while ((entrada = zip.getNextEntry()) != null) {
+                entradas.add(entrada.getName());
+                assertEquals(1, new PdfReader(zip.readAllBytes()).getNumberOfPages());
+            }
+        }
+        assertEquals(List.of("recibo_rescisao_1.pdf", "recibo_rescisao_2.pdf", "recibo_rescisao_3.pdf",
+                "recibo_rescisao_4.pdf", "recibo_rescisao_5.pdf"), entradas);
+        verify(repository).buscarPorDesligamento(1L, DE, ATE, 4L, 2);
+    }
+
+    @Test
+    @DisplayName("PDF consolidado tem uma página por cálculo encontrado entre os ids")
+    void deveExportarPdfConsolidadoPorIds() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportar(1L, ExportacaoRecibosRequest.builder()
+                .ids(List.of(4L, 2L, 99L, 2L, 5L))
+                .formato(ExportacaoRecibosRequest.Formato.PDF)
+                .build(), out);
+
+        assertEquals(3, new PdfReader(out.toByteArray()).getNumberOfPages());
+    }
+
+    @Test
+    @DisplayName("Exportação sem cálculos ainda gera um PDF válido")
+    void deveGerarPdfValidoSemCalculos() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportar(1L, ExportacaoRecibosRequest.builder()
+                .ids(List.of(100L))
+                .formato(ExportacaoRecibosRequest.Formato.PDF)
+                .build(), out);
+
+        assertEquals(1, new PdfReader(out.toByteArray()).getNumberOfPages());
+        assertTrue(out.size() > 0);
+    }
+
+    @Test
+    @DisplayName("Exportação usa o recibo já em cache, mas não guarda no cache os que renderiza")
+    void naoDeveEncherOCacheNaExportacao() throws Exception {
+        PdfGenerationService pdfGenerationService = spy(new PdfGenerationService(new SimpleMeterRegistry()));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReciboPdfCache cache = new ReciboPdfCache(pdfGenerationService, meterRegistry,
+                true, DataSize.ofMegabytes(1), "", DataSize.ofMegabytes(1));
+        cache.obter(calculo(2));
+        service = new ExportacaoRecibosService(repository, cache, pdfGenerationService, executor, 2, 3);
+
+        service.exportar(1L, ExportacaoRecibosRequest.builder()
+                .desligamentoDe(DE).desligamentoAte(ATE)
+                .formato(ExportacaoRecibosRequest.Formato.PDF)
+                .build(), new ByteArrayOutputStream());
+
+        // 1 renderização do aquecimento + 4 da exportação (o id 2 veio do cache).
+        verify(pdfGenerationService, times(5)).escreverReciboRescisao(any(), any());
+        assertNull(cache.consultar(calculo(3)));
+        assertEquals(1.0, meterRegistry.get("recibos.pdf.cache.entradas").tag("nivel", "memoria").gauge().value());
+    }
+
+    private static CalculoRescisao calculo(long id) {
+        return CalculoRescisao.builder()
+                .id(id)
+                .usuarioId(1L)
+                .nomeEmpregado("Empregado " + id)
+                .dataAdmissao(LocalDate.of(2020, 1, 1))
+                .dataDesligamento(LocalDate.of(2025, 1, (int) id))
+                .componentes(List.of(new Componente("Saldo de salário", new BigDecimal("1000.00"))), List.of())
+                .totalBruto(new BigDecimal("1000.00"))
+                .totalDescontos(BigDecimal.ZERO)
+                .totalLiquido(new BigDecimal("1000.00"))
+                .criadoEm(OffsetDateTime.parse("2025-02-01T10:00:00Z"))
+                .build();
+    }
+}
@@ -0,0 +1,224 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.dto.CalculoRescisaoResumo;
+import br.com.nish.calculadora.dto.PaginaCursor;
+import br.com.nish.calculadora.model.CalculoRescisao;
+import br.com.nish.calculadora.model.CalculoRescisaoIdAllocator;
+import br.com.nish.calculadora.model.CalculoRescisaoJdbcRepository;
+import br.com.nish.calculadora.model.CalculoRescisaoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testes para HistoricoCalculoService")
+class HistoricoCalculoServiceTest {
+
+    private CalculoRescisaoRepository repository;
+    private CalculoRescisaoJdbcRepository jdbcRepository;
+    private CalculoRescisaoIdAllocator idAllocator;
+    private Set<Long> gravados;
+    private AtomicInteger batches;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CalculoRescisaoRepository.class);
+        jdbcRepository = mock(CalculoRescisaoJdbcRepository.class);
+        idAllocator = mock(CalculoRescisaoIdAllocator.class);
+        AtomicLong ids = new AtomicLong(100);
+        when(idAllocator.proximoId()).thenAnswer(inv -> ids.getAndIncrement());
+
+        gravados = ConcurrentHashMap.newKeySet();
+        batches = new AtomicInteger();
+        doAnswer(inv -> {
+            List<CalculoRescisao> lote = inv.getArgument(0);
+            lote.forEach(c -> gravados.add(c.getId()));
+            batches.incrementAndGet();
+            return null;
+        }).when(jdbcRepository).inserirEmLoteComId(any());
+    }
+
+    @Test
+    @DisplayName("Write-behind devolve o id na hora e grava tudo em batches até o encerramento")
+    void deveGravarTudoAoEncerrar() throws Exception {
+        HistoricoCalculoService service = novoService(true, 1000);
+        service.iniciar();
+
+        for (int i = 0; i < 500; i++) {
+            assertEquals(100L + i, service.registrar(new CalculoRescisao()));
+        }
+        service.encerrar();
+
+        assertEquals(500, gravados.size());
+        assertTrue(batches.get() < 500, "as linhas devem ser agrupadas em batches");
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Com a fila cheia, a própria requisição grava a linha")
+    void deveGravarNaRequisicaoComFilaCheia() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        doAnswer(inv -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            List<CalculoRescisao> lote = inv.getArgument(0);
+            lote.forEach(c -> gravados.add(c.getId()));
+            return null;
+        }).when(jdbcRepository).inserirEmLoteComId(any());
+        HistoricoCalculoService service = novoService(true, 1);
+        service.iniciar();
+
+        // A thread fica presa no primeiro batch; a segunda linha ocupa a fila e a terceira não cabe.
+        service.registrar(new CalculoRescisao());
+        Thread.sleep(300);
+        service.registrar(new CalculoRescisao());
+        Thread terceira = new Thread(() -> service.registrar(new CalculoRescisao()));
+        terceira.start();
+        Thread.sleep(100);
+        liberar.countDown();
+        terceira.join(5000);
+        service.encerrar();
+
+        assertEquals(Set.of(100L, 101L, 102L), gravados);
+    }
+
+    @Test
+    @DisplayName("Falha no batch leva à gravação linha a linha, descartando só a linha inválida")
+    void deveIsolarLinhaInvalida() throws Exception {
+        doAnswer(inv -> {
+            List<CalculoRescisao> lote = inv.getArgument(0);
+            if (lote.stream().anyMatch(c -> c.getId() == 101L)) {
+                throw new DataIntegrityViolationException("linha inválida");
+            }
+            lote.forEach(c -> gravados.add(c.getId()));
+            return null;
+        }).when(jdbcRepository).inserirEmLoteComId(any());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HistoricoCalculoService service = novoService(true, 100, registry);
+
+        // Sem iniciar a thread, as linhas ficam na fila e são gravadas juntas no encerramento.
+        for (int i = 0; i < 3; i++) {
+            service.registrar(new CalculoRescisao());
+        }
+        service.encerrar();
+
+        assertEquals(Set.of(100L, 102L), gravados);
+        assertEquals(1.0, registry.get("rescisao.historico.descartados").counter().count());
+    }
+
+    @Test
+    @DisplayName("Leitura por id espera a gravação do cálculo ainda na fila do write-behind")
+    void deveAguardarGravacaoPendente() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        doAnswer(inv -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            List<CalculoRescisao> lote = inv.getArgument(0);
+            lote.forEach(c -> gravados.add(c.getId()));
+            return null;
+        }).when(jdbcRepository).inserirEmLoteComId(any());
+        HistoricoCalculoService service = novoService(true, 10);
+        service.iniciar();
+
+        CalculoRescisao calculo = new CalculoRescisao();
+        calculo.setUsuarioId(1L);
+        Long id = service.registrar(calculo);
+        // Ids de outro usuário e ids desconhecidos não esperam nada.
+        service.aguardarGravacao(2L, List.of(id));
+        service.aguardarGravacao(1L, List.of(999L));
+        assertTrue(gravados.isEmpty());
+
+        Thread liberador = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            liberar.countDown();
+        });
+        liberador.start();
+        service.aguardarGravacao(1L, List.of(id));
+
+        assertEquals(Set.of(id), gravados);
+        service.encerrar();
+    }
+
+    @Test
+    @DisplayName("Sem write-behind, o cálculo é salvo na própria requisição")
+    void deveSalvarSincronamenteQuandoDesligado() {
+        when(repository.save(any())).thenAnswer(inv -> {
+            CalculoRescisao calculo = inv.getArgument(0);
+            calculo.setId(7L);
+            return calculo;
+        });
+        HistoricoCalculoService service = novoService(false, 10);
+
+        assertEquals(7L, service.registrar(new CalculoRescisao()));
+        verify(idAllocator, never()).proximoId();
+    }
+
+    @Test
+    @DisplayName("Cursor leva à página seguinte a partir da última linha entregue")
+    void deveListarPorCursor() {
+        OffsetDateTime agora = OffsetDateTime.of(2025, 8, 29, 10, 0, 0, 123_456_000, ZoneOffset.UTC);
+        List<CalculoRescisaoResumo> linhas = List.of(resumo(30L, agora), resumo(29L, agora), resumo(12L, agora.minusDays(1)));
+        when(repository.findPrimeiraPaginaHistorico(1L, Limit.of(3))).thenReturn(linhas);
+        when(repository.findPaginaHistoricoApos(eq(1L), any(), eq(29L), eq(Limit.of(3)))).thenReturn(linhas.subList(2, 3));
+        HistoricoCalculoService service = novoService(false, 10);
+
+        PaginaCursor<CalculoRescisaoResumo> primeira = service.listarPorCursor(1L, null, 2);
+        PaginaCursor<CalculoRescisaoResumo> segunda = service.listarPorCursor(1L, primeira.getProximoCursor(), 2);
+
+        assertEquals(List.of(30L, 29L), primeira.getItens().stream().map(CalculoRescisaoResumo::id).toList());
+        assertEquals(List.of(12L), segunda.getItens().stream().map(CalculoRescisaoResumo::id).toList());
+        assertNull(segunda.getProximoCursor());
+        verify(repository).findPaginaHistoricoApos(1L, agora, 29L, Limit.of(3));
+    }
+
+    @Test
+    @DisplayName("Cursor adulterado é rejeitado")
+    void deveRejeitarCursorInvalido() {
+        HistoricoCalculoService service = novoService(false, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> service.listarPorCursor(1L, "nao-e-um-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> service.listarPorCursor(1L, "%%%", 10));
+    }
+
+    private static CalculoRescisaoResumo resumo(Long id, OffsetDateTime criadoEm) {
+        return new CalculoRescisaoResumo(id, "Nish", "SEM_JUSTA_CAUSA", criadoEm.toLocalDate(),
+                BigDecimal.TEN, BigDecimal.ONE, BigDecimal.valueOf(9), criadoEm);
+    }
+
+    private HistoricoCalculoService novoService(boolean writeBehind, int capacidade) {
+        return novoService(writeBehind, capacidade, new SimpleMeterRegistry());
+    }
+
+    private HistoricoCalculoService novoService(boolean writeBehind, int capacidade, SimpleMeterRegistry registry) {
+        return new HistoricoCalculoService(repository, jdbcRepository, idAllocator, registry,
+                writeBehind, capacidade, 50, Duration.ofMillis(20), Duration.ofSeconds(10), Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.dto.Componente;
+import br.com.nish.calculadora.model.CalculoRescisao;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testes para PdfGenerationService")
+class PdfGenerationServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PdfGenerationService pdfGenerationService = new PdfGenerationService(registry);
+
+    @Test
+    @DisplayName("Renderização direta escreve o recibo completo e não fecha a saída")
+    void deveEscreverNaSaidaSemFechar() throws Exception {
+        SaidaMonitorada out = new SaidaMonitorada();
+
+        pdfGenerationService.escreverReciboRescisao(calculo(new BigDecimal("3250.00")), out);
+
+        assertFalse(out.fechada);
+        String texto = new PdfTextExtractor(new PdfReader(out.toByteArray())).getTextFromPage(1);
+        assertTrue(texto.contains("Nish"));
+        assertTrue(texto.contains("10/01/2022"));
+        assertTrue(texto.contains("3.250,00"), texto);
+    }
+
+    @Test
+    @DisplayName("Cada recibo gerado registra o tempo e o tamanho em bytes")
+    void deveRegistrarTempoETamanho() throws Exception {
+        byte[] pdf = pdfGenerationService.gerarReciboRescisao(calculo(new BigDecimal("3250.00"))).readAllBytes();
+
+        assertEquals(1, registry.get("recibos.pdf.geracao").timer().count());
+        assertEquals(pdf.length, registry.get("recibos.pdf.tamanho").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Formatação de moeda compartilhada continua correta entre threads")
+    void deveFormatarMoedaEmParalelo() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<String>> textos = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            BigDecimal liquido = new BigDecimal(1000 + i + ".50");
+            textos.add(pool.submit(() -> {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                pdfGenerationService.escreverReciboRescisao(calculo(liquido), out);
+                return new PdfTextExtractor(new PdfReader(out.toByteArray())).getTextFromPage(1);
+            }));
+        }
+        for (int i = 0; i < textos.size(); i++) {
+            assertTrue(textos.get(i).get().contains("1.0%02d,50".formatted(i)));
+        }
+        pool.shutdown();
+        assertEquals(16, textos.size());
+    }
+
+    private static CalculoRescisao calculo(BigDecimal totalLiquido) {
+        return CalculoRescisao.builder()
+                .id(1L)
+                .nomeEmpregado("Nish")
+                .dataAdmissao(LocalDate.of(2022, 1, 10))
+                .dataDesligamento(LocalDate.of(2025, 3, 15))
+                .componentes(List.of(new Componente("Saldo de salário", new BigDecimal("1500.00"))), List.of())
+                .totalBruto(totalLiquido)
+                .totalDescontos(BigDecimal.ZERO)
+                .totalLiquido(totalLiquido)
+                .build();
+    }
+
+    private static final class SaidaMonitorada extends ByteArrayOutputStream {
+        private boolean fechada;
+
+        @Override
+        public void close() {
+            fechada = true;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.auth.UsuarioJdbcRepository;
+import br.com.nish.calculadora.auth.UsuarioJdbcRepository.NovoUsuario;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testes para ProvisionamentoUsuariosService")
+class ProvisionamentoUsuariosServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final AtomicLong ids = new AtomicLong();
+    private UsuarioJdbcRepository repositoryMock;
+    private ProvisionamentoUsuariosService service;
+
+    @BeforeEach
+    void setUp() {
+        repositoryMock = Mockito.mock(UsuarioJdbcRepository.class);
+        when(repositoryMock.emailsExistentes(anyCollection())).thenReturn(Set.of());
+        when(repositoryMock.usernamesExistentes(anyCollection())).thenReturn(Set.of());
+        when(repositoryMock.inserir(anyList(), any())).thenAnswer(inv -> {
+            Map<String, Long> gerados = new HashMap<>();
+            inv.<List<NovoUsuario>>getArgument(0).forEach(u -> gerados.put(u.email(), ids.incrementAndGet()));
+            return gerados;
+        });
+        service = new ProvisionamentoUsuariosService(
+                repositoryMock,
+                new LinhaImportacaoParser(objectMapper),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                objectMapper,
+                passwordEncoder,
+                Runnable::run,
+                2
+        );
+    }
+
+    @Test
+    @DisplayName("CSV: válidos são criados com ROLE_USER e senha em hash; inválidos e repetidos no arquivo viram erro")
+    void deveProvisionarCsvComErrosPorLinha() throws Exception {
+        String entrada = """
+                email,nome,username,senha
+                ana@empresa.com,Ana,ana.souza,SenhaForte123!
+                nao-e-email,Bruno,bruno.lima,SenhaForte123!
+                carla@empresa.com,Carla,carla,curta
+                ana@empresa.com,Ana de Novo,ana.nova,SenhaForte123!
+                davi@empresa.com,Davi,davi.reis,SenhaForte123!
+                """;
+
+        List<JsonNode> linhas = processar(entrada, LinhaImportacaoParser.TEXT_CSV);
+
+        assertEquals(5, linhas.size());
+        assertEquals("CRIADO", linhas.get(0).get("status").asText());
+        assertEquals(2, linhas.get(0).get("linha").asLong());
+        assertTrue(linhas.get(0).get("id").isNumber());
+        assertEquals("ERRO", linhas.get(1).get("status").asText());
+        assertTrue(linhas.get(1).get("erros").get(0).asText().startsWith("email"));
+        assertTrue(linhas.get(2).get("erros").get(0).asText().startsWith("senha"));
+        assertEquals("email: repetido no arquivo", linhas.get(3).get("erros").get(0).asText());
+        assertEquals("CRIADO", linhas.get(4).get("status").asText());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NovoUsuario>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repositoryMock, times(2)).inserir(captor.capture(), eq("ROLE_USER"));
+        List<NovoUsuario> gravados = captor.getAllValues().stream().flatMap(List::stream).toList();
+        assertEquals(List.of("ana@empresa.com", "davi@empresa.com"), gravados.stream().map(NovoUsuario::email).toList());
+        assertTrue(passwordEncoder.matches("SenhaForte123!", gravados.get(0).senhaHash()));
+    }
+
+    @Test
+    @DisplayName("NDJSON: email ou username já cadastrados são checados por bloco e reportados na linha")
+    void deveRejeitarJaCadastrados() throws Exception {
+        when(repositoryMock.emailsExistentes(anyCollection())).thenReturn(Set.of("ana@empresa.com"));
+        when(repositoryMock.usernamesExistentes(anyCollection())).thenReturn(Set.of("bruno.lima"));
+        String entrada = """
+                {"email":"ana@empresa.com","nome":"Ana","username":"ana.souza","senha":"SenhaForte123!"}
+                {"email":"bruno@empresa.com","nome":"Bruno","username":"bruno.lima","senha":"SenhaForte123!"}
+                isto não é json
+                """;
+
+        List<JsonNode> linhas = processar(entrada, LinhaImportacaoParser.APPLICATION_NDJSON);
+
+        assertEquals(List.of("email: já cadastrado"), textos(linhas.get(0).get("erros")));
+        assertEquals(List.of("username: já cadastrado"), textos(linhas.get(1).get("erros")));
+        assertTrue(linhas.get(2).get("erros").get(0).asText().startsWith("Linha inválida"));
+        verify(repositoryMock, Mockito.never()).inserir(anyList(), any());
+    }
+
+    @Test
+    @DisplayName("Se o batch falhar, o bloco é gravado linha a linha e só a linha em conflito vira erro")
+    void deveGravarUmAUmQuandoBatchFalha() throws Exception {
+        when(repositoryMock.inserir(anyList(), any())).thenAnswer(inv -> {
+            List<NovoUsuario> usuarios = inv.getArgument(0);
+            if (usuarios.stream().anyMatch(u -> u.email().equals("bruno@empresa.com"))) {
+                throw new DuplicateKeyException("usuarios_email_key");
+            }
+            return Map.of(usuarios.get(0).email(), ids.incrementAndGet());
+        });
+        String entrada = """
+                {"email":"ana@empresa.com","nome":"Ana","username":"ana.souza","senha":"SenhaForte123!"}
+                {"email":"bruno@empresa.com","nome":"Bruno","username":"bruno.lima","senha":"SenhaForte123!"}
+                """;
+
+        List<JsonNode> linhas = processar(entrada, LinhaImportacaoParser.APPLICATION_NDJSON);
+
+        assertEquals("CRIADO", linhas.get(0).get("status").asText());
+        assertEquals("ERRO", linhas.get(1).get("status").asText());
+        assertNull(linhas.get(1).get("id"));
+        verify(repositoryMock, times(3)).inserir(anyList(), any());
+    }
+
+    private List<JsonNode> processar(String entrada, MediaType contentType) throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        service.processar(new ByteArrayInputStream(entrada.getBytes(StandardCharsets.UTF_8)), contentType, saida);
+        List<JsonNode> linhas = new ArrayList<>();
+        for (String linha : saida.toString(StandardCharsets.UTF_8).split("\n")) {
+            linhas.add(objectMapper.readTree(linha));
+        }
+        return linhas;
+    }
+
+    private static List<String> textos(JsonNode array) {
+        List<String> textos = new ArrayList<>();
+        array.forEach(n -> textos.add(n.asText()));
+        return textos;
+    }
+}
@@ -0,0 +1,210 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.model.CalculoRescisao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Testes para ReciboPdfCache")
+class ReciboPdfCacheTest {
+
+    @TempDir
+    Path diretorio;
+
+    private PdfGenerationService pdfGenerationService;
+    private AtomicInteger renderizacoes;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pdfGenerationService = mock(PdfGenerationService.class);
+        renderizacoes = new AtomicInteger();
+        meterRegistry = new SimpleMeterRegistry();
+        doAnswer(inv -> {
+            renderizacoes.incrementAndGet();
+            Thread.sleep(50);
+            CalculoRescisao calculo = inv.getArgument(0);
+            OutputStream out = inv.getArgument(1);
+            out.write(pdfDe(calculo.getId()));
+            return null;
+        }).when(pdfGenerationService).escreverReciboRescisao(any(), any());
+    }
+
+    @Test
+    @DisplayName("Segunda requisição é servida da memória, sem renderizar de novo")
+    void deveServirDaMemoria() throws Exception {
+        ReciboPdfCache cache = novoCache(DataSize.ofMegabytes(1));
+
+        ReciboPdf primeiro = cache.obter(calculo(1L));
+        ReciboPdf segundo = cache.obter(calculo(1L));
+
+        assertEquals(ReciboPdf.Origem.RENDERIZADO, primeiro.origem());
+        assertEquals(ReciboPdf.Origem.MEMORIA, segundo.origem());
+        assertArrayEquals(pdfDe(1L), conteudo(segundo));
+        assertEquals(1, renderizacoes.get());
+        assertEquals(1.0, meterRegistry.get("recibos.pdf.requisicoes").tag("origem", "memoria").counter().count());
+    }
+
+    @Test
+    @DisplayName("Requisições simultâneas para o mesmo id geram uma única renderização")
+    void deveRenderizarUmaVezSobConcorrencia() throws Exception {
+        ReciboPdfCache cache = novoCache(DataSize.ofMegabytes(1));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<ReciboPdf>> futuros = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futuros.add(pool.submit(() -> {
+                largada.await();
+                return cache.obter(calculo(7L));
+            }));
+        }
+        largada.countDown();
+        for (Future<ReciboPdf> futuro : futuros) {
+            assertArrayEquals(pdfDe(7L), conteudo(futuro.get()));
+        }
+        pool.shutdown();
+
+        assertEquals(1, renderizacoes.get());
+    }
+
+    @Test
+    @DisplayName("Recibo que saiu da memória é servido do disco, inclusive após reinício")
+    void deveServirDoDisco() throws Exception {
+        ReciboPdfCache cache = novoCache(DataSize.ofBytes(0));
+        cache.obter(calculo(3L));
+
+        ReciboPdf doDisco = cache.obter(calculo(3L));
+        ReciboPdf aposReinicio = novoCache(DataSize.ofBytes(0)).obter(calculo(3L));
+
+        assertEquals(ReciboPdf.Origem.DISCO, doDisco.origem());
+        assertEquals(ReciboPdf.Origem.DISCO, aposReinicio.origem());
+        assertArrayEquals(pdfDe(3L), conteudo(aposReinicio));
+        assertEquals(1, renderizacoes.get());
+    }
+
+    @Test
+    @DisplayName("Remover o cálculo apaga o recibo da memória e do disco")
+    void deveRemoverDosDoisNiveis() throws Exception {
+        ReciboPdfCache cache = novoCache(DataSize.ofMegabytes(1));
+        cache.obter(calculo(5L));
+        assertEquals(1, arquivos().size());
+
+        cache.remover(5L);
+
+        assertTrue(arquivos().isEmpty());
+        assertEquals(ReciboPdf.Origem.RENDERIZADO, cache.obter(calculo(5L)).origem());
+        assertEquals(2, renderizacoes.get());
+    }
+
+    @Test
+    @DisplayName("PDF em disco de outro cálculo com o mesmo id (banco recriado) não é servido e é substituído")
+    void naoDeveServirPdfDeOutroCalculoComMesmoId() throws Exception {
+        CalculoRescisao antigo = calculo(9L);
+        antigo.setCriadoEm(OffsetDateTime.parse("2025-01-10T10:00:00Z"));
+        novoCache(DataSize.ofBytes(0)).obter(antigo);
+        CalculoRescisao novo = calculo(9L);
+        novo.setCriadoEm(OffsetDateTime.parse("2026-03-02T08:30:00Z"));
+
+        ReciboPdf recibo = novoCache(DataSize.ofBytes(0)).obter(novo);
+
+        assertEquals(ReciboPdf.Origem.RENDERIZADO, recibo.origem());
+        assertEquals(2, renderizacoes.get());
+        assertEquals(List.of("9-" + ReciboPdfCache.impressao(novo) + ".pdf"), arquivos());
+    }
+
+    @Test
+    @DisplayName("Arquivos sem impressão digital (formato anterior) são apagados ao iniciar")
+    void deveApagarArquivosSemImpressao() throws Exception {
+        Files.write(diretorio.resolve("4.pdf"), pdfDe(99L));
+
+        ReciboPdf recibo = novoCache(DataSize.ofBytes(0)).obter(calculo(4L));
+
+        assertEquals(ReciboPdf.Origem.RENDERIZADO, recibo.origem());
+        assertArrayEquals(pdfDe(4L), conteudo(recibo));
+        assertFalse(Files.exists(diretorio.resolve("4.pdf")));
+    }
+
+    @Test
+    @DisplayName("Impressão muda com o layout e com os dados impressos")
+    void impressaoDeveMudarComOsDados() {
+        CalculoRescisao calculo = calculo(2L);
+        String original = ReciboPdfCache.impressao(calculo);
+        calculo.setTotalLiquido(new BigDecimal("10.00"));
+
+        assertEquals(original, ReciboPdfCache.impressao(calculo(2L)));
+        assertNotEquals(original, ReciboPdfCache.impressao(calculo));
+    }
+
+    @Test
+    @DisplayName("Consultar devolve só o que já está guardado, sem renderizar nem inserir")
+    void consultarNaoDeveRenderizarNemInserir() throws Exception {
+        ReciboPdfCache cache = novoCache(DataSize.ofMegabytes(1));
+
+        assertNull(cache.consultar(calculo(1L)));
+        assertNull(cache.consultar(calculo(1L)));
+        assertEquals(0, renderizacoes.get());
+        assertTrue(arquivos().isEmpty());
+
+        cache.obter(calculo(1L));
+        ReciboPdf guardado = cache.consultar(calculo(1L));
+
+        assertEquals(ReciboPdf.Origem.MEMORIA, guardado.origem());
+        assertArrayEquals(pdfDe(1L), conteudo(guardado));
+        assertEquals(1, renderizacoes.get());
+    }
+
+    private List<String> arquivos() throws Exception {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.map(a -> a.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private ReciboPdfCache novoCache(DataSize memoriaMax) {
+        return new ReciboPdfCache(pdfGenerationService, meterRegistry, true, memoriaMax, diretorio.toString(), DataSize.ofMegabytes(10));
+    }
+
+    private static CalculoRescisao calculo(Long id) {
+        CalculoRescisao calculo = new CalculoRescisao();
+        calculo.setId(id);
+        calculo.setCriadoEm(OffsetDateTime.parse("2025-06-01T12:00:00Z"));
+        return calculo;
+    }
+
+    private static byte[] pdfDe(Long id) {
+        return ("%PDF-recibo-" + id).getBytes();
+    }
+
+    private static byte[] conteudo(ReciboPdf recibo) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recibo.escreverEm(out);
+        return out.toByteArray();
+    }
+}
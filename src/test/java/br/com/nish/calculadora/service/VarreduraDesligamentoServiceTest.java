@@ -0,0 +1,116 @@
+package br.com.nish.calculadora.service;
+
+import br.com.nish.calculadora.dto.CalculoRescisaoRequest;
+import br.com.nish.calculadora.dto.CalculoRescisaoResponse;
+import br.com.nish.calculadora.dto.TipoRescisao;
+import br.com.nish.calculadora.dto.VarreduraDesligamentoResponse;
+import br.com.nish.calculadora.dto.VarreduraDesligamentoResponse.Dia;
+import br.com.nish.calculadora.dto.VarreduraDesligamentoResponse.Motivo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+
+@DisplayName("Testes para VarreduraDesligamentoService")
+class VarreduraDesligamentoServiceTest {
+
+    private DescontosService descontos;
+    private CalculoRescisaoService motor;
+    private VarreduraDesligamentoService service;
+
+    @BeforeEach
+    void setUp() {
+        descontos = Mockito.spy(new DescontosService(new SimpleMeterRegistry()));
+        motor = new CalculoRescisaoService(descontos, new SimpleMeterRegistry());
+        service = new VarreduraDesligamentoService(motor, descontos, new SimpleMeterRegistry(), 366);
+    }
+
+    @Test
+    @DisplayName("Os totais de cada dia são iguais aos do motor, para todos os tipos, com e sem aviso indenizado")
+    void deveIgualarMotorDiaADia() {
+        // Admissão em 29/02 e período cruzando o aniversário e a virada do ano.
+        LocalDate de = LocalDate.of(2024, 9, 1);
+        LocalDate ate = LocalDate.of(2025, 8, 31);
+        for (TipoRescisao tipo : TipoRescisao.values()) {
+            for (boolean aviso : new boolean[]{true, false}) {
+                CalculoRescisaoRequest req = pedido(tipo, aviso);
+
+                VarreduraDesligamentoResponse varredura = service.varrer(req, de, ate);
+
+                assertEquals(365, varredura.getDias().size());
+                for (Dia dia : varredura.getDias()) {
+                    req.setDataDesligamento(dia.dataDesligamento());
+                    CalculoRescisaoResponse esperado = motor.calcular(req);
+                    String contexto = tipo + " aviso=" + aviso + " " + dia.dataDesligamento();
+                    assertEquals(esperado.getTotalBruto(), dia.totalBruto(), contexto);
+                    assertEquals(esperado.getTotalDescontos(), dia.totalDescontos(), contexto);
+                    assertEquals(esperado.getTotalLiquido(), dia.totalLiquido(), contexto);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Pontos de quebra marcam o aniversário que aumenta o aviso e as viradas de mês e ano")
+    void deveApontarQuebras() {
+        VarreduraDesligamentoResponse varredura = service.varrer(pedido(TipoRescisao.SEM_JUSTA_CAUSA, true),
+                LocalDate.of(2024, 12, 1), LocalDate.of(2025, 3, 31));
+
+        // Admissão em 29/02/2020: o 5º ano só se completa em 01/03/2025. Com 45 dias de aviso em vez de 42, o fim
+        // projetado passa de 11/04 para 15/04 e abril também passa a contar.
+        assertEquals(Set.of(Motivo.VIRADA_DO_MES, Motivo.AVISO_PREVIO, Motivo.MESES_NO_ANO),
+                quebra(varredura, LocalDate.of(2025, 3, 1)));
+        assertTrue(quebra(varredura, LocalDate.of(2025, 1, 1)).contains(Motivo.VIRADA_DO_ANO));
+        assertTrue(varredura.getQuebras().stream().noneMatch(q -> q.dataDesligamento().equals(LocalDate.of(2024, 12, 1))));
+    }
+
+    @Test
+    @DisplayName("Um ano de varredura chama os descontos poucas vezes, e não duas por dia")
+    void deveReaproveitarCalculos() {
+        service.varrer(pedido(TipoRescisao.SEM_JUSTA_CAUSA, true), LocalDate.of(2024, 9, 1), LocalDate.of(2025, 8, 31));
+
+        // Até 31 saldos de salário mais um 13º por contagem de meses (0 a 12 em cada ano).
+        Mockito.verify(descontos, Mockito.atMost(31 + 2 * 13)).calcularInss(any(BigDecimal.class));
+    }
+
+    @Test
+    @DisplayName("Período maior que o limite ou antes da admissão é rejeitado")
+    void deveRejeitarPeriodoInvalido() {
+        CalculoRescisaoRequest req = pedido(TipoRescisao.SEM_JUSTA_CAUSA, true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.varrer(req, LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.varrer(req, LocalDate.of(2020, 1, 1), LocalDate.of(2020, 3, 1)));
+    }
+
+    private static CalculoRescisaoRequest pedido(TipoRescisao tipo, boolean avisoIndenizado) {
+        return CalculoRescisaoRequest.builder()
+                .tipoRescisao(tipo)
+                .salarioMensal(new BigDecimal("7350.00"))
+                .dataAdmissao(LocalDate.of(2020, 2, 29))
+                .avisoIndenizado(avisoIndenizado)
+                .feriasVencidasDias(12)
+                .saldoFgtsDepositado(new BigDecimal("28750.40"))
+                .numeroDependentes(1)
+                .build();
+    }
+
+    private static Set<Motivo> quebra(VarreduraDesligamentoResponse varredura, LocalDate data) {
+        return varredura.getQuebras().stream()
+                .filter(q -> q.dataDesligamento().equals(data))
+                .findFirst()
+                .orElseThrow()
+                .motivos();
+    }
+}
@@ -0,0 +1,106 @@
+package db.migration;
+
+import br.com.nish.calculadora.dto.Componente;
+import br.com.nish.calculadora.model.CalculoRescisao;
+import br.com.nish.calculadora.model.CalculoRescisaoJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DisplayName("Testes para a migração do JSON de componentes para o resultado compacto (V11)")
+class ResultadoCompactoMigracaoTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                        + "DEFAULT_NULL_ORDERING=HIGH;INIT=CREATE DOMAIN IF NOT EXISTS JSONB AS JSON", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    @DisplayName("Cálculos gravados em JSON passam a ter resultado e verbas, sem descontos, e o JSON é removido")
+    void deveConverterComponentesJson() {
+        migrar("10");
+        jdbcTemplate.update("INSERT INTO usuarios (email, senha_hash, nome, username) VALUES ('ana@empresa.com', 'x', 'Ana', 'ana')");
+        long usuarioId = jdbcTemplate.queryForObject("SELECT min(id) FROM usuarios", Long.class);
+        inserirLegado(usuarioId, """
+                [{"nome":"Saldo de salário","valor":1500.00},{"nome":"13º proporcional (5 meses)","valor":1250.5},
+                 {"nome":"Gratificação avulsa","valor":10}]""");
+        inserirLegado(usuarioId, "[]");
+
+        migrar(null);
+
+        List<CalculoRescisao> calculos = new CalculoRescisaoJdbcRepository(jdbcTemplate, new SimpleMeterRegistry())
+                .buscarPorIds(usuarioId, jdbcTemplate.queryForList("SELECT id FROM calculos_rescisao", Long.class));
+        assertEquals(List.of(
+                new Componente("Saldo de salário", new BigDecimal("1500.00")),
+                new Componente("13º proporcional (5 meses)", new BigDecimal("1250.50")),
+                new Componente("Gratificação avulsa", new BigDecimal("10.00"))), calculos.get(0).getComponentes());
+        assertNull(calculos.get(0).getDescontos());
+        assertArrayEquals(new Short[]{1, 2}, calculos.get(0).getVerbas());
+        assertEquals(List.of(), calculos.get(1).getComponentes());
+        assertArrayEquals(new Short[0], calculos.get(1).getVerbas());
+        assertEquals(0, jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM information_schema.columns
+                 WHERE table_name = 'calculos_rescisao' AND column_name = 'componentes'""", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Valores com mais de duas casas são arredondados HALF_UP; nome só com o prefixo vai por extenso")
+    void deveArredondarHalfUpEManterPrefixoPorExtenso() {
+        migrar("10");
+        jdbcTemplate.update("INSERT INTO usuarios (email, senha_hash, nome, username) VALUES ('ana@empresa.com', 'x', 'Ana', 'ana')");
+        long usuarioId = jdbcTemplate.queryForObject("SELECT min(id) FROM usuarios", Long.class);
+        inserirLegado(usuarioId, """
+                [{"nome":"Aviso prévio indenizado (33 dias)","valor":3300.125},{"nome":"13º proporcional","valor":0.005}]""");
+
+        migrar(null);
+
+        CalculoRescisao calculo = new CalculoRescisaoJdbcRepository(jdbcTemplate, new SimpleMeterRegistry())
+                .buscarPorIds(usuarioId, jdbcTemplate.queryForList("SELECT id FROM calculos_rescisao", Long.class)).get(0);
+        assertEquals(List.of(
+                new Componente("Aviso prévio indenizado (33 dias)", new BigDecimal("3300.13")),
+                new Componente("13º proporcional", new BigDecimal("0.01"))), calculo.getComponentes());
+        assertArrayEquals(new Short[]{2, 5}, calculo.getVerbas());
+    }
+
+    private void migrar(String alvo) {
+        var configuracao = Flyway.configure().dataSource(dataSource).locations("classpath:db/migration", "classpath:db/vendor/h2");
+        if (alvo != null) {
+            configuracao.target(alvo);
+        }
+        configuracao.load().migrate();
+    }
+
+    private void inserirLegado(long usuarioId, String componentesJson) {
+        jdbcTemplate.update("""
+                INSERT INTO calculos_rescisao (usuario_id, tipo_rescisao, salario_mensal, data_admissao, data_desligamento,
+                    aviso_indenizado, ferias_vencidas_dias, meses_trabalhados_ano, saldo_fgts_depositado,
+                    total_bruto, total_descontos, total_liquido, componentes)
+                VALUES (?, 'SEM_JUSTA_CAUSA', 3000.00, DATE '2020-01-10', DATE '2025-01-10', FALSE, 0, 0, 0,
+                    2760.50, 0, 2760.50, ? FORMAT JSON)
+                """, usuarioId, componentesJson);
+    }
+}